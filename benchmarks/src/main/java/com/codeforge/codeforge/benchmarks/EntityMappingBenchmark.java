@@ -0,0 +1,86 @@
+package com.codeforge.codeforge.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.codeforge.codeforge.catalog.ProblemView;
+import com.codeforge.codeforge.export.SubmissionExportRow;
+import com.codeforge.codeforge.model.Category;
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.model.Submission;
+import com.codeforge.codeforge.model.User;
+import com.codeforge.codeforge.search.ProblemDocument;
+import com.codeforge.codeforge.stream.SubmissionUpdate;
+
+// Entity-to-DTO mapping on the read paths that copy Problem and Submission entities
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMappingBenchmark {
+
+    private Problem problem;
+    private Submission submission;
+
+    @Setup
+    public void setUp() {
+        User author = new User("author", "author@example.com", "hash");
+        author.setId(1L);
+        problem = new Problem("Two Sum", "two-sum", "Statement ".repeat(400), Problem.Difficulty.EASY, author);
+        problem.setId(1L);
+        problem.setStatus(Problem.Status.ACTIVE);
+        problem.setConstraints("1 <= n <= 10^5");
+        for (long i = 1; i <= 4; i++) {
+            Category category = new Category("Category " + i, "Description " + i);
+            category.setId(i);
+            problem.getCategories().add(category);
+        }
+
+        submission = new Submission(author, problem, "class Main {}\n".repeat(200), Submission.Language.JAVA);
+        submission.setId(1L);
+        submission.setStatus(Submission.Status.ACCEPTED);
+        submission.setExecutionTime(120);
+        submission.setMemoryUsed(32_000);
+        submission.setPassedTestCases(50);
+        submission.setTotalTestCases(50);
+        submission.setSubmittedAt(LocalDateTime.now());
+        submission.setCodeHash("0".repeat(64));
+    }
+
+    @Benchmark
+    public ProblemView problemView() {
+        return ProblemView.of(problem);
+    }
+
+    @Benchmark
+    public ProblemDocument problemDocument() {
+        return ProblemDocument.of(problem);
+    }
+
+    @Benchmark
+    public SubmissionUpdate submissionUpdate() {
+        return new SubmissionUpdate(submission.getId(), submission.getStatus(), submission.getPassedTestCases(),
+                submission.getTotalTestCases(), submission.getExecutionTime(), submission.getMemoryUsed());
+    }
+
+    @Benchmark
+    public SubmissionExportRow submissionExportRow() {
+        return new SubmissionExportRow(submission.getId(), submission.getUser().getId(), submission.getProblem().getId(),
+                submission.getLanguage(), submission.getStatus(), submission.getExecutionTime(),
+                submission.getMemoryUsed(), submission.getPassedTestCases(), submission.getTotalTestCases(),
+                submission.getSubmittedAt(), submission.getCodeHash(), submission.getCode());
+    }
+}
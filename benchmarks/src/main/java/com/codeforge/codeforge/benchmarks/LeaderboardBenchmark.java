@@ -0,0 +1,96 @@
+package com.codeforge.codeforge.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.codeforge.codeforge.contest.ContestLeaderboard;
+import com.codeforge.codeforge.contest.LeaderboardEntry;
+
+/**
+ * Rank maintenance of the in-memory contest leaderboard: accepted verdicts moving participants, rank
+ * lookups and page reads.
+ *
+ * The board is rebuilt for every iteration and accepts are drawn from a shuffled list of (user, problem)
+ * pairs, so every measured accept actually changes a score; there are far more pairs than a one-second
+ * iteration can consume.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaderboardBenchmark {
+
+    private static final int PROBLEMS = 50;
+
+    @Param({"10000", "100000"})
+    int participants;
+
+    private ContestLeaderboard board;
+    private long[] accepts;
+    private int nextAccept;
+    private LocalDateTime acceptedAt;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        Map<Long, Integer> points = new HashMap<>();
+        for (long problemId = 1; problemId <= PROBLEMS; problemId++) {
+            points.put(problemId, 10 * (int) (1 + problemId % 5));
+        }
+        board = new ContestLeaderboard(1L, start, start.plusHours(3), points);
+        for (long userId = 1; userId <= participants; userId++) {
+            board.addParticipant(userId, userId, "user" + userId);
+        }
+
+        // Pair encoded as userId * PROBLEMS + (problemId - 1)
+        accepts = new long[participants * PROBLEMS];
+        for (int i = 0; i < accepts.length; i++) {
+            accepts[i] = PROBLEMS + i;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = accepts.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long swap = accepts[i];
+            accepts[i] = accepts[j];
+            accepts[j] = swap;
+        }
+        nextAccept = 0;
+        acceptedAt = start;
+    }
+
+    @Benchmark
+    public boolean recordAccepted() {
+        long pair = accepts[nextAccept++ % accepts.length];
+        acceptedAt = acceptedAt.plusNanos(1000);
+        return board.recordAccepted(pair / PROBLEMS, pair % PROBLEMS + 1, acceptedAt);
+    }
+
+    @Benchmark
+    public LeaderboardEntry entryOf() {
+        return board.entryOf((long) ThreadLocalRandom.current().nextInt(participants) + 1);
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> pageAtRandomOffset() {
+        return board.page(ThreadLocalRandom.current().nextInt(participants), 50);
+    }
+}
@@ -0,0 +1,89 @@
+package com.codeforge.codeforge.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.codeforge.codeforge.judge.checker.StreamingOutputComparator;
+
+/**
+ * Output checking on large expected outputs: the streaming comparator fed in pipe-sized chunks, against
+ * decoding both sides and comparing trimmed strings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OutputComparisonBenchmark {
+
+    @Param({"1048576", "16777216"})
+    int outputBytes;
+
+    // Size of the reads the sandbox hands to the sink
+    @Param({"8192"})
+    int chunkBytes;
+
+    private ByteBuffer expected;
+    private byte[] matching;
+    private byte[] mismatchingAtEnd;
+
+    @Setup
+    public void setUp() {
+        StringBuilder output = new StringBuilder(outputBytes + 64);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (output.length() < outputBytes) {
+            for (int i = 0; i < 10; i++) {
+                output.append(random.nextInt(1_000_000_000)).append(i < 9 ? ' ' : '\n');
+            }
+        }
+        byte[] expectedBytes = output.toString().getBytes(StandardCharsets.UTF_8);
+        expected = ByteBuffer.allocateDirect(expectedBytes.length).put(expectedBytes).flip();
+
+        // Same content with trailing spaces and a blank line, which the checker ignores
+        matching = (output.toString().replace("\n", "  \n") + "\n").getBytes(StandardCharsets.UTF_8);
+        mismatchingAtEnd = expectedBytes.clone();
+        mismatchingAtEnd[mismatchingAtEnd.length - 2] ^= 1;
+    }
+
+    @Benchmark
+    public boolean streamingMatch() {
+        return compare(matching);
+    }
+
+    @Benchmark
+    public boolean streamingMismatchAtEnd() {
+        return compare(mismatchingAtEnd);
+    }
+
+    // What a checker holding both outputs as TEXT would do
+    @Benchmark
+    public boolean stringTrimEquals() {
+        String expectedText = StandardCharsets.UTF_8.decode(expected.duplicate()).toString();
+        String actualText = new String(matching, StandardCharsets.UTF_8);
+        return expectedText.strip().lines().map(String::stripTrailing).toList()
+                .equals(actualText.strip().lines().map(String::stripTrailing).toList());
+    }
+
+    private boolean compare(byte[] actual) {
+        StreamingOutputComparator comparator = new StreamingOutputComparator(expected);
+        for (int offset = 0; offset < actual.length && !comparator.hasMismatch(); offset += chunkBytes) {
+            comparator.write(actual, offset, Math.min(chunkBytes, actual.length - offset));
+        }
+        return comparator.matches();
+    }
+}
@@ -0,0 +1,72 @@
+package com.codeforge.codeforge.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.service.ProblemStatsService;
+
+/**
+ * Submission counters under contention from judge workers: mutating a shared Problem (counters plus
+ * acceptance rate) under its monitor, against the striped buffers of ProblemStatsService.
+ * Run with -t 1 for the uncontended cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ProblemCounterBenchmark {
+
+    // How many problems the verdicts are spread over; 1 is a single contest problem everyone submits to
+    @Param({"1", "16"})
+    int hotProblems;
+
+    private Problem[] problems;
+    private ProblemStatsService statsService;
+
+    @Setup
+    public void setUp() {
+        problems = new Problem[hotProblems];
+        for (int i = 0; i < hotProblems; i++) {
+            problems[i] = new Problem("Problem " + i, "problem-" + i, "Statement", Problem.Difficulty.MEDIUM, null);
+            problems[i].setId((long) i + 1);
+        }
+        // Only the in-memory recording path is measured; nothing is flushed
+        statsService = new ProblemStatsService(null, null);
+    }
+
+    @Benchmark
+    public double entityIncrement() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Problem problem = problems[random.nextInt(hotProblems)];
+        synchronized (problem) {
+            problem.incrementSubmissionCount();
+            if (random.nextInt(3) == 0) {
+                problem.incrementAcceptedCount();
+            }
+            return problem.getAcceptanceRate();
+        }
+    }
+
+    @Benchmark
+    public void statsServiceRecord() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        statsService.recordSubmission((long) random.nextInt(hotProblems) + 1, random.nextInt(3) == 0);
+    }
+}
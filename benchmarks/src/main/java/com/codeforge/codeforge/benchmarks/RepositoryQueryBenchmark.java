@@ -0,0 +1,122 @@
+package com.codeforge.codeforge.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.model.Submission;
+import com.codeforge.codeforge.repository.ProblemRepository;
+import com.codeforge.codeforge.repository.SubmissionRepository;
+
+/**
+ * The heaviest SubmissionRepository and ProblemRepository queries against {@link SeededPostgres}
+ * (1M submissions by default). Users and problems are drawn from the busiest ids, where a missing index
+ * or a bad plan shows first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RepositoryQueryBenchmark {
+
+    private static final int HOT_IDS = 100;
+
+    private SubmissionRepository submissionRepository;
+    private ProblemRepository problemRepository;
+    private TransactionTemplate transactionTemplate;
+    private LocalDateTime deepCursor;
+
+    @Setup
+    public void setUp(SeededPostgres database) {
+        submissionRepository = database.bean(SubmissionRepository.class);
+        problemRepository = database.bean(ProblemRepository.class);
+        transactionTemplate = database.bean(TransactionTemplate.class);
+        deepCursor = LocalDateTime.now().minusDays(180);
+    }
+
+    @Benchmark
+    public List<SubmissionRepository.SummaryView> historyByUserFirstPage() {
+        return submissionRepository.findHistoryByUser(hotId(), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<SubmissionRepository.SummaryView> historyByUserDeepPage() {
+        return submissionRepository.findHistoryByUserBefore(hotId(), deepCursor, Long.MAX_VALUE, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<SubmissionRepository.SummaryView> historyByProblemFirstPage() {
+        return submissionRepository.findHistoryByProblem(hotId(), PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<SubmissionRepository.VerdictView> previousVerdicts() {
+        int g = ThreadLocalRandom.current().nextInt(50_000);
+        String hash = md5Twice(g);
+        return submissionRepository.findPreviousVerdicts(hotId(), hash, Submission.Language.PYTHON, "10-1-0",
+                List.of(Submission.Status.ACCEPTED, Submission.Status.WRONG_ANSWER), PageRequest.of(0, 1));
+    }
+
+    @Benchmark
+    public List<SubmissionRepository.ProblemOutcomeView> problemOutcomesByUser() {
+        return submissionRepository.findProblemOutcomesByUser(hotId());
+    }
+
+    @Benchmark
+    public List<ProblemRepository.CatalogView> activeCatalog() {
+        return problemRepository.findActiveCatalog();
+    }
+
+    @Benchmark
+    public List<Problem> trendingProblems() {
+        return problemRepository.findTrendingProblems(PageRequest.of(0, 20));
+    }
+
+    // Unindexed LIKE scan kept as a reference point for the in-memory search index
+    @Benchmark
+    public List<Problem> searchByTitleOrDescription() {
+        return problemRepository.searchByTitleOrDescription("problem 12");
+    }
+
+    @Benchmark
+    public Integer applyStatsDelta() {
+        return transactionTemplate.execute(status -> problemRepository.applyStatsDelta(hotId(), 5, 2, 0, 0));
+    }
+
+    private static long hotId() {
+        return ThreadLocalRandom.current().nextInt(HOT_IDS) + 1;
+    }
+
+    // Matches the code_hash values generated by SeededPostgres
+    private static String md5Twice(int g) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5")
+                    .digest(Integer.toString(g).getBytes(StandardCharsets.US_ASCII));
+            String hex = HexFormat.of().formatHex(digest);
+            return hex + hex;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
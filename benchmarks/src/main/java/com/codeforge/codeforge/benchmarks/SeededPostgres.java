@@ -0,0 +1,105 @@
+package com.codeforge.codeforge.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.CodeForge.CodeForge.CodeForgeApplication;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * An embedded Postgres with the application's schema and a generated data set, shared by all
+ * benchmarks of a fork.
+ *
+ * The application context starts against the empty database, so Hibernate and schema.sql create the
+ * schema exactly as in production; the rows are then generated in SQL and the tables analyzed. The
+ * judge, and with it Docker, stays disabled.
+ */
+@State(Scope.Benchmark)
+public class SeededPostgres {
+
+    @Param({"1000000"})
+    int submissions;
+
+    @Param({"20000"})
+    int users;
+
+    @Param({"3000"})
+    int problems;
+
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(CodeForgeApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(Map.of(
+                        "DB_URL", postgres.getJdbcUrl("postgres", "postgres"),
+                        "DB_USER", "postgres",
+                        "DB_PASSWORD", "postgres",
+                        "codeforge.judge.enabled", "false",
+                        "spring.jpa.show-sql", "false",
+                        "spring.main.banner-mode", "off",
+                        "logging.level.root", "WARN",
+                        "codeforge.testdata.dir", Files.createTempDirectory("codeforge-bench").toString()))
+                .run();
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO users (username, email, password_hash, role, reputation, streak_count, created_at, updated_at) " +
+                "SELECT 'user' || g, 'user' || g || '@example.com', 'x', 'USER', 0, 0, now(), now() " +
+                "FROM generate_series(1, ?) g", users);
+        jdbc.update("INSERT INTO categories (name, description, is_active, created_at, updated_at) " +
+                "SELECT 'Category ' || g, 'Generated category', true, now(), now() FROM generate_series(1, 30) g");
+        // Problem ids come from problems_seq in the application; generated rows take them explicitly
+        jdbc.update("INSERT INTO problems (id, title, slug, description, difficulty, created_by, acceptance_rate, " +
+                "submission_count, accepted_count, likes, dislikes, status, created_at, updated_at) " +
+                "SELECT g, 'Problem ' || g, 'problem-' || g, repeat('Statement of problem ' || g || '. ', 40), " +
+                "(ARRAY['EASY','MEDIUM','HARD'])[1 + g % 3], 1, 0, 0, 0, 0, 0, " +
+                "CASE WHEN g % 20 = 0 THEN 'DRAFT' ELSE 'ACTIVE' END, now(), now() " +
+                "FROM generate_series(1, ?) g", problems);
+        jdbc.update("INSERT INTO problem_categories (problem_id, category_id) " +
+                "SELECT p, 1 + (p * k) % 30 FROM generate_series(1, ?) p, generate_series(1, 3) k " +
+                "ON CONFLICT DO NOTHING", problems);
+        // Skewed towards low ids: a few heavy users and popular problems, like real traffic
+        jdbc.update("INSERT INTO submissions (user_id, problem_id, code, language, status, execution_time, memory_used, " +
+                "passed_test_cases, total_test_cases, submitted_at, code_hash, test_set_version) " +
+                "SELECT 1 + floor(? * power(random(), 2))::int, 1 + floor(? * power(random(), 2))::int, " +
+                "'print(' || g || ')', (ARRAY['JAVA','PYTHON','CPP','JAVASCRIPT'])[1 + g % 4], " +
+                "(ARRAY['ACCEPTED','WRONG_ANSWER','TIME_LIMIT_EXCEEDED','RUNTIME_ERROR'])[1 + (g / 7) % 4], " +
+                "(random() * 2000)::int, (random() * 256000)::int, 10, 10, " +
+                "now() - (random() * interval '365 days'), md5((g % 50000)::text) || md5((g % 50000)::text), '10-1-0' " +
+                "FROM generate_series(1, ?) g", users, problems, submissions);
+        jdbc.execute("SELECT setval('problems_seq', (SELECT MAX(id) FROM problems))");
+        jdbc.execute("ANALYZE");
+    }
+}
@@ -2,10 +2,17 @@ package com.CodeForge.CodeForge;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import io.github.cdimascio.dotenv.Dotenv;
 
-@SpringBootApplication
+// Domain code lives under the lower-case com.codeforge.codeforge package, so it has to be scanned explicitly
+@SpringBootApplication(scanBasePackages = {"com.CodeForge.CodeForge", "com.codeforge.codeforge"})
+@EnableJpaRepositories(basePackages = "com.codeforge.codeforge.repository")
+@EntityScan(basePackages = "com.codeforge.codeforge.model")
+@EnableScheduling
 public class CodeForgeApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,9 @@
+package com.codeforge.codeforge.analytics;
+
+// What a rollup row is grouped by; GLOBAL rows use an empty key
+public enum RollupDimension {
+    USER,
+    PROBLEM,
+    LANGUAGE,
+    GLOBAL
+}
@@ -0,0 +1,31 @@
+package com.codeforge.codeforge.analytics;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum RollupGranularity {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    RollupGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    // Start of the bucket containing the given time
+    public LocalDateTime floor(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    // Smallest bucket start at or after the given time
+    public LocalDateTime ceil(LocalDateTime time) {
+        LocalDateTime floor = floor(time);
+        return floor.equals(time) ? floor : floor.plus(1, unit);
+    }
+
+    public String postgresUnit() {
+        return name().toLowerCase();
+    }
+}
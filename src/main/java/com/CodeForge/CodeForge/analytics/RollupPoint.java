@@ -0,0 +1,8 @@
+package com.codeforge.codeforge.analytics;
+
+import java.time.LocalDateTime;
+
+import com.codeforge.codeforge.model.Submission;
+
+public record RollupPoint(LocalDateTime bucketStart, Submission.Status status, long submissions, Double averageExecutionTime) {
+}
@@ -0,0 +1,10 @@
+package com.codeforge.codeforge.analytics;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import com.codeforge.codeforge.model.Submission;
+
+public record RollupTotals(LocalDateTime from, LocalDateTime to, long submissions, Map<Submission.Status, Long> byStatus,
+        Double averageExecutionTime) {
+}
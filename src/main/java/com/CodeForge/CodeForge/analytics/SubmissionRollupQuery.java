@@ -0,0 +1,107 @@
+package com.codeforge.codeforge.analytics;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.codeforge.codeforge.model.Submission;
+
+/**
+ * Reads submission analytics from submission_rollups only. An arbitrary range is split into whole
+ * days, then whole hours, then minutes at the edges, so a year needs about 365 rows per status,
+ * not one row per submission. Minute edges older than the minute retention are no longer stored;
+ * such ranges are exact to the hour.
+ */
+@Service
+public class SubmissionRollupQuery {
+
+    private static final RollupGranularity[] COARSEST_FIRST = {
+            RollupGranularity.DAY, RollupGranularity.HOUR, RollupGranularity.MINUTE};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SubmissionRollupQuery(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    record Segment(RollupGranularity granularity, LocalDateTime from, LocalDateTime to) {
+    }
+
+    // Totals per verdict over [from, to), rounded outwards to whole minutes
+    public RollupTotals totals(RollupDimension dimension, String key, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = RollupGranularity.MINUTE.floor(from);
+        LocalDateTime end = RollupGranularity.MINUTE.ceil(to);
+        List<Segment> segments = new ArrayList<>();
+        decompose(start, end, 0, segments);
+
+        Map<Submission.Status, Long> byStatus = new EnumMap<>(Submission.Status.class);
+        long[] sums = new long[3];
+        if (!segments.isEmpty()) {
+            StringBuilder sql = new StringBuilder(
+                    "SELECT status, SUM(submission_count), SUM(timed_count), SUM(execution_time_sum) " +
+                    "FROM submission_rollups WHERE dimension = ? AND dimension_key = ? AND (");
+            List<Object> args = new ArrayList<>(List.of(dimension.name(), keyOf(dimension, key)));
+            for (int i = 0; i < segments.size(); i++) {
+                Segment segment = segments.get(i);
+                sql.append(i > 0 ? " OR " : "").append("(granularity = ? AND bucket_start >= ? AND bucket_start < ?)");
+                args.add(segment.granularity().name());
+                args.add(Timestamp.valueOf(segment.from()));
+                args.add(Timestamp.valueOf(segment.to()));
+            }
+            sql.append(") GROUP BY status");
+
+            jdbcTemplate.query(sql.toString(), rs -> {
+                long count = rs.getLong(2);
+                byStatus.put(Submission.Status.valueOf(rs.getString(1)), count);
+                sums[0] += count;
+                sums[1] += rs.getLong(3);
+                sums[2] += rs.getLong(4);
+            }, args.toArray());
+        }
+        return new RollupTotals(start, end, sums[0], byStatus, sums[1] > 0 ? (double) sums[2] / sums[1] : null);
+    }
+
+    // One point per bucket and verdict, e.g. DAY buckets for an activity heatmap
+    public List<RollupPoint> series(RollupDimension dimension, String key, RollupGranularity granularity,
+                                    LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+                "SELECT bucket_start, status, submission_count, timed_count, execution_time_sum FROM submission_rollups " +
+                "WHERE granularity = ? AND dimension = ? AND dimension_key = ? AND bucket_start >= ? AND bucket_start < ? " +
+                "ORDER BY bucket_start, status",
+                (rs, row) -> {
+                    long timed = rs.getLong(4);
+                    return new RollupPoint(rs.getTimestamp(1).toLocalDateTime(),
+                            Submission.Status.valueOf(rs.getString(2)), rs.getLong(3),
+                            timed > 0 ? (double) rs.getLong(5) / timed : null);
+                },
+                granularity.name(), dimension.name(), keyOf(dimension, key),
+                Timestamp.valueOf(granularity.floor(from)), Timestamp.valueOf(granularity.ceil(to)));
+    }
+
+    // Cover [from, to) with the coarsest whole buckets first, recursing into the uneven edges
+    static void decompose(LocalDateTime from, LocalDateTime to, int level, List<Segment> segments) {
+        if (!from.isBefore(to) || level == COARSEST_FIRST.length) {
+            return;
+        }
+        RollupGranularity granularity = COARSEST_FIRST[level];
+        LocalDateTime innerStart = granularity.ceil(from);
+        LocalDateTime innerEnd = granularity.floor(to);
+        if (innerStart.isBefore(innerEnd)) {
+            decompose(from, innerStart, level + 1, segments);
+            segments.add(new Segment(granularity, innerStart, innerEnd));
+            decompose(innerEnd, to, level + 1, segments);
+        } else {
+            decompose(from, to, level + 1, segments);
+        }
+    }
+
+    private static String keyOf(RollupDimension dimension, String key) {
+        return dimension == RollupDimension.GLOBAL || key == null ? "" : key;
+    }
+}
@@ -0,0 +1,198 @@
+package com.codeforge.codeforge.analytics;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.codeforge.codeforge.event.SubmissionJudgedEvent;
+import com.codeforge.codeforge.model.Submission;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Maintains submission_rollups: counts and execution time per minute, hour and day, for each user,
+ * problem, language and overall, split by verdict. Judged submissions are added to in-memory
+ * buckets. The buckets are flushed as batched increments (INSERT ... ON CONFLICT DO UPDATE), so each
+ * verdict costs no extra statement. Minute and hour buckets are pruned after their retention.
+ */
+@Component
+public class SubmissionRollupRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionRollupRecorder.class);
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO submission_rollups (granularity, dimension, dimension_key, bucket_start, status, " +
+            "submission_count, timed_count, execution_time_sum) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (granularity, dimension, dimension_key, bucket_start, status) DO UPDATE SET " +
+            "submission_count = submission_rollups.submission_count + EXCLUDED.submission_count, " +
+            "timed_count = submission_rollups.timed_count + EXCLUDED.timed_count, " +
+            "execution_time_sum = submission_rollups.execution_time_sum + EXCLUDED.execution_time_sum";
+
+    // Recomputes one granularity from submissions since a cutoff, replacing the stored buckets
+    private static final String BACKFILL_SQL =
+            "INSERT INTO submission_rollups (granularity, dimension, dimension_key, bucket_start, status, " +
+            "submission_count, timed_count, execution_time_sum) " +
+            "SELECT ?, d.dimension, d.dimension_key, d.bucket_start, d.status, COUNT(*), COUNT(d.execution_time), " +
+            "COALESCE(SUM(d.execution_time), 0) FROM (" +
+            "SELECT 'USER' AS dimension, CAST(s.user_id AS VARCHAR) AS dimension_key, date_trunc(?, s.submitted_at) AS bucket_start, s.status, s.execution_time FROM submissions s WHERE s.status NOT IN ('PENDING', 'RUNNING') AND s.submitted_at >= ? " +
+            "UNION ALL SELECT 'PROBLEM', CAST(s.problem_id AS VARCHAR), date_trunc(?, s.submitted_at), s.status, s.execution_time FROM submissions s WHERE s.status NOT IN ('PENDING', 'RUNNING') AND s.submitted_at >= ? " +
+            "UNION ALL SELECT 'LANGUAGE', s.language, date_trunc(?, s.submitted_at), s.status, s.execution_time FROM submissions s WHERE s.status NOT IN ('PENDING', 'RUNNING') AND s.submitted_at >= ? " +
+            "UNION ALL SELECT 'GLOBAL', '', date_trunc(?, s.submitted_at), s.status, s.execution_time FROM submissions s WHERE s.status NOT IN ('PENDING', 'RUNNING') AND s.submitted_at >= ?" +
+            ") d GROUP BY d.dimension, d.dimension_key, d.bucket_start, d.status " +
+            "ON CONFLICT (granularity, dimension, dimension_key, bucket_start, status) DO UPDATE SET " +
+            "submission_count = EXCLUDED.submission_count, timed_count = EXCLUDED.timed_count, " +
+            "execution_time_sum = EXCLUDED.execution_time_sum";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int minuteRetentionDays;
+    private final int hourRetentionDays;
+    private final Map<RollupKey, Bucket> pending = new ConcurrentHashMap<>();
+
+    public SubmissionRollupRecorder(JdbcTemplate jdbcTemplate,
+                                    @Value("${codeforge.analytics.minute-retention-days:7}") int minuteRetentionDays,
+                                    @Value("${codeforge.analytics.hour-retention-days:90}") int hourRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.minuteRetentionDays = minuteRetentionDays;
+        this.hourRetentionDays = hourRetentionDays;
+    }
+
+    record RollupKey(RollupGranularity granularity, RollupDimension dimension, String key,
+                     LocalDateTime bucketStart, Submission.Status status) {
+    }
+
+    private static class Bucket {
+        final LongAdder submissions = new LongAdder();
+        final LongAdder timed = new LongAdder();
+        final LongAdder executionTime = new LongAdder();
+    }
+
+    @TransactionalEventListener
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            LocalDateTime bucketStart = granularity.floor(event.submittedAt());
+            add(new RollupKey(granularity, RollupDimension.USER, event.userId().toString(), bucketStart, event.status()), event);
+            add(new RollupKey(granularity, RollupDimension.PROBLEM, event.problemId().toString(), bucketStart, event.status()), event);
+            add(new RollupKey(granularity, RollupDimension.LANGUAGE, event.language().name(), bucketStart, event.status()), event);
+            add(new RollupKey(granularity, RollupDimension.GLOBAL, "", bucketStart, event.status()), event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${codeforge.analytics.flush-interval-ms:5000}")
+    public void flush() {
+        LocalDateTime idleBefore = LocalDateTime.now().minusMinutes(2);
+        List<Object[]> rows = new ArrayList<>();
+        List<RollupKey> keys = new ArrayList<>();
+        List<long[]> values = new ArrayList<>();
+
+        for (Map.Entry<RollupKey, Bucket> entry : pending.entrySet()) {
+            RollupKey key = entry.getKey();
+            Bucket bucket = entry.getValue();
+            long submissions = bucket.submissions.sumThenReset();
+            long timed = bucket.timed.sumThenReset();
+            long executionTime = bucket.executionTime.sumThenReset();
+            if (submissions == 0) {
+                // Drop buckets that no longer receive verdicts; a late one simply starts a new bucket
+                boolean idle = key.granularity() == RollupGranularity.MINUTE
+                        ? key.bucketStart().isBefore(idleBefore)
+                        : key.bucketStart().isBefore(idleBefore.minusDays(1));
+                if (idle) {
+                    // Atomic with add(), so a verdict landing in the bucket right now keeps it alive
+                    pending.computeIfPresent(key, (k, b) -> b.submissions.sum() == 0 ? null : b);
+                }
+                continue;
+            }
+            keys.add(key);
+            values.add(new long[] {submissions, timed, executionTime});
+            rows.add(new Object[] {key.granularity().name(), key.dimension().name(), key.key(),
+                    Timestamp.valueOf(key.bucketStart()), key.status().name(), submissions, timed, executionTime});
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        } catch (RuntimeException e) {
+            // Keep the increments for the next flush
+            for (int i = 0; i < keys.size(); i++) {
+                long[] value = values.get(i);
+                pending.compute(keys.get(i), (k, b) -> {
+                    Bucket bucket = b != null ? b : new Bucket();
+                    bucket.submissions.add(value[0]);
+                    bucket.timed.add(value[1]);
+                    bucket.executionTime.add(value[2]);
+                    return bucket;
+                });
+            }
+            log.warn("Could not flush {} submission rollup buckets", rows.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    @Scheduled(cron = "${codeforge.analytics.prune-cron:0 15 * * * *}")
+    public void prune() {
+        LocalDateTime now = LocalDateTime.now();
+        int minutes = jdbcTemplate.update("DELETE FROM submission_rollups WHERE granularity = 'MINUTE' AND bucket_start < ?",
+                Timestamp.valueOf(now.minusDays(minuteRetentionDays)));
+        int hours = jdbcTemplate.update("DELETE FROM submission_rollups WHERE granularity = 'HOUR' AND bucket_start < ?",
+                Timestamp.valueOf(now.minusDays(hourRetentionDays)));
+        if (minutes + hours > 0) {
+            log.info("Pruned {} minute and {} hour rollup buckets", minutes, hours);
+        }
+    }
+
+    // First start with an empty table: derive the buckets still within retention from submissions
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM submission_rollups)", Boolean.class);
+        if (Boolean.TRUE.equals(empty)) {
+            backfill();
+        }
+    }
+
+    public void backfill() {
+        LocalDateTime now = LocalDateTime.now();
+        backfill(RollupGranularity.MINUTE, now.minusDays(minuteRetentionDays));
+        backfill(RollupGranularity.HOUR, now.minusDays(hourRetentionDays));
+        backfill(RollupGranularity.DAY, LocalDateTime.of(1970, 1, 1, 0, 0));
+    }
+
+    private void backfill(RollupGranularity granularity, LocalDateTime since) {
+        String unit = granularity.postgresUnit();
+        Timestamp cutoff = Timestamp.valueOf(granularity.floor(since));
+        int rows = jdbcTemplate.update(BACKFILL_SQL, granularity.name(),
+                unit, cutoff, unit, cutoff, unit, cutoff, unit, cutoff);
+        log.info("Backfilled {} {} rollup buckets", rows, unit);
+    }
+
+    // Counts inside compute() so an idle bucket cannot be evicted between lookup and increment
+    private void add(RollupKey key, SubmissionJudgedEvent event) {
+        pending.compute(key, (k, b) -> {
+            Bucket bucket = b != null ? b : new Bucket();
+            bucket.submissions.increment();
+            if (event.executionTime() != null) {
+                bucket.timed.increment();
+                bucket.executionTime.add(event.executionTime());
+            }
+            return bucket;
+        });
+    }
+}
@@ -0,0 +1,174 @@
+package com.codeforge.codeforge.catalog;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codeforge.codeforge.event.CatalogChangedEvent;
+import com.codeforge.codeforge.model.CodeTemplate;
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.model.TestCase;
+import com.codeforge.codeforge.repository.CategoryRepository;
+import com.codeforge.codeforge.repository.CodeTemplateRepository;
+import com.codeforge.codeforge.repository.ContestProblemRepository;
+import com.codeforge.codeforge.repository.ProblemRepository;
+import com.codeforge.codeforge.repository.TestCaseRepository;
+import com.codeforge.codeforge.storage.TestCaseContent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size-bounded cache of read-mostly catalogue data: problem statements, active categories, code templates,
+ * sample test cases and contest problem lists, held as immutable views.
+ *
+ * Entries are invalidated after each committed change reported by the entity listener. Changes that bypass
+ * it (bulk SQL, category links, which do not touch the problem row) are covered by a write expiry. Concurrent
+ * misses on the same key share one database load.
+ */
+@Service
+public class CatalogCache {
+
+    private static final String ACTIVE = "active";
+
+    private final ProblemRepository problemRepository;
+    private final CategoryRepository categoryRepository;
+    private final CodeTemplateRepository codeTemplateRepository;
+    private final TestCaseRepository testCaseRepository;
+    private final ContestProblemRepository contestProblemRepository;
+    private final TestCaseContent testCaseContent;
+    private final TransactionTemplate readTransaction;
+
+    private final Cache<String, Long> problemIdsBySlug;
+    private final Cache<Long, ProblemView> problems;
+    private final Cache<String, List<CategoryView>> activeCategories;
+    private final Cache<Long, Map<CodeTemplate.Language, String>> templates;
+    private final Cache<Long, List<SampleCaseView>> sampleCases;
+    private final Cache<Long, List<ContestProblemView>> contestProblems;
+
+    public CatalogCache(ProblemRepository problemRepository,
+                        CategoryRepository categoryRepository,
+                        CodeTemplateRepository codeTemplateRepository,
+                        TestCaseRepository testCaseRepository,
+                        ContestProblemRepository contestProblemRepository,
+                        TestCaseContent testCaseContent,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${codeforge.catalog.max-problems:5000}") long maxProblems,
+                        @Value("${codeforge.catalog.max-template-sets:5000}") long maxTemplateSets,
+                        @Value("${codeforge.catalog.max-sample-sets:5000}") long maxSampleSets,
+                        @Value("${codeforge.catalog.max-contests:500}") long maxContests,
+                        @Value("${codeforge.catalog.expire-after-write-ms:600000}") long expireAfterWriteMillis) {
+        this.problemRepository = problemRepository;
+        this.categoryRepository = categoryRepository;
+        this.codeTemplateRepository = codeTemplateRepository;
+        this.testCaseRepository = testCaseRepository;
+        this.contestProblemRepository = contestProblemRepository;
+        this.testCaseContent = testCaseContent;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Duration expiry = Duration.ofMillis(expireAfterWriteMillis);
+        this.problemIdsBySlug = Caffeine.newBuilder().maximumSize(maxProblems).expireAfterWrite(expiry).recordStats().build();
+        this.problems = Caffeine.newBuilder().maximumSize(maxProblems).expireAfterWrite(expiry).recordStats().build();
+        this.activeCategories = Caffeine.newBuilder().maximumSize(1).expireAfterWrite(expiry).recordStats().build();
+        this.templates = Caffeine.newBuilder().maximumSize(maxTemplateSets).expireAfterWrite(expiry).recordStats().build();
+        this.sampleCases = Caffeine.newBuilder().maximumSize(maxSampleSets).expireAfterWrite(expiry).recordStats().build();
+        this.contestProblems = Caffeine.newBuilder().maximumSize(maxContests).expireAfterWrite(expiry).recordStats().build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, problemIdsBySlug, "catalog.problem-slugs");
+        CaffeineCacheMetrics.monitor(meterRegistry, problems, "catalog.problems");
+        CaffeineCacheMetrics.monitor(meterRegistry, activeCategories, "catalog.categories");
+        CaffeineCacheMetrics.monitor(meterRegistry, templates, "catalog.templates");
+        CaffeineCacheMetrics.monitor(meterRegistry, sampleCases, "catalog.sample-cases");
+        CaffeineCacheMetrics.monitor(meterRegistry, contestProblems, "catalog.contest-problems");
+    }
+
+    // Misses are not cached, so a problem created later is found on the next lookup
+    public Optional<ProblemView> problemBySlug(String slug) {
+        Long id = problemIdsBySlug.get(slug, key -> read(() -> problemRepository.findBySlug(key).map(Problem::getId).orElse(null)));
+        return id != null ? problem(id) : Optional.empty();
+    }
+
+    public Optional<ProblemView> problem(Long problemId) {
+        return Optional.ofNullable(problems.get(problemId, id -> read(() ->
+                problemRepository.findWithCategoriesByIdIn(List.of(id)).stream().findFirst().map(ProblemView::of).orElse(null))));
+    }
+
+    public List<CategoryView> activeCategories() {
+        return activeCategories.get(ACTIVE, key -> read(() ->
+                categoryRepository.findByIsActiveTrue().stream().map(CategoryView::of).toList()));
+    }
+
+    public Optional<String> templateCode(Long problemId, CodeTemplate.Language language) {
+        return Optional.ofNullable(templates(problemId).get(language));
+    }
+
+    // All of a problem's templates by language, loaded together so languages without one are cached too
+    public Map<CodeTemplate.Language, String> templates(Long problemId) {
+        return templates.get(problemId, id -> read(() -> {
+            Map<CodeTemplate.Language, String> byLanguage = new EnumMap<>(CodeTemplate.Language.class);
+            for (CodeTemplate template : codeTemplateRepository.findByProblem(problemRepository.getReferenceById(id))) {
+                byLanguage.put(template.getLanguage(), template.getTemplateCode());
+            }
+            return Collections.unmodifiableMap(byLanguage);
+        }));
+    }
+
+    public List<SampleCaseView> sampleCases(Long problemId) {
+        return sampleCases.get(problemId, id -> read(() ->
+                testCaseRepository.findSampleCases(problemRepository.getReferenceById(id)).stream()
+                        .sorted(Comparator.comparing(TestCase::getId))
+                        .map(testCase -> new SampleCaseView(testCase.getId(), testCaseContent.inputAsString(testCase),
+                                testCaseContent.expectedOutputAsString(testCase), testCase.getExplanation()))
+                        .toList()));
+    }
+
+    public List<ContestProblemView> contestProblems(Long contestId) {
+        return contestProblems.get(contestId, id -> read(() ->
+                contestProblemRepository.findPointsByContestId(id).stream()
+                        .map(view -> new ContestProblemView(view.getProblemId(), view.getPoints()))
+                        .toList()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        switch (event.kind()) {
+            case PROBLEM -> {
+                problems.invalidate(event.id());
+                problemIdsBySlug.asMap().values().removeIf(event.id()::equals);
+                if (event.removed()) {
+                    templates.invalidate(event.id());
+                    sampleCases.invalidate(event.id());
+                }
+            }
+            case CATEGORY -> {
+                activeCategories.invalidateAll();
+                // Problem views embed their categories
+                problems.invalidateAll();
+            }
+            case TEST_CASE -> sampleCases.invalidate(event.id());
+            case TEMPLATE -> templates.invalidate(event.id());
+            case CONTEST -> contestProblems.invalidate(event.id());
+        }
+    }
+
+    private <T> T read(Supplier<T> loader) {
+        return readTransaction.execute(status -> loader.get());
+    }
+}
@@ -0,0 +1,12 @@
+package com.codeforge.codeforge.catalog;
+
+import com.codeforge.codeforge.model.Category;
+
+// Immutable copy of a category, safe to share between requests from the catalogue cache
+public record CategoryView(Long id, String name, String description, String iconUrl, String colorCode) {
+
+    public static CategoryView of(Category category) {
+        return new CategoryView(category.getId(), category.getName(), category.getDescription(),
+                category.getIconUrl(), category.getColorCode());
+    }
+}
@@ -0,0 +1,5 @@
+package com.codeforge.codeforge.catalog;
+
+// A problem of a contest and the points it is worth
+public record ContestProblemView(Long problemId, Integer points) {
+}
@@ -0,0 +1,29 @@
+package com.codeforge.codeforge.catalog;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.codeforge.codeforge.model.Problem;
+
+/**
+ * Immutable copy of a problem statement and its categories. Submission counters are left out: they are
+ * flushed by bulk updates that do not invalidate the cache.
+ */
+public record ProblemView(
+        Long id,
+        String title,
+        String slug,
+        String description,
+        Problem.Difficulty difficulty,
+        String constraints,
+        Problem.Status status,
+        List<CategoryView> categories,
+        LocalDateTime updatedAt) {
+
+    // Expects the categories to be fetched
+    public static ProblemView of(Problem problem) {
+        return new ProblemView(problem.getId(), problem.getTitle(), problem.getSlug(), problem.getDescription(),
+                problem.getDifficulty(), problem.getConstraints(), problem.getStatus(),
+                problem.getCategories().stream().map(CategoryView::of).toList(), problem.getUpdatedAt());
+    }
+}
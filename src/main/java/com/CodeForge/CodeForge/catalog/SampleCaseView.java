@@ -0,0 +1,5 @@
+package com.codeforge.codeforge.catalog;
+
+// A sample test case as shown with the problem statement
+public record SampleCaseView(Long id, String input, String expectedOutput, String explanation) {
+}
@@ -0,0 +1,58 @@
+package com.codeforge.codeforge.config;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Opt-in virtual thread mode (spring.threads.virtual.enabled=true). Spring Boot then runs Tomcat
+ * requests, @Scheduled and @Async work on virtual threads, and the judge dispatcher starts one
+ * virtual thread per claimed submission. This configuration puts a semaphore in front of the
+ * connection pool, sized to the pool, so request concurrency is no longer capped by platform threads
+ * but database access still is.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.threads.virtual", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    static BeanPostProcessor connectionLimitingPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)) {
+                    return bean;
+                }
+                int maxConnections = environment.getProperty("codeforge.datasource.max-concurrent-connections",
+                        Integer.class, hikari.getMaximumPoolSize());
+                long acquireTimeoutMillis = environment.getProperty("codeforge.datasource.acquire-timeout-ms",
+                        Long.class, hikari.getConnectionTimeout());
+                log.info("Limiting {} to {} concurrent connections", beanName, maxConnections);
+                return new ConnectionLimitingDataSource(hikari, maxConnections, acquireTimeoutMillis);
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder connectionLimiterMetrics(DataSource dataSource) throws SQLException {
+        ConnectionLimitingDataSource limiter = dataSource.unwrap(ConnectionLimitingDataSource.class);
+        return registry -> Gauge.builder("codeforge.datasource.waiting", limiter, ConnectionLimitingDataSource::queueLength)
+                .description("Threads waiting for a database connection permit")
+                .register(registry);
+    }
+}
@@ -0,0 +1,282 @@
+package com.codeforge.codeforge.contest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Standings of one running contest. A Fenwick tree counts participants per score, so the rank of a
+ * score is one prefix sum, and a sorted set keeps the display order (score, then earliest last
+ * accept, then user id). A page seeks to its first score through the tree and then walks k entries.
+ */
+public class ContestLeaderboard {
+
+    private static final Comparator<Standing> ORDER = Comparator
+            .comparingInt((Standing s) -> -s.score)
+            .thenComparingLong(s -> s.lastAcceptMillis)
+            .thenComparingLong(s -> s.userId);
+
+    private final Long contestId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final Map<Long, Integer> pointsByProblem;
+    private final int maxScore;
+
+    private final Map<Long, Standing> byUser = new HashMap<>();
+    private final NavigableSet<Standing> order = new TreeSet<>(ORDER);
+    // tree[i] covers score i - 1; index 0 is unused
+    private final int[] tree;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long lastParticipantId;
+    private long lastSubmissionId;
+
+    public ContestLeaderboard(Long contestId, LocalDateTime startTime, LocalDateTime endTime,
+                              Map<Long, Integer> pointsByProblem) {
+        this.contestId = contestId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.pointsByProblem = Map.copyOf(pointsByProblem);
+        this.maxScore = pointsByProblem.values().stream().mapToInt(Integer::intValue).sum();
+        this.tree = new int[maxScore + 2];
+    }
+
+    public Long getContestId() { return contestId; }
+
+    public LocalDateTime getStartTime() { return startTime; }
+
+    public LocalDateTime getEndTime() { return endTime; }
+
+    public Map<Long, Integer> getPointsByProblem() { return pointsByProblem; }
+
+    public boolean includesProblem(Long problemId) {
+        return pointsByProblem.containsKey(problemId);
+    }
+
+    public long getLastParticipantId() {
+        lock.readLock().lock();
+        try {
+            return lastParticipantId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Accepted submissions up to this id have been replayed from the database
+    public long getLastSubmissionId() {
+        lock.readLock().lock();
+        try {
+            return lastSubmissionId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void markReplayedThrough(long submissionId) {
+        lock.writeLock().lock();
+        try {
+            lastSubmissionId = Math.max(lastSubmissionId, submissionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addParticipant(long participantId, Long userId, String username) {
+        lock.writeLock().lock();
+        try {
+            lastParticipantId = Math.max(lastParticipantId, participantId);
+            if (byUser.containsKey(userId)) {
+                return;
+            }
+            Standing standing = new Standing(participantId, userId, username);
+            byUser.put(userId, standing);
+            order.add(standing);
+            add(0, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Award the problem's points for the first accepted submission inside the contest window
+    public boolean recordAccepted(Long userId, Long problemId, LocalDateTime acceptedAt) {
+        Integer points = pointsByProblem.get(problemId);
+        if (points == null || acceptedAt.isBefore(startTime) || acceptedAt.isAfter(endTime)) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            Standing standing = byUser.get(userId);
+            if (standing == null || !standing.solved.add(problemId)) {
+                return false;
+            }
+            order.remove(standing);
+            add(standing.score, -1);
+            standing.score += points;
+            standing.lastAcceptMillis = Math.max(standing.lastAcceptMillis, millis(acceptedAt));
+            add(standing.score, 1);
+            order.add(standing);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public LeaderboardEntry entryOf(Long userId) {
+        lock.readLock().lock();
+        try {
+            Standing standing = byUser.get(userId);
+            return standing == null ? null : toEntry(standing, rankOf(standing.score));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<LeaderboardEntry> page(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            int total = byUser.size();
+            if (offset >= total || limit <= 0) {
+                return List.of();
+            }
+
+            // Score of the entry at the offset: smallest score whose prefix count exceeds total - 1 - offset
+            int score = lowestScoreWithPrefix(total - offset);
+            int ahead = total - prefix(score);
+            Standing from = new Standing(0, Long.MIN_VALUE, null);
+            from.score = score;
+            from.lastAcceptMillis = Long.MIN_VALUE;
+
+            List<LeaderboardEntry> entries = new ArrayList<>(Math.min(limit, total - offset));
+            Iterator<Standing> it = order.tailSet(from, true).iterator();
+            for (int skip = offset - ahead; skip > 0 && it.hasNext(); skip--) {
+                it.next();
+            }
+            while (it.hasNext() && entries.size() < limit) {
+                Standing standing = it.next();
+                entries.add(toEntry(standing, rankOf(standing.score)));
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byUser.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rows whose rank or score changed since they were last written back
+    public List<RankChange> pendingRankChanges() {
+        lock.readLock().lock();
+        try {
+            List<RankChange> changes = new ArrayList<>();
+            int position = 0;
+            int rank = 0;
+            int previousScore = -1;
+            for (Standing standing : order) {
+                position++;
+                if (standing.score != previousScore) {
+                    rank = position;
+                    previousScore = standing.score;
+                }
+                if (standing.writtenRank != rank || standing.writtenScore != standing.score) {
+                    changes.add(new RankChange(standing.participantId, standing.userId, standing.score, rank));
+                }
+            }
+            return changes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void markWritten(List<RankChange> changes) {
+        lock.writeLock().lock();
+        try {
+            for (RankChange change : changes) {
+                Standing standing = byUser.get(change.userId());
+                if (standing != null) {
+                    standing.writtenRank = change.rank();
+                    standing.writtenScore = change.score();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private LeaderboardEntry toEntry(Standing standing, int rank) {
+        return new LeaderboardEntry(rank, standing.userId, standing.username, standing.score, standing.solved.size());
+    }
+
+    private int rankOf(int score) {
+        return byUser.size() - prefix(score) + 1;
+    }
+
+    // Number of participants with a score of at most the given score
+    private int prefix(int score) {
+        int sum = 0;
+        for (int i = score + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void add(int score, int delta) {
+        for (int i = score + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    // Smallest score whose prefix count reaches k (1 <= k <= size)
+    private int lowestScoreWithPrefix(int k) {
+        int index = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next < tree.length && tree[next] < k) {
+                index = next;
+                k -= tree[next];
+            }
+        }
+        return index;
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    public record RankChange(long participantId, Long userId, int score, int rank) {
+    }
+
+    private static class Standing {
+        final long participantId;
+        final long userId;
+        final String username;
+        final Set<Long> solved = new HashSet<>();
+        int score;
+        long lastAcceptMillis;
+        int writtenRank = -1;
+        int writtenScore = -1;
+
+        Standing(long participantId, long userId, String username) {
+            this.participantId = participantId;
+            this.userId = userId;
+            this.username = username;
+        }
+    }
+}
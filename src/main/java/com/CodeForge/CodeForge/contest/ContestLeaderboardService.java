@@ -0,0 +1,266 @@
+package com.codeforge.codeforge.contest;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codeforge.codeforge.event.LeaderboardChangedEvent;
+import com.codeforge.codeforge.event.SubmissionJudgedEvent;
+import com.codeforge.codeforge.model.Contest;
+import com.codeforge.codeforge.repository.ContestParticipantRepository;
+import com.codeforge.codeforge.repository.ContestProblemRepository;
+import com.codeforge.codeforge.repository.ContestRepository;
+import com.codeforge.codeforge.repository.SubmissionRepository;
+
+/**
+ * Keeps a {@link ContestLeaderboard} in memory for every running contest, so leaderboard reads never
+ * sort participants in the database. Boards are seeded from accepted submissions, follow accepted
+ * verdicts as this instance commits them and replay the ones judged elsewhere on every refresh, by
+ * submission id. Score and rank are written back to contest_participants periodically by whichever
+ * instance holds the contest's advisory lock, right after it caught up with the database.
+ */
+@Service
+public class ContestLeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContestLeaderboardService.class);
+
+    private static final String UPDATE_STANDING_SQL =
+            "UPDATE contest_participants SET score = ?, rank = ? WHERE id = ?";
+    // Released with the flush transaction; the first key keeps these locks apart from other advisory locks
+    private static final String TRY_WRITER_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(?, ?)";
+    private static final int WRITER_LOCK_NAMESPACE = 0x4C42;
+
+    private final ContestRepository contestRepository;
+    private final ContestParticipantRepository participantRepository;
+    private final ContestProblemRepository contestProblemRepository;
+    private final SubmissionRepository submissionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate writeTransaction;
+    private final Map<Long, ContestLeaderboard> boards = new ConcurrentHashMap<>();
+
+    public ContestLeaderboardService(ContestRepository contestRepository,
+                                     ContestParticipantRepository participantRepository,
+                                     ContestProblemRepository contestProblemRepository,
+                                     SubmissionRepository submissionRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     ApplicationEventPublisher eventPublisher,
+                                     PlatformTransactionManager transactionManager) {
+        this.contestRepository = contestRepository;
+        this.participantRepository = participantRepository;
+        this.contestProblemRepository = contestProblemRepository;
+        this.submissionRepository = submissionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        if (!event.isAccepted()) {
+            return;
+        }
+        for (ContestLeaderboard board : boards.values()) {
+            if (!board.includesProblem(event.problemId())) {
+                continue;
+            }
+            record(board, event.userId(), event.problemId(), event.submittedAt());
+        }
+    }
+
+    public Optional<ContestLeaderboard> liveBoard(Long contestId) {
+        return Optional.ofNullable(boards.get(contestId));
+    }
+
+    public LeaderboardPage page(Long contestId, int page, int size) {
+        ContestLeaderboard board = boards.get(contestId);
+        if (board != null) {
+            int offset;
+            try {
+                offset = Math.multiplyExact(page, size);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Page " + page + " is out of range");
+            }
+            return new LeaderboardPage(contestId, page, size, board.size(), true, board.page(offset, size));
+        }
+
+        // Not running: serve the standings written back by the last flush
+        Page<ContestParticipantRepository.StandingView> standings =
+                participantRepository.findStandings(contestId, PageRequest.of(page, size));
+        List<LeaderboardEntry> entries = standings.stream()
+                .map(s -> new LeaderboardEntry(s.getRank() == null ? 0 : s.getRank(), s.getUserId(),
+                        s.getUsername(), s.getScore(), 0))
+                .toList();
+        return new LeaderboardPage(contestId, page, size, standings.getTotalElements(), false, entries);
+    }
+
+    // Track newly started contests, participants and accepts from other instances; drop contests that have ended
+    @Scheduled(fixedDelayString = "${codeforge.leaderboard.refresh-interval-ms:15000}")
+    public void refresh() {
+        List<Contest> running = contestRepository.findRunningContests(LocalDateTime.now());
+        Set<Long> runningIds = new HashSet<>();
+
+        for (Contest contest : running) {
+            if (contest.getStatus() == Contest.Status.CANCELLED) {
+                continue;
+            }
+            runningIds.add(contest.getId());
+            try {
+                refresh(contest);
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh leaderboard of contest {}", contest.getId(), e);
+            }
+        }
+
+        for (Long contestId : Set.copyOf(boards.keySet())) {
+            if (!runningIds.contains(contestId)) {
+                ContestLeaderboard board = boards.get(contestId);
+                // Final write so the stored ranks match the last live standings
+                try {
+                    flushAsWriter(board);
+                } catch (RuntimeException e) {
+                    log.warn("Could not write final ranks of contest {}", contestId, e);
+                }
+                boards.remove(contestId);
+                log.info("Contest {} ended, leaderboard released", contestId);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${codeforge.leaderboard.flush-interval-ms:10000}")
+    public void flushRanks() {
+        for (ContestLeaderboard board : boards.values()) {
+            try {
+                flushAsWriter(board);
+            } catch (RuntimeException e) {
+                log.warn("Could not write ranks of contest {}", board.getContestId(), e);
+            }
+        }
+    }
+
+    private void refresh(Contest contest) {
+        Map<Long, Integer> points = new HashMap<>();
+        for (ContestProblemRepository.PointsView view : contestProblemRepository.findPointsByContestId(contest.getId())) {
+            points.put(view.getProblemId(), view.getPoints());
+        }
+
+        ContestLeaderboard board = boards.get(contest.getId());
+        if (board == null || !board.getPointsByProblem().equals(points)
+                || !board.getEndTime().equals(contest.getEndTime())) {
+            // New contest, or its problem set changed: rebuild from the accepted submissions.
+            // Publish the board before loading so verdicts committed meanwhile are not lost.
+            board = new ContestLeaderboard(contest.getId(), contest.getStartTime(), contest.getEndTime(), points);
+            boards.put(contest.getId(), board);
+            load(board, 0L);
+            log.info("Leaderboard of contest {} loaded with {} participants", contest.getId(), board.size());
+        } else {
+            load(board, board.getLastParticipantId());
+        }
+        replayAccepts(board);
+    }
+
+    // Add participants who joined after afterId and replay their accepted submissions
+    private void load(ContestLeaderboard board, long afterId) {
+        List<ContestParticipantRepository.ParticipantView> joined =
+                participantRepository.findParticipantsAfter(board.getContestId(), afterId);
+        if (joined.isEmpty()) {
+            return;
+        }
+        for (ContestParticipantRepository.ParticipantView participant : joined) {
+            board.addParticipant(participant.getId(), participant.getUserId(), participant.getUsername());
+        }
+        if (board.getPointsByProblem().isEmpty()) {
+            return;
+        }
+        Set<Long> problemIds = board.getPointsByProblem().keySet();
+        Long unjudged = submissionRepository.findLowestUnjudgedId(problemIds);
+        long replayed = 0;
+        for (SubmissionRepository.FirstAcceptView accept : submissionRepository.findFirstAcceptsInContest(
+                board.getContestId(), afterId, problemIds, board.getStartTime(), board.getEndTime())) {
+            board.recordAccepted(accept.getUserId(), accept.getProblemId(), accept.getAcceptedAt());
+            replayed = Math.max(replayed, accept.getSubmissionId());
+        }
+        if (afterId == 0) {
+            // A full load covers every participant, so later replays can start after it
+            board.markReplayedThrough(watermark(replayed, unjudged));
+        }
+    }
+
+    // Accepts committed since the last replay, including those judged by other instances
+    private void replayAccepts(ContestLeaderboard board) {
+        if (board.getPointsByProblem().isEmpty()) {
+            return;
+        }
+        Set<Long> problemIds = board.getPointsByProblem().keySet();
+        // Read before the accepts: everything below it already had its verdict when they were read
+        Long unjudged = submissionRepository.findLowestUnjudgedId(problemIds);
+        long replayed = board.getLastSubmissionId();
+        for (SubmissionRepository.FirstAcceptView accept : submissionRepository.findAcceptsInContestAfter(
+                board.getContestId(), replayed, problemIds, board.getStartTime(), board.getEndTime())) {
+            record(board, accept.getUserId(), accept.getProblemId(), accept.getAcceptedAt());
+            replayed = Math.max(replayed, accept.getSubmissionId());
+        }
+        board.markReplayedThrough(watermark(replayed, unjudged));
+    }
+
+    // Submissions are judged out of id order, so replays may only move past ids that cannot still turn accepted
+    private static long watermark(long replayed, Long lowestUnjudged) {
+        return lowestUnjudged == null ? replayed : Math.min(replayed, lowestUnjudged - 1);
+    }
+
+    private void record(ContestLeaderboard board, Long userId, Long problemId, LocalDateTime acceptedAt) {
+        LeaderboardEntry before = board.entryOf(userId);
+        if (board.recordAccepted(userId, problemId, acceptedAt)) {
+            eventPublisher.publishEvent(new LeaderboardChangedEvent(board.getContestId(),
+                    board.entryOf(userId), before == null ? 0 : before.rank()));
+        }
+    }
+
+    // One instance writes a contest's ranks at a time, and only after replaying what others judged
+    private void flushAsWriter(ContestLeaderboard board) {
+        List<ContestLeaderboard.RankChange> written = writeTransaction.execute(status -> {
+            Boolean writer = jdbcTemplate.queryForObject(TRY_WRITER_LOCK_SQL, Boolean.class,
+                    WRITER_LOCK_NAMESPACE, Long.hashCode(board.getContestId()));
+            if (!Boolean.TRUE.equals(writer)) {
+                return List.of();
+            }
+            replayAccepts(board);
+            return flush(board);
+        });
+        // Only once committed: a rolled-back write must stay pending for the next flush
+        if (written != null && !written.isEmpty()) {
+            board.markWritten(written);
+        }
+    }
+
+    // Writes the pending rank changes and returns them; the caller marks them written after commit
+    private List<ContestLeaderboard.RankChange> flush(ContestLeaderboard board) {
+        List<ContestLeaderboard.RankChange> changes = board.pendingRankChanges();
+        if (changes.isEmpty()) {
+            return changes;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_STANDING_SQL, changes, 500, (ps, change) -> {
+            ps.setInt(1, change.score());
+            ps.setInt(2, change.rank());
+            ps.setLong(3, change.participantId());
+        });
+        return changes;
+    }
+}
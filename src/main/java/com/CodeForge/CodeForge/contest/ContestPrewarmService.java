@@ -0,0 +1,135 @@
+package com.codeforge.codeforge.contest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.codeforge.codeforge.catalog.CatalogCache;
+import com.codeforge.codeforge.catalog.ContestProblemView;
+import com.codeforge.codeforge.model.CodeTemplate;
+import com.codeforge.codeforge.model.Contest;
+import com.codeforge.codeforge.model.Submission;
+import com.codeforge.codeforge.repository.ContestRepository;
+import com.codeforge.codeforge.repository.SubmissionRepository;
+import com.codeforge.codeforge.repository.TestCaseRepository;
+import com.codeforge.codeforge.sandbox.ContainerPool;
+import com.codeforge.codeforge.sandbox.LanguageProfile;
+import com.codeforge.codeforge.storage.TestDataStore;
+
+/**
+ * Prepares contests shortly before they start, when every participant opens the same problems at once.
+ *
+ * Problem lists, statements, sample cases and templates are loaded into the {@link CatalogCache}, whose
+ * per-key loading also collapses the concurrent misses of the first seconds into one query each. Hidden
+ * test files are paged into the OS cache and sandbox containers are pre-created for the languages the
+ * contest is likely to see.
+ */
+@Service
+public class ContestPrewarmService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContestPrewarmService.class);
+
+    private final ContestRepository contestRepository;
+    private final SubmissionRepository submissionRepository;
+    private final TestCaseRepository testCaseRepository;
+    private final CatalogCache catalogCache;
+    private final TestDataStore testDataStore;
+    private final ObjectProvider<ContainerPool> containerPool;
+    private final Duration lead;
+    private final int containersPerLanguage;
+    private final int languageLookbackDays;
+
+    // Contests whose test data has been paged in; the page cache keeps it, so this is done once per contest
+    private final Set<Long> testDataWarmed = ConcurrentHashMap.newKeySet();
+
+    public ContestPrewarmService(ContestRepository contestRepository,
+                                 SubmissionRepository submissionRepository,
+                                 TestCaseRepository testCaseRepository,
+                                 CatalogCache catalogCache,
+                                 TestDataStore testDataStore,
+                                 ObjectProvider<ContainerPool> containerPool,
+                                 @Value("${codeforge.contest.prewarm.lead-ms:600000}") long leadMillis,
+                                 @Value("${codeforge.contest.prewarm.containers-per-language:4}") int containersPerLanguage,
+                                 @Value("${codeforge.contest.prewarm.language-lookback-days:30}") int languageLookbackDays) {
+        this.contestRepository = contestRepository;
+        this.submissionRepository = submissionRepository;
+        this.testCaseRepository = testCaseRepository;
+        this.catalogCache = catalogCache;
+        this.testDataStore = testDataStore;
+        this.containerPool = containerPool;
+        this.lead = Duration.ofMillis(leadMillis);
+        this.containersPerLanguage = containersPerLanguage;
+        this.languageLookbackDays = languageLookbackDays;
+    }
+
+    // Runs until each contest starts, so cache entries that expire in the meantime are loaded again
+    @Scheduled(fixedDelayString = "${codeforge.contest.prewarm.interval-ms:30000}")
+    public void prewarmUpcoming() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plus(lead);
+        List<Contest> upcoming = contestRepository.findByStartTimeAfter(now).stream()
+                .filter(contest -> !contest.getStartTime().isAfter(horizon))
+                .toList();
+        testDataWarmed.retainAll(upcoming.stream().map(Contest::getId).toList());
+
+        for (Contest contest : upcoming) {
+            try {
+                prewarm(contest.getId());
+            } catch (RuntimeException e) {
+                log.warn("Could not pre-warm contest {}", contest.getId(), e);
+            }
+        }
+    }
+
+    public void prewarm(Long contestId) {
+        List<ContestProblemView> problems = catalogCache.contestProblems(contestId);
+        List<Long> problemIds = problems.stream().map(ContestProblemView::problemId).toList();
+
+        Set<Submission.Language> languages = EnumSet.noneOf(Submission.Language.class);
+        for (Long problemId : problemIds) {
+            catalogCache.problem(problemId);
+            catalogCache.sampleCases(problemId);
+            for (CodeTemplate.Language language : catalogCache.templates(problemId).keySet()) {
+                languages.add(Submission.Language.valueOf(language.name()));
+            }
+        }
+        languages.addAll(submissionRepository.findRecentLanguagesOfContestParticipants(contestId,
+                LocalDateTime.now().minusDays(languageLookbackDays)));
+
+        if (!problemIds.isEmpty() && testDataWarmed.add(contestId)) {
+            preloadTestData(contestId, problemIds);
+        }
+
+        ContainerPool pool = containerPool.getIfAvailable();
+        if (pool != null) {
+            for (Submission.Language language : languages) {
+                pool.ensureIdle(LanguageProfile.of(language), containersPerLanguage);
+            }
+        }
+    }
+
+    private void preloadTestData(Long contestId, List<Long> problemIds) {
+        long started = System.currentTimeMillis();
+        int files = 0;
+        for (TestCaseRepository.BlobHashes hashes : testCaseRepository.findBlobHashesByProblemIdIn(problemIds)) {
+            for (String hash : List.of(hashes.getInputHash(), hashes.getOutputHash())) {
+                if (testDataStore.exists(hash)) {
+                    testDataStore.preload(hash);
+                    files++;
+                }
+            }
+        }
+        log.info("Pre-loaded {} test data files of contest {} in {} ms", files, contestId,
+                System.currentTimeMillis() - started);
+    }
+}
@@ -0,0 +1,5 @@
+package com.codeforge.codeforge.contest;
+
+// One row of a contest leaderboard; equal scores share a rank
+public record LeaderboardEntry(int rank, Long userId, String username, int score, int solved) {
+}
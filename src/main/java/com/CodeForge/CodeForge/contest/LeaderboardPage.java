@@ -0,0 +1,7 @@
+package com.codeforge.codeforge.contest;
+
+import java.util.List;
+
+public record LeaderboardPage(Long contestId, int page, int size, long totalParticipants, boolean live,
+        List<LeaderboardEntry> entries) {
+}
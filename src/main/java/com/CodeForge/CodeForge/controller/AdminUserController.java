@@ -0,0 +1,35 @@
+package com.codeforge.codeforge.controller;
+
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.codeforge.codeforge.repository.UserRepository.UserSearchView;
+import com.codeforge.codeforge.service.UserSearchService;
+
+@RestController
+@RequestMapping("/api/admin/users")
+public class AdminUserController {
+
+    private final UserSearchService userSearchService;
+
+    public AdminUserController(UserSearchService userSearchService) {
+        this.userSearchService = userSearchService;
+    }
+
+    // Ranked, typo-tolerant lookup by username, email, first or last name
+    @GetMapping("/search")
+    public Page<UserSearchView> search(@RequestParam String q,
+                                       @RequestParam(defaultValue = "0") int page,
+                                       @RequestParam(defaultValue = "20") int size) {
+        try {
+            return userSearchService.search(q, page, size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.codeforge.codeforge.controller;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.codeforge.codeforge.analytics.RollupDimension;
+import com.codeforge.codeforge.analytics.RollupGranularity;
+import com.codeforge.codeforge.analytics.RollupPoint;
+import com.codeforge.codeforge.analytics.RollupTotals;
+import com.codeforge.codeforge.analytics.SubmissionRollupQuery;
+
+@RestController
+@RequestMapping("/api/analytics/submissions")
+public class AnalyticsController {
+
+    // Upper bound on points per series request
+    private static final long MAX_BUCKETS = 5000;
+
+    private final SubmissionRollupQuery rollupQuery;
+
+    public AnalyticsController(SubmissionRollupQuery rollupQuery) {
+        this.rollupQuery = rollupQuery;
+    }
+
+    // e.g. /totals?dimension=USER&key=42&from=2025-01-01T00:00&to=2025-02-01T00:00
+    @GetMapping("/totals")
+    public RollupTotals totals(@RequestParam RollupDimension dimension,
+                               @RequestParam(required = false) String key,
+                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return rollupQuery.totals(dimension, key, from, to);
+    }
+
+    // e.g. a year-long heatmap: /series?dimension=USER&key=42&granularity=DAY&from=...&to=...
+    @GetMapping("/series")
+    public List<RollupPoint> series(@RequestParam RollupDimension dimension,
+                                    @RequestParam(required = false) String key,
+                                    @RequestParam RollupGranularity granularity,
+                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        long buckets = switch (granularity) {
+            case MINUTE -> Duration.between(from, to).toMinutes();
+            case HOUR -> Duration.between(from, to).toHours();
+            case DAY -> Duration.between(from, to).toDays();
+        };
+        if (buckets > MAX_BUCKETS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Range too long for " + granularity + " buckets");
+        }
+        return rollupQuery.series(dimension, key, granularity, from, to);
+    }
+}
@@ -0,0 +1,70 @@
+package com.codeforge.codeforge.controller;
+
+import java.time.Duration;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.codeforge.codeforge.contest.ContestLeaderboardService;
+import com.codeforge.codeforge.contest.LeaderboardEntry;
+import com.codeforge.codeforge.contest.LeaderboardPage;
+import com.codeforge.codeforge.event.LeaderboardChangedEvent;
+import com.codeforge.codeforge.stream.LeaderboardUpdateStream;
+
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/contests/{contestId}/leaderboard")
+public class ContestLeaderboardController {
+
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private static final Duration HEARTBEAT = Duration.ofSeconds(15);
+
+    private final ContestLeaderboardService leaderboardService;
+    private final LeaderboardUpdateStream updateStream;
+
+    public ContestLeaderboardController(ContestLeaderboardService leaderboardService,
+                                        LeaderboardUpdateStream updateStream) {
+        this.leaderboardService = leaderboardService;
+        this.updateStream = updateStream;
+    }
+
+    @GetMapping
+    public LeaderboardPage page(@PathVariable Long contestId,
+                                @RequestParam(defaultValue = "0") int page,
+                                @RequestParam(defaultValue = "50") int size) {
+        try {
+            return leaderboardService.page(contestId, Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Rank of a single participant; only available while the contest is running
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<LeaderboardEntry> entry(@PathVariable Long contestId, @PathVariable Long userId) {
+        return leaderboardService.liveBoard(contestId)
+                .map(board -> board.entryOf(userId))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Rank changes as server-sent events; load a page first, then apply the deltas
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<LeaderboardChangedEvent>> stream(@PathVariable Long contestId) {
+        Flux<ServerSentEvent<LeaderboardChangedEvent>> changes = updateStream.follow(contestId)
+                .map(change -> ServerSentEvent.builder(change).event("rank").build());
+        Flux<ServerSentEvent<LeaderboardChangedEvent>> heartbeat = Flux.interval(HEARTBEAT)
+                .map(tick -> ServerSentEvent.<LeaderboardChangedEvent>builder().comment("keep-alive").build());
+        return Flux.merge(changes, heartbeat);
+    }
+}
@@ -0,0 +1,38 @@
+package com.codeforge.codeforge.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.codeforge.codeforge.importer.ProblemImportResult;
+import com.codeforge.codeforge.importer.ProblemImportService;
+
+@RestController
+@RequestMapping("/api/admin/problems")
+public class ProblemImportController {
+
+    private final ProblemImportService importService;
+
+    public ProblemImportController(ProblemImportService importService) {
+        this.importService = importService;
+    }
+
+    // The zip is the raw request body and is read as it arrives, so large test files are never buffered.
+    // The importing user becomes the problem's author.
+    @PostMapping(value = "/import", consumes = {"application/zip", "application/octet-stream"})
+    @ResponseStatus(HttpStatus.CREATED)
+    public ProblemImportResult importPackage(InputStream body, Principal principal) throws IOException {
+        try {
+            return importService.importPackage(body, principal.getName());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
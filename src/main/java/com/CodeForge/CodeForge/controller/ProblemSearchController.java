@@ -0,0 +1,42 @@
+package com.codeforge.codeforge.controller;
+
+import java.util.Set;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.search.ProblemSearchResult;
+import com.codeforge.codeforge.search.ProblemSearchService;
+
+@RestController
+@RequestMapping("/api/problems")
+public class ProblemSearchController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ProblemSearchService searchService;
+
+    public ProblemSearchController(ProblemSearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    // Ranked search over title, description, categories and difficulty; tolerates prefixes and single typos
+    @GetMapping("/search")
+    public ProblemSearchResult search(@RequestParam(defaultValue = "") String q,
+                                      @RequestParam(required = false) Set<Problem.Difficulty> difficulty,
+                                      @RequestParam(required = false) Long categoryId,
+                                      @RequestParam(defaultValue = "0") int page,
+                                      @RequestParam(defaultValue = "20") int size) {
+        try {
+            return searchService.search(q, difficulty, categoryId, Math.max(page, 0),
+                    Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.codeforge.codeforge.controller;
+
+import java.util.List;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.recommend.RecommendationService;
+import com.codeforge.codeforge.recommend.RecommendedProblem;
+
+@RestController
+@RequestMapping("/api/users/{userId}/recommendations")
+public class RecommendationController {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final RecommendationService recommendationService;
+
+    public RecommendationController(RecommendationService recommendationService) {
+        this.recommendationService = recommendationService;
+    }
+
+    @GetMapping
+    public List<RecommendedProblem> recommend(@PathVariable Long userId,
+                                              @RequestParam(required = false) Problem.Difficulty difficulty,
+                                              @RequestParam(defaultValue = "10") int limit) {
+        return recommendationService.recommend(userId, difficulty, Math.min(Math.max(limit, 1), MAX_LIMIT));
+    }
+}
@@ -0,0 +1,77 @@
+package com.codeforge.codeforge.controller;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.codeforge.codeforge.export.SubmissionExportService;
+import com.codeforge.codeforge.export.SubmissionExportService.Format;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/api/admin/exports/submissions")
+public class SubmissionExportController {
+
+    private final SubmissionExportService exportService;
+    private final long requestTimeoutMillis;
+
+    public SubmissionExportController(SubmissionExportService exportService,
+                                      @Value("${codeforge.export.request-timeout-ms:3600000}") long requestTimeoutMillis) {
+        this.exportService = exportService;
+        this.requestTimeoutMillis = requestTimeoutMillis;
+    }
+
+    // Either problemId or a from/to range; rows are written to the response as they are read
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            HttpServletRequest request,
+            @RequestParam(required = false) Long problemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "NDJSON") Format format,
+            @RequestParam(defaultValue = "false") boolean includeCode) {
+        StreamingResponseBody body;
+        String name;
+        if (problemId != null) {
+            body = out -> exportService.exportByProblem(problemId, format, includeCode, out);
+            name = "submissions-problem-" + problemId;
+        } else if (from != null && to != null && from.isBefore(to)) {
+            body = out -> exportService.exportBySubmittedAt(from, to, format, includeCode, out);
+            name = "submissions-" + from.toLocalDate() + "-" + to.toLocalDate();
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Either problemId or from < to is required");
+        }
+        // Large exports outlast the default async timeout; only this request gets the longer one
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(requestTimeoutMillis);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.getExtension() + "\"")
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+
+    // Writes the export to the server-side export directory instead of the response
+    @PostMapping("/files")
+    public Map<String, String> exportToFile(@RequestParam Long problemId,
+                                            @RequestParam(defaultValue = "NDJSON") Format format,
+                                            @RequestParam(defaultValue = "false") boolean includeCode) throws IOException {
+        Path file = exportService.exportByProblemToFile(problemId, format, includeCode);
+        return Map.of("file", file.toString());
+    }
+}
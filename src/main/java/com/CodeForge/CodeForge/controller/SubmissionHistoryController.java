@@ -0,0 +1,46 @@
+package com.codeforge.codeforge.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.codeforge.codeforge.service.SubmissionHistoryService;
+import com.codeforge.codeforge.service.SubmissionHistoryService.HistoryPage;
+
+@RestController
+@RequestMapping("/api")
+public class SubmissionHistoryController {
+
+    private final SubmissionHistoryService historyService;
+
+    public SubmissionHistoryController(SubmissionHistoryService historyService) {
+        this.historyService = historyService;
+    }
+
+    // Pass the nextCursor of the previous page to continue; omit it for the newest submissions
+    @GetMapping("/users/{userId}/submissions")
+    public HistoryPage byUser(@PathVariable Long userId,
+                              @RequestParam(required = false) String cursor,
+                              @RequestParam(defaultValue = "20") int size) {
+        try {
+            return historyService.byUser(userId, cursor, size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @GetMapping("/problems/{problemId}/submissions")
+    public HistoryPage byProblem(@PathVariable Long problemId,
+                                 @RequestParam(required = false) String cursor,
+                                 @RequestParam(defaultValue = "20") int size) {
+        try {
+            return historyService.byProblem(problemId, cursor, size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
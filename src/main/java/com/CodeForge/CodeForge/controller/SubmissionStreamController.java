@@ -0,0 +1,40 @@
+package com.codeforge.codeforge.controller;
+
+import java.time.Duration;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.codeforge.codeforge.stream.SubmissionUpdate;
+import com.codeforge.codeforge.stream.SubmissionUpdateStream;
+
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/submissions")
+public class SubmissionStreamController {
+
+    private static final Duration HEARTBEAT = Duration.ofSeconds(15);
+
+    private final SubmissionUpdateStream updateStream;
+
+    public SubmissionStreamController(SubmissionUpdateStream updateStream) {
+        this.updateStream = updateStream;
+    }
+
+    // Status and test progress as server-sent events; the stream ends with the verdict
+    @GetMapping(path = "/{submissionId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<SubmissionUpdate>> stream(@PathVariable Long submissionId) {
+        return updateStream.follow(submissionId).publish(updates -> Flux.merge(
+                updates.map(update -> ServerSentEvent.builder(update)
+                        .event(update.isFinal() ? "verdict" : "status")
+                        .build()),
+                Flux.interval(HEARTBEAT)
+                        .map(tick -> ServerSentEvent.<SubmissionUpdate>builder().comment("keep-alive").build())
+                        .takeUntilOther(updates.then())));
+    }
+}
@@ -0,0 +1,25 @@
+package com.codeforge.codeforge.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.codeforge.codeforge.model.UserStats;
+import com.codeforge.codeforge.service.UserStatsService;
+
+@RestController
+@RequestMapping("/api/users/{userId}/stats")
+public class UserStatsController {
+
+    private final UserStatsService userStatsService;
+
+    public UserStatsController(UserStatsService userStatsService) {
+        this.userStatsService = userStatsService;
+    }
+
+    @GetMapping
+    public UserStats stats(@PathVariable Long userId) {
+        return userStatsService.statsOf(userId);
+    }
+}
@@ -0,0 +1,54 @@
+package com.codeforge.codeforge.event;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.codeforge.codeforge.model.Category;
+import com.codeforge.codeforge.model.CodeTemplate;
+import com.codeforge.codeforge.model.ContestProblem;
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.model.TestCase;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener for Problem, Category, TestCase, CodeTemplate and ContestProblem. Hibernate obtains it from Spring, so it can publish
+ * application events; derived in-memory structures subscribe to them instead of polling the tables.
+ */
+@Component
+public class CatalogChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CatalogChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void changed(Object entity) {
+        publish(entity, false);
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        publish(entity, true);
+    }
+
+    private void publish(Object entity, boolean removed) {
+        if (entity instanceof Problem problem) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.PROBLEM, problem.getId(), removed));
+        } else if (entity instanceof Category category) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.CATEGORY, category.getId(), removed));
+        } else if (entity instanceof TestCase testCase) {
+            // Removing a test case changes its problem's test set, the problem itself is still there
+            eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.TEST_CASE, testCase.getProblem().getId(), false));
+        } else if (entity instanceof CodeTemplate template) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.TEMPLATE, template.getProblem().getId(), false));
+        } else if (entity instanceof ContestProblem contestProblem) {
+            eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.CONTEST, contestProblem.getContest().getId(), false));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.codeforge.codeforge.event;
+
+// A problem or category row was inserted, updated or deleted; listeners should reload it after commit.
+// For TEST_CASE and TEMPLATE the id is that of the owning problem, for CONTEST that of the contest whose
+// problem list changed.
+public record CatalogChangedEvent(Kind kind, Long id, boolean removed) {
+
+    public enum Kind { PROBLEM, CATEGORY, TEST_CASE, TEMPLATE, CONTEST }
+}
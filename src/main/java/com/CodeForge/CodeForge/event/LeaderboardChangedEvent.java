@@ -0,0 +1,7 @@
+package com.codeforge.codeforge.event;
+
+import com.codeforge.codeforge.contest.LeaderboardEntry;
+
+// A participant's standing after an accepted verdict; previousRank is 0 if they had no standing
+public record LeaderboardChangedEvent(Long contestId, LeaderboardEntry entry, int previousRank) {
+}
@@ -0,0 +1,23 @@
+package com.codeforge.codeforge.event;
+
+import java.time.LocalDateTime;
+
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.model.Submission;
+
+// Published inside the transaction that stores a submission's final verdict
+public record SubmissionJudgedEvent(
+        Long submissionId,
+        Long userId,
+        Long problemId,
+        Problem.Difficulty difficulty,
+        Submission.Language language,
+        Submission.Status status,
+        Integer executionTime,
+        Integer memoryUsed,
+        LocalDateTime submittedAt) {
+
+    public boolean isAccepted() {
+        return status == Submission.Status.ACCEPTED;
+    }
+}
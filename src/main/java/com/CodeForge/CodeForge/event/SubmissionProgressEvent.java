@@ -0,0 +1,11 @@
+package com.codeforge.codeforge.event;
+
+import com.codeforge.codeforge.model.Submission;
+
+// Published by the judge when a submission starts running, passes a test or goes back to the queue
+public record SubmissionProgressEvent(
+        Long submissionId,
+        Submission.Status status,
+        int passedTestCases,
+        int totalTestCases) {
+}
@@ -0,0 +1,30 @@
+package com.codeforge.codeforge.export;
+
+import java.time.LocalDateTime;
+
+import com.codeforge.codeforge.model.Submission;
+
+// Flat export record; built by a JPQL constructor expression, so rows never enter the persistence context
+public record SubmissionExportRow(
+        Long id,
+        Long userId,
+        Long problemId,
+        Submission.Language language,
+        Submission.Status status,
+        Integer executionTime,
+        Integer memoryUsed,
+        Integer passedTestCases,
+        Integer totalTestCases,
+        LocalDateTime submittedAt,
+        String codeHash,
+        String code) {
+
+    // Target of the projection that leaves the code column out of the select
+    public SubmissionExportRow(Long id, Long userId, Long problemId, Submission.Language language,
+                               Submission.Status status, Integer executionTime, Integer memoryUsed,
+                               Integer passedTestCases, Integer totalTestCases, LocalDateTime submittedAt,
+                               String codeHash) {
+        this(id, userId, problemId, language, status, executionTime, memoryUsed, passedTestCases, totalTestCases,
+                submittedAt, codeHash, null);
+    }
+}
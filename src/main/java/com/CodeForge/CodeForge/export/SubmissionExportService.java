@@ -0,0 +1,161 @@
+package com.codeforge.codeforge.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.codeforge.codeforge.repository.SubmissionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+/**
+ * Writes submissions as NDJSON or CSV straight from a database cursor to an output stream or file.
+ * Rows are DTO projections read with a JDBC fetch size, so memory use does not grow with the export;
+ * without includeCode the code column is not selected at all.
+ */
+@Service
+public class SubmissionExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionExportService.class);
+
+    private static final String[] CSV_HEADER = {"id", "userId", "problemId", "language", "status", "executionTime",
+            "memoryUsed", "passedTestCases", "totalTestCases", "submittedAt", "codeHash", "code"};
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+    }
+
+    private final SubmissionRepository submissionRepository;
+    private final ObjectMapper objectMapper;
+    private final Path exportDirectory;
+
+    public SubmissionExportService(SubmissionRepository submissionRepository,
+                                   ObjectMapper objectMapper,
+                                   @Value("${codeforge.export.dir:${java.io.tmpdir}/codeforge/exports}") Path exportDirectory) {
+        this.submissionRepository = submissionRepository;
+        this.objectMapper = objectMapper;
+        this.exportDirectory = exportDirectory;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportByProblem(Long problemId, Format format, boolean includeCode, OutputStream out) throws IOException {
+        try (Stream<SubmissionExportRow> rows = includeCode
+                ? submissionRepository.streamExportByProblem(problemId)
+                : submissionRepository.streamExportByProblemWithoutCode(problemId)) {
+            return write(rows, format, includeCode, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportBySubmittedAt(LocalDateTime from, LocalDateTime to, Format format, boolean includeCode,
+                                    OutputStream out) throws IOException {
+        try (Stream<SubmissionExportRow> rows = includeCode
+                ? submissionRepository.streamExportBySubmittedAt(from, to)
+                : submissionRepository.streamExportBySubmittedAtWithoutCode(from, to)) {
+            return write(rows, format, includeCode, out);
+        }
+    }
+
+    // For batch jobs: writes to a temporary file in the export directory, then moves it into place
+    @Transactional(readOnly = true)
+    public Path exportByProblemToFile(Long problemId, Format format, boolean includeCode) throws IOException {
+        Files.createDirectories(exportDirectory);
+        Path target = exportDirectory.resolve("submissions-problem-" + problemId + "-" + System.currentTimeMillis()
+                + "." + format.getExtension());
+        Path temp = Files.createTempFile(exportDirectory, "export-", ".part");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            long rows = exportByProblem(problemId, format, includeCode, out);
+            log.info("Exported {} submissions of problem {} to {}", rows, problemId, target);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private long write(Stream<SubmissionExportRow> rows, Format format, boolean includeCode, OutputStream out)
+            throws IOException {
+        Iterator<SubmissionExportRow> it = rows.iterator();
+        long count = 0;
+        if (format == Format.NDJSON) {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n").writeValues(out)) {
+                while (it.hasNext()) {
+                    SubmissionExportRow row = it.next();
+                    writer.write(row);
+                    count++;
+                }
+            }
+            if (count > 0) {
+                out.write('\n');
+            }
+            out.flush();
+        } else {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writeCsvLine(writer, includeCode ? CSV_HEADER : Arrays.copyOf(CSV_HEADER, CSV_HEADER.length - 1));
+            while (it.hasNext()) {
+                SubmissionExportRow row = it.next();
+                writeCsvLine(writer, csvFields(row, includeCode));
+                count++;
+            }
+            writer.flush();
+        }
+        return count;
+    }
+
+    private static Object[] csvFields(SubmissionExportRow row, boolean includeCode) {
+        Object[] fields = {row.id(), row.userId(), row.problemId(), row.language(), row.status(), row.executionTime(),
+                row.memoryUsed(), row.passedTestCases(), row.totalTestCases(), row.submittedAt(), row.codeHash(), row.code()};
+        return includeCode ? fields : Arrays.copyOf(fields, fields.length - 1);
+    }
+
+    private static void writeCsvLine(Writer writer, Object[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] != null) {
+                writer.write(csvEscape(fields[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks, doubling inner quotes
+    private static String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,4 @@
+package com.codeforge.codeforge.importer;
+
+public record ProblemImportResult(Long problemId, String slug, int testCases, int sampleCases, int templates) {
+}
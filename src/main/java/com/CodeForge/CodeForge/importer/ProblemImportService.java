@@ -0,0 +1,266 @@
+package com.codeforge.codeforge.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codeforge.codeforge.model.Category;
+import com.codeforge.codeforge.model.CodeTemplate;
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.model.Submission;
+import com.codeforge.codeforge.model.TestCase;
+import com.codeforge.codeforge.model.User;
+import com.codeforge.codeforge.repository.CategoryRepository;
+import com.codeforge.codeforge.repository.ProblemRepository;
+import com.codeforge.codeforge.repository.UserRepository;
+import com.codeforge.codeforge.storage.StoredBlob;
+import com.codeforge.codeforge.storage.TestDataStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Imports a problem package: a zip with {@code problem.json}, {@code templates/<LANGUAGE>.<ext>} and test
+ * files {@code tests/<name>.in|.out} (hidden) or {@code samples/<name>.in|.out}. An optional
+ * {@code checker/<LANGUAGE>.<ext>} makes the problem a special judge.
+ *
+ * The zip is read once as a stream. Test files go straight into the test data store while they are read, so
+ * only hashes are kept in memory; the rows are then inserted in one transaction in JDBC batches, flushing and
+ * clearing the persistence context after every batch.
+ */
+@Service
+public class ProblemImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProblemImportService.class);
+
+    private final ProblemRepository problemRepository;
+    private final CategoryRepository categoryRepository;
+    private final UserRepository userRepository;
+    private final TestDataStore store;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int maxTemplateBytes;
+
+    public ProblemImportService(ProblemRepository problemRepository,
+                                CategoryRepository categoryRepository,
+                                UserRepository userRepository,
+                                TestDataStore store,
+                                EntityManager entityManager,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+                                @Value("${codeforge.import.max-template-bytes:1048576}") int maxTemplateBytes) {
+        this.problemRepository = problemRepository;
+        this.categoryRepository = categoryRepository;
+        this.userRepository = userRepository;
+        this.store = store;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.maxTemplateBytes = maxTemplateBytes;
+    }
+
+    // Rejects malformed packages with IllegalArgumentException before anything is written to the database.
+    // The author is the account of the authenticated user; without one the import is denied.
+    public ProblemImportResult importPackage(InputStream zip, String authorUsername) throws IOException {
+        Long authorId = userRepository.findByUsername(authorUsername)
+                .map(User::getId)
+                .orElseThrow(() -> new AccessDeniedException("No user account for " + authorUsername));
+        ProblemManifest manifest = null;
+        Map<CodeTemplate.Language, String> templates = new EnumMap<>(CodeTemplate.Language.class);
+        Map<Submission.Language, String> checker = new EnumMap<>(Submission.Language.class);
+        // Sorted by name so test case ids follow the file order
+        Map<String, TestFiles> tests = new TreeMap<>();
+        Map<String, TestFiles> samples = new TreeMap<>();
+
+        try (ZipInputStream in = new ZipInputStream(zip, StandardCharsets.UTF_8)) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                String name = entry.getName();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                if (name.equals("problem.json")) {
+                    try {
+                        manifest = objectMapper.readValue(readLimited(in, name), ProblemManifest.class);
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalArgumentException("Invalid problem.json: " + e.getOriginalMessage());
+                    }
+                } else if (name.startsWith("templates/")) {
+                    templates.put(languageOf(name, "templates/", CodeTemplate.Language.class),
+                            new String(readLimited(in, name), StandardCharsets.UTF_8));
+                } else if (name.startsWith("checker/")) {
+                    checker.put(languageOf(name, "checker/", Submission.Language.class),
+                            new String(readLimited(in, name), StandardCharsets.UTF_8));
+                } else if (name.startsWith("tests/")) {
+                    addTestFile(tests, name.substring("tests/".length()), in);
+                } else if (name.startsWith("samples/")) {
+                    addTestFile(samples, name.substring("samples/".length()), in);
+                }
+            }
+        }
+
+        validate(manifest, tests, samples);
+        if (checker.size() > 1) {
+            throw new IllegalArgumentException("Package has more than one checker");
+        }
+        if (manifest.checkerMode() == Problem.CheckerMode.SPECIAL && checker.isEmpty()) {
+            throw new IllegalArgumentException("checkerMode SPECIAL needs a checker/<LANGUAGE>.<ext> file");
+        }
+        ProblemManifest problemManifest = manifest;
+        ProblemImportResult result = transactionTemplate.execute(status ->
+                persist(problemManifest, authorId, templates, checker, tests, samples));
+        log.info("Imported problem {} with {} test cases ({} samples)",
+                Objects.requireNonNull(result).slug(), result.testCases(), result.sampleCases());
+        return result;
+    }
+
+    private ProblemImportResult persist(ProblemManifest manifest, Long authorId,
+                                        Map<CodeTemplate.Language, String> templates,
+                                        Map<Submission.Language, String> checker,
+                                        Map<String, TestFiles> tests, Map<String, TestFiles> samples) {
+        Problem problem = new Problem(manifest.title(), manifest.slug(), manifest.description(),
+                manifest.difficulty(), entityManager.getReference(User.class, authorId));
+        problem.setConstraints(manifest.constraints());
+        problem.setStatus(manifest.status() != null ? manifest.status() : Problem.Status.DRAFT);
+        problem.setTimeLimitMs(manifest.timeLimitMs());
+        problem.setMemoryLimitMb(manifest.memoryLimitMb());
+        if (manifest.checkerMode() != null) {
+            problem.setCheckerMode(manifest.checkerMode());
+        }
+        problem.setCheckerAbsoluteEpsilon(manifest.checkerAbsoluteEpsilon());
+        problem.setCheckerRelativeEpsilon(manifest.checkerRelativeEpsilon());
+        checker.forEach((language, source) -> {
+            problem.setCheckerLanguage(language);
+            problem.setCheckerSource(source);
+            if (manifest.checkerMode() == null) {
+                problem.setCheckerMode(Problem.CheckerMode.SPECIAL);
+            }
+        });
+        // Owning side only, so the categories' problem collections are never loaded
+        for (String categoryName : manifest.categories() != null ? manifest.categories() : List.<String>of()) {
+            Category category = categoryRepository.findByName(categoryName)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown category: " + categoryName));
+            problem.getCategories().add(category);
+        }
+        entityManager.persist(problem);
+        for (Map.Entry<CodeTemplate.Language, String> template : templates.entrySet()) {
+            entityManager.persist(new CodeTemplate(problem, template.getKey(), template.getValue()));
+        }
+        Long problemId = problem.getId();
+
+        int pending = templates.size();
+        for (Map<String, TestFiles> files : List.of(samples, tests)) {
+            boolean sample = files == samples;
+            for (TestFiles testFiles : files.values()) {
+                if (pending >= batchSize) {
+                    entityManager.flush();
+                    entityManager.clear();
+                    pending = 0;
+                }
+                TestCase testCase = new TestCase(entityManager.getReference(Problem.class, problemId),
+                        null, null, sample, !sample);
+                testCase.setStorage(TestCase.Storage.BLOB);
+                testCase.setInputHash(testFiles.input.hash());
+                testCase.setInputSize(testFiles.input.size());
+                testCase.setOutputHash(testFiles.output.hash());
+                testCase.setOutputSize(testFiles.output.size());
+                entityManager.persist(testCase);
+                pending++;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return new ProblemImportResult(problemId, manifest.slug(), tests.size() + samples.size(), samples.size(),
+                templates.size());
+    }
+
+    private void validate(ProblemManifest manifest, Map<String, TestFiles> tests, Map<String, TestFiles> samples) {
+        if (manifest == null) {
+            throw new IllegalArgumentException("Package has no problem.json");
+        }
+        if (isBlank(manifest.title()) || isBlank(manifest.slug()) || isBlank(manifest.description())
+                || manifest.difficulty() == null) {
+            throw new IllegalArgumentException("problem.json needs title, slug, description and difficulty");
+        }
+        if ((manifest.timeLimitMs() != null && manifest.timeLimitMs() <= 0)
+                || (manifest.memoryLimitMb() != null && manifest.memoryLimitMb() <= 0)) {
+            throw new IllegalArgumentException("timeLimitMs and memoryLimitMb must be positive");
+        }
+        if (problemRepository.existsBySlug(manifest.slug())) {
+            throw new IllegalArgumentException("A problem with slug " + manifest.slug() + " already exists");
+        }
+        if (tests.isEmpty() && samples.isEmpty()) {
+            throw new IllegalArgumentException("Package has no test files");
+        }
+        for (Map<String, TestFiles> files : List.of(samples, tests)) {
+            files.forEach((name, testFiles) -> {
+                if (testFiles.input == null || testFiles.output == null) {
+                    throw new IllegalArgumentException("Test " + name + " needs both a .in and a .out file");
+                }
+            });
+        }
+    }
+
+    // Streams the current entry into the test data store; only its hash and size are kept
+    private void addTestFile(Map<String, TestFiles> files, String fileName, InputStream in) {
+        int dot = fileName.lastIndexOf('.');
+        String extension = dot < 0 ? "" : fileName.substring(dot + 1);
+        if (!extension.equals("in") && !extension.equals("out")) {
+            throw new IllegalArgumentException("Test files must end in .in or .out: " + fileName);
+        }
+        StoredBlob blob = store.store(in);
+        TestFiles testFiles = files.computeIfAbsent(fileName.substring(0, dot), name -> new TestFiles());
+        if (extension.equals("in")) {
+            testFiles.input = blob;
+        } else {
+            testFiles.output = blob;
+        }
+    }
+
+    private byte[] readLimited(InputStream in, String name) throws IOException {
+        byte[] content = in.readNBytes(maxTemplateBytes + 1);
+        if (content.length > maxTemplateBytes) {
+            throw new IllegalArgumentException(name + " is larger than " + maxTemplateBytes + " bytes");
+        }
+        return content;
+    }
+
+    private static <E extends Enum<E>> E languageOf(String entryName, String directory, Class<E> languages) {
+        String fileName = entryName.substring(directory.length());
+        int dot = fileName.indexOf('.');
+        String language = (dot < 0 ? fileName : fileName.substring(0, dot)).toUpperCase();
+        try {
+            return Enum.valueOf(languages, language);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown language: " + entryName);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static final class TestFiles {
+        private StoredBlob input;
+        private StoredBlob output;
+    }
+}
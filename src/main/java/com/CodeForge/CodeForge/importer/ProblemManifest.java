@@ -0,0 +1,21 @@
+package com.codeforge.codeforge.importer;
+
+import java.util.List;
+
+import com.codeforge.codeforge.model.Problem;
+
+// problem.json of an import package; categories are referenced by name and must already exist
+public record ProblemManifest(
+        String title,
+        String slug,
+        String description,
+        Problem.Difficulty difficulty,
+        String constraints,
+        Problem.Status status,
+        List<String> categories,
+        Integer timeLimitMs,
+        Integer memoryLimitMb,
+        Problem.CheckerMode checkerMode,
+        Double checkerAbsoluteEpsilon,
+        Double checkerRelativeEpsilon) {
+}
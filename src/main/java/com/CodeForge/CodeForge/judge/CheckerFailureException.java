@@ -0,0 +1,9 @@
+package com.codeforge.codeforge.judge;
+
+// Thrown when a problem's checker does not compile or crashes; judging the submission again would fail the same way
+public class CheckerFailureException extends RuntimeException {
+
+    public CheckerFailureException(String message) {
+        super(message);
+    }
+}
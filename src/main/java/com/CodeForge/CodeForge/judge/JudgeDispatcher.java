@@ -0,0 +1,141 @@
+package com.codeforge.codeforge.judge;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codeforge.codeforge.repository.SubmissionRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Drains PENDING submissions into a bounded worker pool.
+ *
+ * Batches are claimed with SELECT ... FOR UPDATE SKIP LOCKED and flipped to RUNNING in the same
+ * transaction, so several instances can share the queue without judging a submission twice.
+ * The dispatcher never claims more submissions than it has free workers. A claim is renewed while the
+ * submission makes progress; one that has not been renewed for claim-timeout-seconds is requeued, or ends
+ * with JUDGE_ERROR once the submission has used up its attempts.
+ */
+@Component
+@ConditionalOnProperty(prefix = "codeforge.judge", name = "enabled", havingValue = "true")
+public class JudgeDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(JudgeDispatcher.class);
+
+    private final SubmissionRepository submissionRepository;
+    private final JudgeService judgeService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final Semaphore freeWorkers;
+    private final int batchSize;
+    private final long claimTimeoutSeconds;
+    private final int maxAttempts;
+
+    public JudgeDispatcher(SubmissionRepository submissionRepository,
+                           JudgeService judgeService,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${codeforge.judge.workers:8}") int workerCount,
+                           @Value("${codeforge.judge.batch-size:32}") int batchSize,
+                           @Value("${codeforge.judge.claim-timeout-seconds:300}") long claimTimeoutSeconds,
+                           @Value("${codeforge.judge.max-attempts:3}") int maxAttempts,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.submissionRepository = submissionRepository;
+        this.judgeService = judgeService;
+        this.transactionTemplate = transactionTemplate;
+        // Workers mostly wait on the sandbox, so virtual threads are a good fit; the semaphore still caps concurrency
+        this.workers = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("judge-worker-", 1).factory())
+                : Executors.newFixedThreadPool(workerCount, namedThreads("judge-worker-"));
+        this.freeWorkers = new Semaphore(workerCount);
+        this.batchSize = batchSize;
+        this.claimTimeoutSeconds = claimTimeoutSeconds;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${codeforge.judge.poll-interval-ms:500}")
+    public void dispatch() {
+        while (true) {
+            int capacity = Math.min(batchSize, freeWorkers.availablePermits());
+            if (capacity == 0) {
+                return;
+            }
+
+            LocalDateTime claimedAt = JudgeService.claimTime();
+            List<Long> claimed = claimBatch(capacity, claimedAt);
+            for (Long submissionId : claimed) {
+                freeWorkers.acquireUninterruptibly();
+                workers.execute(() -> {
+                    try {
+                        judgeService.judge(submissionId, claimedAt);
+                    } catch (RuntimeException e) {
+                        log.error("Judging submission {} failed", submissionId, e);
+                    } finally {
+                        freeWorkers.release();
+                    }
+                });
+            }
+
+            // A short batch means the queue is drained for now
+            if (claimed.size() < capacity) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${codeforge.judge.stale-check-interval-ms:60000}")
+    public void requeueStaleClaims() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(claimTimeoutSeconds);
+        int[] counts = transactionTemplate.execute(status -> new int[] {
+                submissionRepository.requeueStale(cutoff, maxAttempts),
+                submissionRepository.failStale(cutoff, maxAttempts,
+                        "Judging did not finish in " + maxAttempts + " attempts")});
+        if (counts != null && counts[0] > 0) {
+            log.warn("Requeued {} submissions whose judge claim expired", counts[0]);
+        }
+        if (counts != null && counts[1] > 0) {
+            log.error("Gave up on {} submissions whose judge claim expired {} times", counts[1], maxAttempts);
+        }
+    }
+
+    private List<Long> claimBatch(int limit, LocalDateTime claimedAt) {
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = submissionRepository.lockPendingIds(limit);
+            if (!ids.isEmpty()) {
+                submissionRepository.markRunning(ids, claimedAt);
+            }
+            return ids;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            // Unfinished claims are picked up again by requeueStaleClaims on another instance
+            workers.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
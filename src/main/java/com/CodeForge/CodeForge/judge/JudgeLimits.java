@@ -0,0 +1,53 @@
+package com.codeforge.codeforge.judge;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.model.Submission;
+import com.codeforge.codeforge.sandbox.RunLimits;
+
+/**
+ * Effective limits of a submission: the problem's time and memory limits (or the sandbox defaults) scaled by
+ * the language's multipliers, codeforge.judge.limits.time-multiplier.&lt;language&gt; and
+ * codeforge.judge.limits.memory-multiplier.&lt;language&gt; (default 1.0).
+ */
+@Component
+public class JudgeLimits {
+
+    private final long defaultTimeLimitMillis;
+    private final long defaultMemoryMb;
+    private final double wallTimeFactor;
+    private final Map<Submission.Language, Double> timeMultipliers = new EnumMap<>(Submission.Language.class);
+    private final Map<Submission.Language, Double> memoryMultipliers = new EnumMap<>(Submission.Language.class);
+
+    public JudgeLimits(Environment environment,
+                       @Value("${codeforge.sandbox.time-limit-ms:2000}") long defaultTimeLimitMillis,
+                       @Value("${codeforge.sandbox.memory-mb:512}") long defaultMemoryMb,
+                       @Value("${codeforge.sandbox.wall-time-factor:2.0}") double wallTimeFactor) {
+        this.defaultTimeLimitMillis = defaultTimeLimitMillis;
+        this.defaultMemoryMb = defaultMemoryMb;
+        this.wallTimeFactor = wallTimeFactor;
+        for (Submission.Language language : Submission.Language.values()) {
+            String name = language.name().toLowerCase(Locale.ROOT);
+            timeMultipliers.put(language, environment.getProperty(
+                    "codeforge.judge.limits.time-multiplier." + name, Double.class, 1.0));
+            memoryMultipliers.put(language, environment.getProperty(
+                    "codeforge.judge.limits.memory-multiplier." + name, Double.class, 1.0));
+        }
+    }
+
+    public RunLimits of(Problem problem, Submission.Language language) {
+        long timeLimitMillis = problem.getTimeLimitMs() != null ? problem.getTimeLimitMs() : defaultTimeLimitMillis;
+        long memoryMb = problem.getMemoryLimitMb() != null ? problem.getMemoryLimitMb() : defaultMemoryMb;
+        return RunLimits.of(
+                Math.round(timeLimitMillis * timeMultipliers.get(language)),
+                wallTimeFactor,
+                Math.round(memoryMb * memoryMultipliers.get(language)) * 1024 * 1024);
+    }
+}
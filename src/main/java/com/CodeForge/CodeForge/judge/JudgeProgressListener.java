@@ -0,0 +1,10 @@
+package com.codeforge.codeforge.judge;
+
+// Notified by evaluators each time a test case has been judged
+@FunctionalInterface
+public interface JudgeProgressListener {
+
+    JudgeProgressListener NONE = (passed, total) -> { };
+
+    void testFinished(int passedTestCases, int totalTestCases);
+}
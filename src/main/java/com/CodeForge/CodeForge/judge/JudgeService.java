@@ -0,0 +1,196 @@
+package com.codeforge.codeforge.judge;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codeforge.codeforge.event.SubmissionJudgedEvent;
+import com.codeforge.codeforge.event.SubmissionProgressEvent;
+import com.codeforge.codeforge.model.Submission;
+import com.codeforge.codeforge.model.TestCase;
+import com.codeforge.codeforge.repository.SubmissionRepository;
+import com.codeforge.codeforge.repository.TestCaseRepository;
+
+/**
+ * Judges a single submission that has already been claimed (status RUNNING).
+ * Evaluation runs outside any transaction; only loading and storing the verdict touch the database.
+ * A submission that could not be judged (sandbox outage or any other failure) is requeued until it has been
+ * claimed max-attempts times, then it ends with JUDGE_ERROR so it cannot hold a worker forever.
+ */
+@Service
+@ConditionalOnProperty(prefix = "codeforge.judge", name = "enabled", havingValue = "true")
+public class JudgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(JudgeService.class);
+
+    private final SubmissionRepository submissionRepository;
+    private final TestCaseRepository testCaseRepository;
+    private final SubmissionEvaluator evaluator;
+    private final VerdictCache verdictCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long progressIntervalMillis;
+    private final int maxAttempts;
+
+    public JudgeService(SubmissionRepository submissionRepository,
+                        TestCaseRepository testCaseRepository,
+                        SubmissionEvaluator evaluator,
+                        VerdictCache verdictCache,
+                        TransactionTemplate transactionTemplate,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${codeforge.judge.progress-interval-ms:250}") long progressIntervalMillis,
+                        @Value("${codeforge.judge.max-attempts:3}") int maxAttempts) {
+        this.submissionRepository = submissionRepository;
+        this.testCaseRepository = testCaseRepository;
+        this.evaluator = evaluator;
+        this.verdictCache = verdictCache;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.progressIntervalMillis = progressIntervalMillis;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Judges a submission claimed at claimedAt. The claim is renewed with every progress write and all writes
+     * match it, so once the claim has gone stale and another worker took over, this one can no longer
+     * requeue or complete the submission.
+     */
+    public void judge(Long submissionId, LocalDateTime claimedAt) {
+        Submission submission = submissionRepository.findForJudging(submissionId).orElse(null);
+        if (submission == null || submission.getStatus() != Submission.Status.RUNNING
+                || !claimedAt.equals(submission.getJudgeStartedAt())) {
+            return;
+        }
+        Claim claim = new Claim(submissionId, claimedAt);
+
+        String testSetVersion = null;
+        List<TestCase> testCases = List.of();
+        try {
+            if (submission.getCodeHash() == null) {
+                submission.setCodeHash(Submission.hashOf(submission.getCode()));
+            }
+            testSetVersion = verdictCache.testSetVersion(submission.getProblem(), submission.getLanguage());
+            eventPublisher.publishEvent(new SubmissionProgressEvent(submissionId, Submission.Status.RUNNING, 0, 0));
+
+            // Identical resubmission against an unchanged test set: reuse the verdict without running anything
+            Optional<Verdict> previous = verdictCache.lookup(submission, testSetVersion);
+            if (previous.isPresent()) {
+                complete(submission, claim, testSetVersion, previous.get());
+                return;
+            }
+
+            testCases = testCaseRepository.findByProblemForEvaluation(submission.getProblem());
+            Verdict verdict = evaluator.evaluate(submission, testCases, progressRecorder(claim));
+            complete(submission, claim, testSetVersion, verdict);
+            verdictCache.remember(submission, testSetVersion, verdict);
+        } catch (ClaimLostException e) {
+            log.warn("Stopped judging submission {}: its claim expired and was taken over", submissionId);
+        } catch (RuntimeException e) {
+            // Sandbox outages, but also e.g. a missing test data blob: retried a few times, then given up
+            retryOrGiveUp(submission, claim, testSetVersion, testCases.size(), e);
+        }
+    }
+
+    private void retryOrGiveUp(Submission submission, Claim claim, String testSetVersion, int total, RuntimeException e) {
+        Long submissionId = submission.getId();
+        int attempts = submission.getJudgeAttempts() != null ? submission.getJudgeAttempts() : 1;
+        if (attempts >= maxAttempts) {
+            log.error("Giving up on submission {} after {} attempts", submissionId, attempts, e);
+            complete(submission, claim, testSetVersion, Verdict.judgeError(total,
+                    "Could not be judged after " + attempts + " attempts: " + e.getMessage()));
+            return;
+        }
+        if (e instanceof JudgeUnavailableException) {
+            log.warn("Requeueing submission {} (attempt {} of {}): {}", submissionId, attempts, maxAttempts, e.getMessage());
+        } else {
+            log.error("Requeueing submission {} (attempt {} of {})", submissionId, attempts, maxAttempts, e);
+        }
+        Integer requeued = transactionTemplate.execute(status -> submissionRepository.requeue(submissionId, claim.startedAt));
+        if (requeued != null && requeued == 1) {
+            eventPublisher.publishEvent(new SubmissionProgressEvent(submissionId, Submission.Status.PENDING, 0, 0));
+        }
+    }
+
+    // Persists passed/total counts as tests finish, at most once per progress interval; each write renews the claim
+    private JudgeProgressListener progressRecorder(Claim claim) {
+        long[] lastWrite = {0};
+        return (passed, total) -> {
+            long now = System.currentTimeMillis();
+            if (now - lastWrite[0] < progressIntervalMillis) {
+                return;
+            }
+            lastWrite[0] = now;
+            LocalDateTime renewed = claimTime();
+            Integer updated = transactionTemplate.execute(status ->
+                    submissionRepository.updateProgress(claim.submissionId, passed, total, claim.startedAt, renewed));
+            if (updated == null || updated == 0) {
+                throw new ClaimLostException();
+            }
+            claim.startedAt = renewed;
+            eventPublisher.publishEvent(new SubmissionProgressEvent(claim.submissionId, Submission.Status.RUNNING, passed, total));
+        };
+    }
+
+    // Claim timestamps are compared for equality, so keep them at the database's microsecond precision
+    static LocalDateTime claimTime() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private void complete(Submission submission, Claim claim, String testSetVersion, Verdict verdict) {
+        // Without a test-set version the stored verdict is never found for reuse
+        String reuseVersion = verdict.reusable() ? testSetVersion : null;
+        transactionTemplate.executeWithoutResult(status -> {
+            int updated = submissionRepository.completeJudging(
+                    submission.getId(),
+                    claim.startedAt,
+                    verdict.status(),
+                    verdict.executionTime(),
+                    verdict.memoryUsed(),
+                    verdict.testResults(),
+                    verdict.passedTestCases(),
+                    verdict.totalTestCases(),
+                    verdict.errorMessage(),
+                    submission.getCodeHash(),
+                    reuseVersion);
+            if (updated == 1) {
+                eventPublisher.publishEvent(new SubmissionJudgedEvent(
+                        submission.getId(),
+                        submission.getUser().getId(),
+                        submission.getProblem().getId(),
+                        submission.getProblem().getDifficulty(),
+                        submission.getLanguage(),
+                        verdict.status(),
+                        verdict.executionTime(),
+                        verdict.memoryUsed(),
+                        submission.getSubmittedAt()));
+            }
+        });
+    }
+
+    // This worker's claim on a submission; startedAt moves forward with every renewal
+    private static final class Claim {
+        final Long submissionId;
+        volatile LocalDateTime startedAt;
+
+        Claim(Long submissionId, LocalDateTime startedAt) {
+            this.submissionId = submissionId;
+            this.startedAt = startedAt;
+        }
+    }
+
+    // Thrown out of the evaluation when a renewal finds the claim taken over by another worker
+    private static final class ClaimLostException extends RuntimeException {
+        ClaimLostException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.codeforge.codeforge.judge;
+
+// Thrown when a submission could not be judged for infrastructure reasons
+public class JudgeUnavailableException extends RuntimeException {
+
+    public JudgeUnavailableException(String message) {
+        super(message);
+    }
+
+    public JudgeUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
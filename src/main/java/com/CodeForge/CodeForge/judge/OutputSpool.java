@@ -0,0 +1,102 @@
+package com.codeforge.codeforge.judge;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.codeforge.codeforge.judge.checker.OutputChecker;
+import com.codeforge.codeforge.sandbox.SandboxException;
+
+/**
+ * Collects the outputs of all test runs of one submission in a single temp file, so a special judge can
+ * check them in one batch afterwards. Outputs are read back memory-mapped and never held on the heap.
+ */
+public class OutputSpool implements Closeable {
+
+    private final FileChannel channel;
+    private final List<Long> offsets = new ArrayList<>();
+    private long size;
+    private IOException failure;
+
+    private OutputSpool(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    public static OutputSpool create() {
+        try {
+            Path file = Files.createTempFile("codeforge-output-", ".spool");
+            return new OutputSpool(FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE));
+        } catch (IOException e) {
+            throw new SandboxException("Could not create output spool", e);
+        }
+    }
+
+    // Sink for the next test's output; it accepts anything, the verdict comes from the batched check
+    public OutputChecker nextTest() {
+        offsets.add(size);
+        return new OutputChecker() {
+            @Override
+            public void write(byte[] buffer, int offset, int length) {
+                append(buffer, offset, length);
+            }
+
+            @Override
+            public boolean hasMismatch() {
+                return false;
+            }
+
+            @Override
+            public boolean matches() {
+                return true;
+            }
+        };
+    }
+
+    public int testCount() {
+        return offsets.size();
+    }
+
+    public ByteBuffer output(int test) {
+        if (failure != null) {
+            throw new SandboxException("Could not spool program output", failure);
+        }
+        long start = offsets.get(test);
+        long end = test + 1 < offsets.size() ? offsets.get(test + 1) : size;
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        } catch (IOException e) {
+            throw new SandboxException("Could not map spooled output", e);
+        }
+    }
+
+    // Write failures are remembered rather than thrown, so they are not mistaken for a crash of the program
+    private void append(byte[] buffer, int offset, int length) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            ByteBuffer chunk = ByteBuffer.wrap(buffer, offset, length);
+            while (chunk.hasRemaining()) {
+                size += channel.write(chunk, size);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // The file is deleted on close either way
+        }
+    }
+}
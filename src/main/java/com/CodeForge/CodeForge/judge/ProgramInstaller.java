@@ -0,0 +1,69 @@
+package com.codeforge.codeforge.judge;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.codeforge.codeforge.sandbox.ArtifactCache;
+import com.codeforge.codeforge.sandbox.DockerSandbox;
+import com.codeforge.codeforge.sandbox.ExecResult;
+import com.codeforge.codeforge.sandbox.LanguageProfile;
+import com.codeforge.codeforge.sandbox.SandboxContainer;
+import com.codeforge.codeforge.sandbox.SandboxException;
+
+/**
+ * Puts a runnable program into a container's work dir. Compiled languages are restored from the
+ * artifact cache when the same source was compiled before with the same compiler.
+ */
+@Component
+@ConditionalOnProperty(prefix = "codeforge.judge", name = "enabled", havingValue = "true")
+public class ProgramInstaller {
+
+    private final DockerSandbox sandbox;
+    private final ArtifactCache artifactCache;
+    private final long compileTimeoutMillis;
+
+    public ProgramInstaller(DockerSandbox sandbox,
+                            ArtifactCache artifactCache,
+                            @Value("${codeforge.sandbox.compile-timeout-ms:30000}") long compileTimeoutMillis) {
+        this.sandbox = sandbox;
+        this.artifactCache = artifactCache;
+        this.compileTimeoutMillis = compileTimeoutMillis;
+    }
+
+    // Returns the compiler output on failure, null once the program is ready to run
+    public String install(SandboxContainer container, String code) {
+        LanguageProfile profile = container.getProfile();
+        if (!profile.isCompiled()) {
+            sandbox.writeFile(container, profile.getSourceFile(), code.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }
+
+        String key = ArtifactCache.key(profile, sandbox.compilerVersion(container), code);
+        Optional<Path> cached = artifactCache.lookup(key);
+        if (cached.isPresent()) {
+            sandbox.importWorkDir(container, cached.get());
+            return null;
+        }
+
+        sandbox.writeFile(container, profile.getSourceFile(), code.getBytes(StandardCharsets.UTF_8));
+        ExecResult compile = sandbox.exec(container, profile.getCompileCommand(), null, compileTimeoutMillis, 0);
+        if (!compile.isSuccess()) {
+            return compile.timedOut() ? "Compilation timed out" : compile.stderr() + compile.stdoutAsString();
+        }
+
+        Path archive = artifactCache.newTempFile();
+        try {
+            sandbox.exportWorkDir(container, archive);
+            artifactCache.put(key, archive);
+        } catch (SandboxException e) {
+            // Caching is best effort; the compiled program is already in place
+            artifactCache.discard(archive);
+        }
+        return null;
+    }
+}
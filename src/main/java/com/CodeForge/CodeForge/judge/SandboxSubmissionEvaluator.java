@@ -0,0 +1,228 @@
+package com.codeforge.codeforge.judge;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.codeforge.codeforge.judge.checker.CheckerSpec;
+import com.codeforge.codeforge.judge.checker.OutputChecker;
+import com.codeforge.codeforge.model.Submission;
+import com.codeforge.codeforge.model.TestCase;
+import com.codeforge.codeforge.sandbox.ContainerPool;
+import com.codeforge.codeforge.sandbox.DockerSandbox;
+import com.codeforge.codeforge.sandbox.LanguageProfile;
+import com.codeforge.codeforge.sandbox.RunLimits;
+import com.codeforge.codeforge.sandbox.SandboxContainer;
+import com.codeforge.codeforge.sandbox.SandboxException;
+import com.codeforge.codeforge.sandbox.SandboxSession;
+import com.codeforge.codeforge.sandbox.TestRun;
+import com.codeforge.codeforge.storage.TestCaseContent;
+
+/**
+ * Judges a submission in a pooled Docker container.
+ *
+ * The source is compiled once per submission (or restored from the artifact cache). In SESSION mode (default) all test inputs are then streamed
+ * through one driver process and the output is checked (per the problem's checker mode) while it arrives; PER_TEST mode runs a separate
+ * exec for every test case. Both stop at the first failing test. Time and memory verdicts come from the program's CPU time and
+ * the rise of the container's peak memory during the run (see CgroupAccounting), which are recorded per test.
+ *
+ * Special-judge problems spool every output to a temp file instead and have the problem's checker judge
+ * them all in one batch once the program has run through the tests. A checker that does not compile or
+ * crashes ends the submission with JUDGE_ERROR instead of requeueing it.
+ *
+ * The program runs as the same user as the session driver, so a driver that dies mid-run is put down to the
+ * program: the test is a runtime error that is not reused for resubmissions. Only sandbox failures outside a
+ * run (container, exec, cgroup) requeue the submission.
+ */
+@Component
+@ConditionalOnProperty(prefix = "codeforge.judge", name = "enabled", havingValue = "true")
+public class SandboxSubmissionEvaluator implements SubmissionEvaluator {
+
+    public enum Mode { SESSION, PER_TEST }
+
+    private static final int MAX_MESSAGE_LENGTH = 4000;
+
+    private final ContainerPool containerPool;
+    private final DockerSandbox sandbox;
+    private final ProgramInstaller installer;
+    private final SpecialJudge specialJudge;
+    private final TestCaseContent testCaseContent;
+    private final JudgeLimits judgeLimits;
+    private final Mode mode;
+    private final int maxOutputBytes;
+
+    public SandboxSubmissionEvaluator(ContainerPool containerPool,
+                                      DockerSandbox sandbox,
+                                      ProgramInstaller installer,
+                                      SpecialJudge specialJudge,
+                                      TestCaseContent testCaseContent,
+                                      JudgeLimits judgeLimits,
+                                      @Value("${codeforge.judge.evaluation-mode:SESSION}") Mode mode,
+                                      @Value("${codeforge.sandbox.max-output-bytes:67108864}") int maxOutputBytes) {
+        this.containerPool = containerPool;
+        this.sandbox = sandbox;
+        this.installer = installer;
+        this.specialJudge = specialJudge;
+        this.testCaseContent = testCaseContent;
+        this.judgeLimits = judgeLimits;
+        this.mode = mode;
+        this.maxOutputBytes = maxOutputBytes;
+    }
+
+    @Override
+    public Verdict evaluate(Submission submission, List<TestCase> testCases, JudgeProgressListener progress) {
+        LanguageProfile profile = LanguageProfile.of(submission.getLanguage());
+
+        SandboxContainer container;
+        try {
+            container = containerPool.acquire(profile);
+        } catch (SandboxException e) {
+            throw new JudgeUnavailableException(e.getMessage(), e);
+        }
+
+        try {
+            String compileError = installer.install(container, submission.getCode());
+            if (compileError != null) {
+                return Verdict.compilationError(testCases.size(), truncate(compileError));
+            }
+
+            // The program's own rlimit enforces the problem's memory limit; the container only needs room for it
+            RunLimits limits = judgeLimits.of(submission.getProblem(), submission.getLanguage());
+            sandbox.makeRoomFor(container, limits.memoryLimitBytes());
+
+            CheckerSpec checker = CheckerSpec.of(submission.getProblem());
+            if (checker.isSpecial()) {
+                return runSpecial(container, profile, limits, checker, testCases, progress);
+            }
+            return mode == Mode.SESSION
+                    ? runSession(container, profile, limits, checker::newChecker, testCases, progress)
+                    : runPerTest(container, profile, limits, checker::newChecker, testCases, progress);
+        } catch (SandboxException e) {
+            throw new JudgeUnavailableException(e.getMessage(), e);
+        } finally {
+            containerPool.release(container);
+        }
+    }
+
+    // Judges the outputs with the problem's checker program after all tests have run
+    private Verdict runSpecial(SandboxContainer container, LanguageProfile profile, RunLimits limits,
+                               CheckerSpec checker, List<TestCase> testCases, JudgeProgressListener progress) {
+        try (OutputSpool outputs = OutputSpool.create()) {
+            Function<ByteBuffer, OutputChecker> spooled = expected -> outputs.nextTest();
+            // Nothing has passed before the checker ran, but the reports keep the judge claim alive
+            JudgeProgressListener running = (passed, total) -> progress.testFinished(0, total);
+            Verdict run = mode == Mode.SESSION
+                    ? runSession(container, profile, limits, spooled, testCases, running)
+                    : runPerTest(container, profile, limits, spooled, testCases, running);
+
+            // Only the tests the program got through are checked; a later run failure still counts after them
+            int rejected;
+            try {
+                rejected = specialJudge.firstRejected(checker, testCases.subList(0, run.passedTestCases()), outputs);
+            } catch (CheckerFailureException e) {
+                return Verdict.judgeError(testCases.size(), truncate(e.getMessage()));
+            }
+            int passed = rejected >= 0 ? rejected : run.passedTestCases();
+            for (int i = 1; i <= passed; i++) {
+                progress.testFinished(i, testCases.size());
+            }
+            if (rejected < 0) {
+                return run;
+            }
+            List<Submission.TestResult> results = new ArrayList<>(run.testResults().subList(0, rejected + 1));
+            Submission.TestResult usage = results.get(rejected);
+            results.set(rejected, new Submission.TestResult(Submission.Status.WRONG_ANSWER, usage.executionTime(), usage.memoryUsed()));
+            return Verdict.of(Submission.Status.WRONG_ANSWER, results, rejected, testCases.size(), null);
+        }
+    }
+
+    private Verdict runSession(SandboxContainer container, LanguageProfile profile, RunLimits limits,
+                               Function<ByteBuffer, OutputChecker> checkers, List<TestCase> testCases,
+                               JudgeProgressListener progress) {
+        int total = testCases.size();
+        List<Submission.TestResult> results = new ArrayList<>(total);
+
+        try (SandboxSession session = sandbox.openSession(container, profile.getRunCommand(), limits, maxOutputBytes)) {
+            for (TestCase testCase : testCases) {
+                OutputChecker comparator = checkers.apply(testCaseContent.expectedOutput(testCase));
+                TestRun run = session.run(testCaseContent.input(testCase), comparator);
+
+                Verdict failed = record(results, run, comparator, total);
+                if (failed != null) {
+                    return failed;
+                }
+                progress.testFinished(results.size(), total);
+            }
+        }
+
+        return Verdict.of(Submission.Status.ACCEPTED, results, total, total, null);
+    }
+
+    private Verdict runPerTest(SandboxContainer container, LanguageProfile profile, RunLimits limits,
+                               Function<ByteBuffer, OutputChecker> checkers, List<TestCase> testCases,
+                               JudgeProgressListener progress) {
+        int total = testCases.size();
+        List<Submission.TestResult> results = new ArrayList<>(total);
+
+        for (TestCase testCase : testCases) {
+            OutputChecker comparator = checkers.apply(testCaseContent.expectedOutput(testCase));
+            TestRun run = sandbox.runTest(container, profile.getRunCommand(), testCaseContent.input(testCase), comparator,
+                    limits, maxOutputBytes);
+
+            Verdict failed = record(results, run, comparator, total);
+            if (failed != null) {
+                return failed;
+            }
+            progress.testFinished(results.size(), total);
+        }
+
+        return Verdict.of(Submission.Status.ACCEPTED, results, total, total, null);
+    }
+
+    // Adds the run's result; returns the verdict if the test failed, null to go on
+    private static Verdict record(List<Submission.TestResult> results, TestRun run, OutputChecker comparator, int total) {
+        if (run.isCrashed()) {
+            // Not the program's fault: requeue instead of storing (and caching) a runtime error
+            throw new SandboxException("Test " + (results.size() + 1) + " could not be run: " + run.stderr());
+        }
+        Submission.Status failure = failureOf(run, comparator);
+        results.add(new Submission.TestResult(failure != null ? failure : Submission.Status.ACCEPTED,
+                (int) run.cpuMillis(), run.memoryKb()));
+        if (failure == null) {
+            return null;
+        }
+        String message = failure == Submission.Status.RUNTIME_ERROR ? truncate(run.stderr()) : null;
+        Verdict verdict = Verdict.of(failure, results, results.size() - 1, total, message);
+        // Most likely the program killed the driver, but a sandbox fault looks the same: judge resubmissions afresh
+        return run.isDriverLost() ? verdict.notReusable() : verdict;
+    }
+
+    // Status for a failed test run, or null if the test passed
+    private static Submission.Status failureOf(TestRun run, OutputChecker comparator) {
+        if (run.memoryLimitExceeded()) {
+            return Submission.Status.MEMORY_LIMIT_EXCEEDED;
+        }
+        if (run.timedOut()) {
+            return Submission.Status.TIME_LIMIT_EXCEEDED;
+        }
+        if (!run.isSuccess()) {
+            return Submission.Status.RUNTIME_ERROR;
+        }
+        if (!comparator.matches()) {
+            return Submission.Status.WRONG_ANSWER;
+        }
+        return null;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_MESSAGE_LENGTH) + "\n...";
+    }
+}
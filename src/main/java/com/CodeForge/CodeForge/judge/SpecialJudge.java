@@ -0,0 +1,249 @@
+package com.codeforge.codeforge.judge;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.codeforge.codeforge.judge.checker.CheckerSpec;
+import com.codeforge.codeforge.model.TestCase;
+import com.codeforge.codeforge.sandbox.ContainerPool;
+import com.codeforge.codeforge.sandbox.DockerSandbox;
+import com.codeforge.codeforge.sandbox.ExecResult;
+import com.codeforge.codeforge.sandbox.LanguageProfile;
+import com.codeforge.codeforge.sandbox.SandboxContainer;
+import com.codeforge.codeforge.sandbox.SandboxException;
+import com.codeforge.codeforge.storage.TestCaseContent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs a problem's own checker program over the outputs of a submission (CheckerMode.SPECIAL).
+ *
+ * The checker is called testlib-style as {@code <checker> input output answer} and accepts with exit code 0;
+ * 1 and 2 reject the output, anything else is a checker failure. All tests of a submission are checked in
+ * one exec: input, expected and program output of every test are streamed over its stdin from memory-mapped
+ * buffers and a small driver loop writes them to files for each checker call.
+ *
+ * Checkers are compiled once (and cached by the artifact cache). Containers with an installed checker are
+ * kept paused per checker hash, so a warm checker only costs an unpause.
+ */
+@Component
+@ConditionalOnProperty(prefix = "codeforge.judge", name = "enabled", havingValue = "true")
+public class SpecialJudge {
+
+    private static final Logger log = LoggerFactory.getLogger(SpecialJudge.class);
+
+    private static final int MAX_MESSAGE_LENGTH = 512;
+    private static final long BATCH_GRACE_MILLIS = 5000;
+
+    private final ContainerPool containerPool;
+    private final DockerSandbox sandbox;
+    private final ProgramInstaller installer;
+    private final TestCaseContent testCaseContent;
+    private final long timeLimitMillis;
+    private final int maxIdlePerChecker;
+    private final int maxCheckers;
+    // Paused containers with the checker installed, by checker hash; access-ordered for eviction
+    private final Map<String, Deque<SandboxContainer>> warm = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer batchTimer;
+
+    public SpecialJudge(ContainerPool containerPool,
+                        DockerSandbox sandbox,
+                        ProgramInstaller installer,
+                        TestCaseContent testCaseContent,
+                        MeterRegistry meterRegistry,
+                        @Value("${codeforge.judge.checker.time-limit-ms:10000}") long timeLimitMillis,
+                        @Value("${codeforge.judge.checker.max-idle-per-checker:2}") int maxIdlePerChecker,
+                        @Value("${codeforge.judge.checker.max-checkers:16}") int maxCheckers) {
+        this.containerPool = containerPool;
+        this.sandbox = sandbox;
+        this.installer = installer;
+        this.testCaseContent = testCaseContent;
+        this.timeLimitMillis = timeLimitMillis;
+        this.maxIdlePerChecker = maxIdlePerChecker;
+        this.maxCheckers = maxCheckers;
+        this.hits = Counter.builder("codeforge.judge.checker.acquire").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("codeforge.judge.checker.acquire").tag("result", "miss").register(meterRegistry);
+        this.batchTimer = Timer.builder("codeforge.judge.checker.batch")
+                .description("Time to check all outputs of one submission with a special judge")
+                .register(meterRegistry);
+    }
+
+    // Driver loop: per test reads "<inputLength> <answerLength> <outputLength>\n" and the three files, prints the exit code
+    static String batchScript(String runCommand, long timeLimitMillis) {
+        return "RUN=" + DockerSandbox.shellQuote(runCommand + " /tmp/input /tmp/output /tmp/answer") + "\n" +
+                "LIMIT=" + (timeLimitMillis / 1000.0) + "s\n" +
+                "while IFS=' ' read -r input answer output; do\n" +
+                "  head -c \"$input\" > /tmp/input\n" +
+                "  head -c \"$answer\" > /tmp/answer\n" +
+                "  head -c \"$output\" > /tmp/output\n" +
+                "  timeout -s KILL \"$LIMIT\" sh -c \"$RUN\" < /dev/null > /dev/null 2> /tmp/check.err\n" +
+                "  code=$?\n" +
+                "  echo \"$code\"\n" +
+                "  case \"$code\" in 0|1|2) ;; *) head -c " + MAX_MESSAGE_LENGTH + " /tmp/check.err >&2; exit 3 ;; esac\n" +
+                "done\n";
+    }
+
+    /**
+     * Index of the first of the given tests whose spooled output the checker rejects, or -1 if it accepts
+     * all of them. A checker that does not compile, crashes or runs out of time throws CheckerFailureException;
+     * SandboxException is left for the sandbox itself failing.
+     */
+    public int firstRejected(CheckerSpec checker, List<TestCase> testCases, OutputSpool outputs) {
+        if (testCases.isEmpty()) {
+            return -1;
+        }
+        String hash = checker.checkerHash();
+        SandboxContainer container = acquire(checker, hash);
+        boolean healthy = false;
+        long started = System.nanoTime();
+        try {
+            List<ByteBuffer> stdin = new ArrayList<>(testCases.size() * 4);
+            for (int i = 0; i < testCases.size(); i++) {
+                ByteBuffer input = testCaseContent.input(testCases.get(i));
+                ByteBuffer answer = testCaseContent.expectedOutput(testCases.get(i));
+                ByteBuffer output = outputs.output(i);
+                String header = input.remaining() + " " + answer.remaining() + " " + output.remaining() + "\n";
+                stdin.add(ByteBuffer.wrap(header.getBytes(StandardCharsets.US_ASCII)));
+                stdin.add(input);
+                stdin.add(answer);
+                stdin.add(output);
+            }
+
+            String script = batchScript(container.getProfile().getRunCommand(), timeLimitMillis);
+            ExecResult result = sandbox.execWithInputs(container, script, stdin,
+                    timeLimitMillis * testCases.size() + BATCH_GRACE_MILLIS, 0);
+            if (result.timedOut()) {
+                throw new SandboxException("Checker batch of " + testCases.size() + " tests timed out");
+            }
+            String[] codes = result.stdoutAsString().split("\n");
+            for (int i = 0; i < testCases.size(); i++) {
+                String code = i < codes.length ? codes[i].strip() : "";
+                switch (code) {
+                    case "0" -> { }
+                    case "1", "2" -> {
+                        healthy = true;
+                        return i;
+                    }
+                    case "" -> throw new SandboxException("Checker batch ended before test " + (i + 1)
+                            + " (exit code " + result.exitCode() + "): " + result.stderr());
+                    default -> {
+                        // The driver kept working, so the container is fine; the checker itself is broken
+                        healthy = true;
+                        throw new CheckerFailureException("Checker failed on test " + (i + 1)
+                                + " with exit code " + code + ": " + truncate(result.stderr()));
+                    }
+                }
+            }
+            healthy = true;
+            return -1;
+        } finally {
+            batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            if (healthy) {
+                release(hash, container);
+            } else {
+                containerPool.release(container);
+            }
+        }
+    }
+
+    private SandboxContainer acquire(CheckerSpec checker, String hash) {
+        SandboxContainer container;
+        while ((container = pollWarm(hash)) != null) {
+            try {
+                sandbox.unpause(container);
+                hits.increment();
+                return container;
+            } catch (SandboxException e) {
+                log.warn("Discarding broken checker container {}", container, e);
+                sandbox.remove(container);
+            }
+        }
+
+        misses.increment();
+        container = containerPool.acquire(LanguageProfile.of(checker.checkerLanguage()));
+        try {
+            String compileError = installer.install(container, checker.checkerSource());
+            if (compileError != null) {
+                throw new CheckerFailureException("Checker " + hash.substring(0, 12) + " does not compile: " + truncate(compileError));
+            }
+        } catch (RuntimeException e) {
+            containerPool.release(container);
+            throw e;
+        }
+        return container;
+    }
+
+    private SandboxContainer pollWarm(String hash) {
+        synchronized (warm) {
+            Deque<SandboxContainer> queue = warm.get(hash);
+            return queue != null ? queue.pollFirst() : null;
+        }
+    }
+
+    // Keeps the container warm for this checker, evicting the least recently used checkers beyond max-checkers
+    private void release(String hash, SandboxContainer container) {
+        boolean keep;
+        synchronized (warm) {
+            Deque<SandboxContainer> queue = warm.get(hash);
+            keep = queue == null || queue.size() < maxIdlePerChecker;
+        }
+        if (!keep) {
+            containerPool.release(container);
+            return;
+        }
+        try {
+            // Keeps the installed checker in the work dir
+            sandbox.clean(container, "/tmp");
+            sandbox.pause(container);
+        } catch (SandboxException e) {
+            log.warn("Could not reset checker container {}, removing it", container, e);
+            sandbox.remove(container);
+            return;
+        }
+
+        List<SandboxContainer> evicted = new ArrayList<>();
+        synchronized (warm) {
+            warm.computeIfAbsent(hash, k -> new ArrayDeque<>()).offerFirst(container);
+            Iterator<Map.Entry<String, Deque<SandboxContainer>>> eldest = warm.entrySet().iterator();
+            while (warm.size() > maxCheckers && eldest.hasNext()) {
+                Map.Entry<String, Deque<SandboxContainer>> entry = eldest.next();
+                if (!entry.getKey().equals(hash)) {
+                    eldest.remove();
+                    evicted.addAll(entry.getValue());
+                }
+            }
+        }
+        evicted.forEach(sandbox::remove);
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH) + "...";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (warm) {
+            warm.values().forEach(queue -> queue.forEach(sandbox::remove));
+            warm.clear();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.codeforge.codeforge.judge;
+
+import java.util.List;
+
+import com.codeforge.codeforge.model.Submission;
+import com.codeforge.codeforge.model.TestCase;
+
+// Runs a submission against test cases and produces a verdict
+public interface SubmissionEvaluator {
+
+    // Implementations throw JudgeUnavailableException when the sandbox itself fails,
+    // so the submission is requeued instead of receiving a wrong verdict
+    Verdict evaluate(Submission submission, List<TestCase> testCases, JudgeProgressListener progress);
+}
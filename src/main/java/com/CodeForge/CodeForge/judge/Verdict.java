@@ -0,0 +1,47 @@
+package com.codeforge.codeforge.judge;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.codeforge.codeforge.model.Submission;
+
+// Outcome of evaluating a submission against its problem's test cases
+public record Verdict(
+        Submission.Status status,
+        Integer executionTime, // in milliseconds, CPU time of the slowest test
+        Integer memoryUsed, // in KB, peak of the most memory-hungry test
+        int passedTestCases,
+        int totalTestCases,
+        String errorMessage,
+        List<Submission.TestResult> testResults,
+        boolean reusable) { // false if an identical resubmission must be judged again
+
+    public static Verdict compilationError(int totalTestCases, String errorMessage) {
+        return new Verdict(Submission.Status.COMPILATION_ERROR, null, null, 0, totalTestCases, errorMessage, List.of(), true);
+    }
+
+    // The problem's checker is broken or the sandbox kept failing; the submission could not be judged
+    public static Verdict judgeError(int totalTestCases, String errorMessage) {
+        return new Verdict(Submission.Status.JUDGE_ERROR, null, null, 0, totalTestCases, errorMessage, List.of(), false);
+    }
+
+    // Aggregates the per-test results of the tests that were run
+    public static Verdict of(Submission.Status status, List<Submission.TestResult> testResults,
+                             int passedTestCases, int totalTestCases, String errorMessage) {
+        Integer executionTime = testResults.stream().map(Submission.TestResult::executionTime)
+                .filter(Objects::nonNull).max(Integer::compare).orElse(null);
+        Integer memoryUsed = testResults.stream().map(Submission.TestResult::memoryUsed)
+                .filter(Objects::nonNull).max(Integer::compare).orElse(null);
+        return new Verdict(status, executionTime, memoryUsed, passedTestCases, totalTestCases, errorMessage,
+                List.copyOf(testResults), true);
+    }
+
+    public Verdict notReusable() {
+        return new Verdict(status, executionTime, memoryUsed, passedTestCases, totalTestCases, errorMessage,
+                testResults, false);
+    }
+
+    public boolean isAccepted() {
+        return status == Submission.Status.ACCEPTED;
+    }
+}
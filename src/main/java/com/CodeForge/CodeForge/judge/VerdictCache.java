@@ -0,0 +1,129 @@
+package com.codeforge.codeforge.judge;
+
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.codeforge.codeforge.judge.checker.CheckerSpec;
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.model.Submission;
+import com.codeforge.codeforge.repository.SubmissionRepository;
+import com.codeforge.codeforge.repository.TestCaseRepository;
+import com.codeforge.codeforge.sandbox.RunLimits;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Reuses verdicts of identical resubmissions: same source hash, language, problem and test-set version.
+ *
+ * The submissions table is the source of truth; a small in-memory LRU sits in front of it so double-click
+ * resubmits do not even reach the database. Time-limit verdicts are never reused because they depend
+ * on judge load.
+ */
+@Component
+public class VerdictCache {
+
+    private static final List<Submission.Status> REUSABLE_STATUSES = List.of(
+            Submission.Status.ACCEPTED,
+            Submission.Status.WRONG_ANSWER,
+            Submission.Status.COMPILATION_ERROR,
+            Submission.Status.RUNTIME_ERROR,
+            Submission.Status.MEMORY_LIMIT_EXCEEDED);
+
+    private final SubmissionRepository submissionRepository;
+    private final TestCaseRepository testCaseRepository;
+    private final JudgeLimits judgeLimits;
+    private final Map<Key, Verdict> recent;
+    private final Counter hits;
+    private final Counter misses;
+
+    public VerdictCache(SubmissionRepository submissionRepository,
+                        TestCaseRepository testCaseRepository,
+                        JudgeLimits judgeLimits,
+                        MeterRegistry meterRegistry,
+                        @Value("${codeforge.judge.verdict-cache.max-entries:10000}") int maxEntries) {
+        this.submissionRepository = submissionRepository;
+        this.testCaseRepository = testCaseRepository;
+        this.judgeLimits = judgeLimits;
+        this.recent = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Verdict> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.hits = Counter.builder("codeforge.judge.verdict.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("codeforge.judge.verdict.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Fingerprint of everything about a problem that can change a verdict in the given language. The checker
+     * and the effective limits are hashed into the last component, which keeps the version within 64 chars.
+     */
+    public String testSetVersion(Problem problem, Submission.Language language) {
+        TestCaseRepository.TestSetStats stats = testCaseRepository.findTestSetStats(problem.getId());
+        long lastUpdated = stats.getLastUpdated() != null ? stats.getLastUpdated().toInstant(ZoneOffset.UTC).toEpochMilli() : 0;
+        RunLimits limits = judgeLimits.of(problem, language);
+        String rules = CheckerSpec.of(problem).version() + "|" + limits.timeLimitMillis() + "|" + limits.memoryLimitBytes();
+        return stats.getCount() + "-" + (stats.getMaxId() != null ? stats.getMaxId() : 0) + "-" + lastUpdated
+                + "-" + Submission.hashOf(rules).substring(0, 16);
+    }
+
+    public Optional<Verdict> lookup(Submission submission, String testSetVersion) {
+        Key key = Key.of(submission, testSetVersion);
+        Verdict verdict;
+        synchronized (recent) {
+            verdict = recent.get(key);
+        }
+
+        if (verdict == null) {
+            verdict = submissionRepository.findPreviousVerdicts(
+                            submission.getProblem().getId(), submission.getCodeHash(), submission.getLanguage(),
+                            testSetVersion, REUSABLE_STATUSES, PageRequest.of(0, 1))
+                    .stream()
+                    .findFirst()
+                    .map(VerdictCache::toVerdict)
+                    .orElse(null);
+            if (verdict != null) {
+                remember(key, verdict);
+            }
+        }
+
+        (verdict != null ? hits : misses).increment();
+        return Optional.ofNullable(verdict);
+    }
+
+    public void remember(Submission submission, String testSetVersion, Verdict verdict) {
+        if (verdict.reusable() && REUSABLE_STATUSES.contains(verdict.status())) {
+            remember(Key.of(submission, testSetVersion), verdict);
+        }
+    }
+
+    private void remember(Key key, Verdict verdict) {
+        synchronized (recent) {
+            recent.put(key, verdict);
+        }
+    }
+
+    private static Verdict toVerdict(SubmissionRepository.VerdictView view) {
+        return new Verdict(view.getStatus(), view.getExecutionTime(), view.getMemoryUsed(),
+                view.getPassedTestCases() != null ? view.getPassedTestCases() : 0,
+                view.getTotalTestCases() != null ? view.getTotalTestCases() : 0,
+                view.getErrorMessage(),
+                view.getTestResults() != null ? view.getTestResults() : List.of(),
+                true);
+    }
+
+    private record Key(Long problemId, Submission.Language language, String codeHash, String testSetVersion) {
+
+        static Key of(Submission submission, String testSetVersion) {
+            return new Key(submission.getProblem().getId(), submission.getLanguage(), submission.getCodeHash(), testSetVersion);
+        }
+    }
+}
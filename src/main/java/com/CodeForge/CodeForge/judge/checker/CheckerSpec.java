@@ -0,0 +1,72 @@
+package com.codeforge.codeforge.judge.checker;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.model.Submission;
+
+/**
+ * How a problem's outputs are checked. Created once per submission; {@link #newChecker} is called for
+ * every test case. SPECIAL problems are checked by their own checker program in batches instead (see judge.SpecialJudge).
+ */
+public record CheckerSpec(Problem.CheckerMode mode, double absoluteEpsilon, double relativeEpsilon,
+                          Submission.Language checkerLanguage, String checkerSource) {
+
+    public static final double DEFAULT_EPSILON = 1e-6;
+    public static final Submission.Language DEFAULT_CHECKER_LANGUAGE = Submission.Language.CPP;
+
+    public static CheckerSpec of(Problem problem) {
+        Problem.CheckerMode mode = problem.getCheckerMode() != null ? problem.getCheckerMode() : Problem.CheckerMode.EXACT;
+        // A special judge without a checker program falls back to exact comparison
+        if (mode == Problem.CheckerMode.SPECIAL && (problem.getCheckerSource() == null || problem.getCheckerSource().isBlank())) {
+            mode = Problem.CheckerMode.EXACT;
+        }
+        return new CheckerSpec(mode,
+                problem.getCheckerAbsoluteEpsilon() != null ? problem.getCheckerAbsoluteEpsilon() : DEFAULT_EPSILON,
+                problem.getCheckerRelativeEpsilon() != null ? problem.getCheckerRelativeEpsilon() : DEFAULT_EPSILON,
+                problem.getCheckerLanguage() != null ? problem.getCheckerLanguage() : DEFAULT_CHECKER_LANGUAGE,
+                mode == Problem.CheckerMode.SPECIAL ? problem.getCheckerSource() : null);
+    }
+
+    public boolean isSpecial() {
+        return mode == Problem.CheckerMode.SPECIAL;
+    }
+
+    public OutputChecker newChecker(ByteBuffer expected) {
+        return switch (mode) {
+            case EXACT -> new StreamingOutputComparator(expected);
+            case WHITESPACE_INSENSITIVE -> new TokenChecker(expected, TokenChecker.Match.EXACT, 0, 0);
+            case CASE_INSENSITIVE -> new TokenChecker(expected, TokenChecker.Match.IGNORE_CASE, 0, 0);
+            case FLOAT -> new TokenChecker(expected, TokenChecker.Match.FLOAT, absoluteEpsilon, relativeEpsilon);
+            case UNORDERED_LINES -> new UnorderedLinesChecker(expected);
+            case SPECIAL -> throw new IllegalStateException("Special-judge outputs are checked by SpecialJudge");
+        };
+    }
+
+    // SHA-256 of the checker language and source; identifies a compiled checker
+    public String checkerHash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(checkerLanguage.name().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(checkerSource.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Part of the test-set version, so cached verdicts are not reused after the checking rules change
+    public String version() {
+        return switch (mode) {
+            case EXACT -> "";
+            case FLOAT -> "FLOAT:" + absoluteEpsilon + "/" + relativeEpsilon;
+            case SPECIAL -> "SPECIAL:" + checkerHash().substring(0, 16);
+            default -> mode.name();
+        };
+    }
+}
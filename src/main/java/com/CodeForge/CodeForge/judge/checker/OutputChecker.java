@@ -0,0 +1,21 @@
+package com.codeforge.codeforge.judge.checker;
+
+import com.codeforge.codeforge.sandbox.OutputSink;
+
+/**
+ * Compares a program's output with the expected output while it streams in. Implementations keep no
+ * copy of either side and do not allocate per byte or token.
+ */
+public interface OutputChecker extends OutputSink {
+
+    // True once the output can no longer match; the remaining output need not be read
+    boolean hasMismatch();
+
+    @Override
+    default boolean wantsMore() {
+        return !hasMismatch();
+    }
+
+    // Call once after the output ended
+    boolean matches();
+}
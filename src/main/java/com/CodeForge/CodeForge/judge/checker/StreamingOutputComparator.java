@@ -0,0 +1,127 @@
+package com.codeforge.codeforge.judge.checker;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Compares program output against the expected output while it streams in.
+ *
+ * Both sides are compared in canonical form: trailing whitespace (space, tab, CR) is ignored on every line
+ * and trailing blank lines are ignored at the end. Everything else must match byte for byte.
+ * Only whitespace inside the current line is buffered, never the output itself.
+ */
+public class StreamingOutputComparator implements OutputChecker {
+
+    private final ByteBuffer expected;
+
+    // Expected side: position plus a pending run of newlines / retained whitespace [wsPosition, wsEnd)
+    private int expectedPosition;
+    private int expectedNewlines;
+    private int expectedWsPosition;
+    private int expectedWsEnd;
+
+    // Actual side: newlines and whitespace seen since the last content byte
+    private int pendingNewlines;
+    private byte[] pendingWs = new byte[64];
+    private int pendingWsLength;
+
+    private boolean mismatch;
+
+    public StreamingOutputComparator(ByteBuffer expected) {
+        this.expected = expected.duplicate();
+        this.expectedPosition = this.expected.position();
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end && !mismatch; i++) {
+            byte b = buffer[i];
+            if (b == '\n') {
+                pendingNewlines++;
+                pendingWsLength = 0;
+            } else if (isLineSpace(b)) {
+                if (pendingWsLength == pendingWs.length) {
+                    pendingWs = Arrays.copyOf(pendingWs, pendingWs.length * 2);
+                }
+                pendingWs[pendingWsLength++] = b;
+            } else {
+                for (; pendingNewlines > 0 && !mismatch; pendingNewlines--) {
+                    match((byte) '\n');
+                }
+                for (int w = 0; w < pendingWsLength && !mismatch; w++) {
+                    match(pendingWs[w]);
+                }
+                pendingWsLength = 0;
+                match(b);
+            }
+        }
+    }
+
+    // True once a difference has been seen; later output no longer needs to be inspected
+    @Override
+    public boolean hasMismatch() {
+        return mismatch;
+    }
+
+    // Call after the program's output ended; pending trailing whitespace on the actual side is dropped
+    @Override
+    public boolean matches() {
+        return !mismatch && nextExpected() == -1;
+    }
+
+    private void match(byte actual) {
+        if (nextExpected() != (actual & 0xFF)) {
+            mismatch = true;
+        }
+    }
+
+    // Next canonical byte of the expected output, or -1 at its (canonical) end
+    private int nextExpected() {
+        if (expectedNewlines > 0) {
+            expectedNewlines--;
+            return '\n';
+        }
+        if (expectedWsPosition < expectedWsEnd) {
+            return expected.get(expectedWsPosition++) & 0xFF;
+        }
+
+        int limit = expected.limit();
+        if (expectedPosition >= limit) {
+            return -1;
+        }
+        byte b = expected.get(expectedPosition);
+        if (b != '\n' && !isLineSpace(b)) {
+            expectedPosition++;
+            return b & 0xFF;
+        }
+
+        // Resolve a whitespace run: keep newlines and the indentation after the last one, but only if content follows
+        int lineStart = expectedPosition;
+        int newlines = 0;
+        int scan = expectedPosition;
+        while (scan < limit) {
+            byte c = expected.get(scan);
+            if (c == '\n') {
+                newlines++;
+                lineStart = scan + 1;
+            } else if (!isLineSpace(c)) {
+                break;
+            }
+            scan++;
+        }
+        if (scan >= limit) {
+            expectedPosition = limit;
+            return -1;
+        }
+        expectedNewlines = newlines;
+        expectedWsPosition = lineStart;
+        expectedWsEnd = scan;
+        expectedPosition = scan;
+        return nextExpected();
+    }
+
+    private static boolean isLineSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+}
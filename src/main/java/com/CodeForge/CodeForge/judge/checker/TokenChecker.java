@@ -0,0 +1,214 @@
+package com.codeforge.codeforge.judge.checker;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Compares whitespace-separated tokens, so line breaks and runs of spaces are insignificant.
+ *
+ * Tokens of the actual output are collected in a reusable buffer (it only grows to the longest token)
+ * and compared with the next expected token as soon as they end, so the first wrong token stops the check.
+ * Tokens compare byte for byte, ignoring ASCII case, or as numbers within an absolute or relative epsilon.
+ */
+final class TokenChecker implements OutputChecker {
+
+    enum Match { EXACT, IGNORE_CASE, FLOAT }
+
+    private final ByteBuffer expected;
+    private final Match match;
+    private final double absoluteEpsilon;
+    private final double relativeEpsilon;
+
+    private int expectedPosition;
+    private byte[] actualToken = new byte[64];
+    private int actualLength;
+    private byte[] expectedToken = new byte[64];
+    private int expectedLength;
+
+    private boolean mismatch;
+    private boolean finished;
+
+    // Result of the last successful parseNumber call
+    private double parsed;
+
+    TokenChecker(ByteBuffer expected, Match match, double absoluteEpsilon, double relativeEpsilon) {
+        this.expected = expected.duplicate();
+        this.expectedPosition = this.expected.position();
+        this.match = match;
+        this.absoluteEpsilon = absoluteEpsilon;
+        this.relativeEpsilon = relativeEpsilon;
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end && !mismatch; i++) {
+            byte b = buffer[i];
+            if (isSpace(b)) {
+                if (actualLength > 0) {
+                    compareToken();
+                }
+            } else {
+                if (actualLength == actualToken.length) {
+                    actualToken = Arrays.copyOf(actualToken, actualToken.length * 2);
+                }
+                actualToken[actualLength++] = b;
+            }
+        }
+    }
+
+    @Override
+    public boolean hasMismatch() {
+        return mismatch;
+    }
+
+    @Override
+    public boolean matches() {
+        if (!finished) {
+            finished = true;
+            if (!mismatch && actualLength > 0) {
+                compareToken();
+            }
+            if (!mismatch && nextExpectedToken()) {
+                // The program stopped early
+                mismatch = true;
+            }
+        }
+        return !mismatch;
+    }
+
+    private void compareToken() {
+        if (!nextExpectedToken() || !tokensEqual()) {
+            mismatch = true;
+        }
+        actualLength = 0;
+    }
+
+    // Copies the next expected token into expectedToken; false at the end of the expected output
+    private boolean nextExpectedToken() {
+        int limit = expected.limit();
+        while (expectedPosition < limit && isSpace(expected.get(expectedPosition))) {
+            expectedPosition++;
+        }
+        expectedLength = 0;
+        while (expectedPosition < limit) {
+            byte b = expected.get(expectedPosition);
+            if (isSpace(b)) {
+                break;
+            }
+            if (expectedLength == expectedToken.length) {
+                expectedToken = Arrays.copyOf(expectedToken, expectedToken.length * 2);
+            }
+            expectedToken[expectedLength++] = b;
+            expectedPosition++;
+        }
+        return expectedLength > 0;
+    }
+
+    private boolean tokensEqual() {
+        switch (match) {
+            case IGNORE_CASE:
+                if (actualLength != expectedLength) {
+                    return false;
+                }
+                for (int i = 0; i < actualLength; i++) {
+                    if (toLower(actualToken[i]) != toLower(expectedToken[i])) {
+                        return false;
+                    }
+                }
+                return true;
+            case FLOAT:
+                if (parseNumber(expectedToken, expectedLength)) {
+                    double expectedValue = parsed;
+                    if (parseNumber(actualToken, actualLength)) {
+                        double difference = Math.abs(parsed - expectedValue);
+                        return difference <= absoluteEpsilon || difference <= relativeEpsilon * Math.abs(expectedValue);
+                    }
+                    return false;
+                }
+                return Arrays.equals(actualToken, 0, actualLength, expectedToken, 0, expectedLength);
+            default:
+                return Arrays.equals(actualToken, 0, actualLength, expectedToken, 0, expectedLength);
+        }
+    }
+
+    /**
+     * Parses a decimal number ([+-]digits[.digits][e[+-]digits]) without creating a String. The result is
+     * within a few ulps of Double.parseDouble, far below any sensible checker epsilon. Returns false for
+     * anything else, including non-finite values.
+     */
+    private boolean parseNumber(byte[] token, int length) {
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (token[i] == '-' || token[i] == '+')) {
+            negative = token[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean fraction = false;
+        for (; i < length; i++) {
+            byte b = token[i];
+            if (b >= '0' && b <= '9') {
+                digits++;
+                if (significantDigits < 18) {
+                    if (mantissa != 0 || b != '0') {
+                        significantDigits++;
+                    }
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (fraction) {
+                        exponent--;
+                    }
+                } else if (!fraction) {
+                    exponent++;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < length) {
+            if (token[i] != 'e' && token[i] != 'E') {
+                return false;
+            }
+            i++;
+            boolean negativeExponent = false;
+            if (i < length && (token[i] == '-' || token[i] == '+')) {
+                negativeExponent = token[i] == '-';
+                i++;
+            }
+            if (i == length) {
+                return false;
+            }
+            int explicit = 0;
+            for (; i < length; i++) {
+                byte b = token[i];
+                if (b < '0' || b > '9') {
+                    return false;
+                }
+                explicit = Math.min(explicit * 10 + (b - '0'), 100_000);
+            }
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+        double value = exponent >= 0 ? mantissa * Math.pow(10, exponent) : mantissa / Math.pow(10, -exponent);
+        if (Double.isInfinite(value) || Double.isNaN(value)) {
+            return false;
+        }
+        parsed = negative ? -value : value;
+        return true;
+    }
+
+    private static int toLower(byte b) {
+        return b >= 'A' && b <= 'Z' ? b + ('a' - 'A') : b;
+    }
+
+    static boolean isSpace(byte b) {
+        return b == ' ' || b == '\n' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+    }
+}
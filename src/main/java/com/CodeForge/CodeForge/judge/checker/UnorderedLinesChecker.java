@@ -0,0 +1,103 @@
+package com.codeforge.codeforge.judge.checker;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Accepts the expected lines in any order. Trailing whitespace is ignored on every line (leading whitespace
+ * is compared) and blank or whitespace-only lines are ignored entirely.
+ *
+ * Both sides are reduced to an order-independent fingerprint (line count and two sums of mixed 64-bit line
+ * hashes) while they stream, so nothing is sorted or kept in memory. The check can only fail early when
+ * the program prints more lines than expected.
+ */
+final class UnorderedLinesChecker implements OutputChecker {
+
+    private final LineMultiset expectedLines = new LineMultiset();
+    private final LineMultiset actualLines = new LineMultiset();
+    private boolean finished;
+
+    UnorderedLinesChecker(ByteBuffer expected) {
+        ByteBuffer view = expected.duplicate();
+        for (int i = view.position(); i < view.limit(); i++) {
+            expectedLines.accept(view.get(i));
+        }
+        expectedLines.finish();
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end; i++) {
+            actualLines.accept(buffer[i]);
+        }
+    }
+
+    @Override
+    public boolean hasMismatch() {
+        return actualLines.count > expectedLines.count;
+    }
+
+    @Override
+    public boolean matches() {
+        if (!finished) {
+            finished = true;
+            actualLines.finish();
+        }
+        return actualLines.count == expectedLines.count
+                && actualLines.sum == expectedLines.sum
+                && actualLines.mixedSum == expectedLines.mixedSum;
+    }
+
+    private static final class LineMultiset {
+
+        private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+        private static final long FNV_PRIME = 0x100000001b3L;
+
+        private long count;
+        private long sum;
+        private long mixedSum;
+
+        // Hash of the line up to its last content byte
+        private long hash = FNV_OFFSET;
+        // Same, plus the whitespace since then; becomes the hash only if more content follows
+        private long pendingHash = FNV_OFFSET;
+        private boolean content;
+
+        void accept(byte b) {
+            if (b == '\n') {
+                endLine();
+            } else if (b == ' ' || b == '\t' || b == '\r') {
+                pendingHash = (pendingHash ^ (b & 0xFF)) * FNV_PRIME;
+            } else {
+                hash = (pendingHash ^ (b & 0xFF)) * FNV_PRIME;
+                pendingHash = hash;
+                content = true;
+            }
+        }
+
+        void finish() {
+            endLine();
+        }
+
+        private void endLine() {
+            if (content) {
+                count++;
+                sum += mix(hash);
+                mixedSum += mix(hash ^ 0x9e3779b97f4a7c15L);
+            }
+            hash = FNV_OFFSET;
+            pendingHash = FNV_OFFSET;
+            content = false;
+        }
+
+        // MurmurHash3 finalizer
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -6,8 +6,11 @@ import jakarta.validation.constraints.Size;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.codeforge.codeforge.event.CatalogChangeListener;
+
 @Entity
 @Table(name = "categories")
+@EntityListeners(CatalogChangeListener.class)
 public class Category {
     
     @Id
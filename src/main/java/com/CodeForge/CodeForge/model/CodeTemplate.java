@@ -7,6 +7,7 @@ import org.hibernate.annotations.OnDeleteAction;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -16,9 +17,12 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 
+import com.codeforge.codeforge.event.CatalogChangeListener;
+
 @Entity
 @Table(
     name = "code_templates",
@@ -26,10 +30,13 @@ import jakarta.persistence.UniqueConstraint;
         @UniqueConstraint(columnNames = {"problem_id", "language"})
     }
 )
+@EntityListeners(CatalogChangeListener.class)
 public class CodeTemplate {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids (50 per round trip) so bulk inserts can be JDBC-batched; IDENTITY disables batching
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "code_templates_seq")
+    @SequenceGenerator(name = "code_templates_seq", sequenceName = "code_templates_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -2,6 +2,7 @@ package com.codeforge.codeforge.model;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -11,10 +12,13 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 
+import com.codeforge.codeforge.event.CatalogChangeListener;
+
 @Entity
 @Table(name = "contest_problems", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"contest_id", "problem_id"})
 })
+@EntityListeners(CatalogChangeListener.class)
 public class ContestProblem {
 
     @Id
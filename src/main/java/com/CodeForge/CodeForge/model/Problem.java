@@ -6,6 +6,7 @@ import java.util.List;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -17,16 +18,22 @@ import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import com.codeforge.codeforge.event.CatalogChangeListener;
+
 @Entity
 @Table(name = "problems")
+@EntityListeners(CatalogChangeListener.class)
 public class Problem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids (50 per round trip) so bulk inserts can be JDBC-batched; IDENTITY disables batching
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "problems_seq")
+    @SequenceGenerator(name = "problems_seq", sequenceName = "problems_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -69,6 +76,33 @@ public class Problem {
     @Enumerated(EnumType.STRING)
     private Status status = Status.DRAFT;
 
+    // Limits per test run before language multipliers (see judge.JudgeLimits); null uses the judge defaults
+    @Column(name = "time_limit_ms")
+    private Integer timeLimitMs;
+
+    @Column(name = "memory_limit_mb")
+    private Integer memoryLimitMb;
+
+    // How program output is compared with the expected output (see judge.checker)
+    @Enumerated(EnumType.STRING)
+    @Column(name = "checker_mode", length = 32)
+    private CheckerMode checkerMode = CheckerMode.EXACT;
+
+    // Tolerances for CheckerMode.FLOAT; a number passes if it is within either bound
+    @Column(name = "checker_abs_epsilon")
+    private Double checkerAbsoluteEpsilon;
+
+    @Column(name = "checker_rel_epsilon")
+    private Double checkerRelativeEpsilon;
+
+    // Checker program for CheckerMode.SPECIAL; run as <checker> input output answer, exit code 0 accepts
+    @Enumerated(EnumType.STRING)
+    @Column(name = "checker_language", length = 32)
+    private Submission.Language checkerLanguage;
+
+    @Column(name = "checker_source", columnDefinition = "TEXT")
+    private String checkerSource;
+
     // Add this field - Many-to-Many relationship with Category
     @ManyToMany
     @JoinTable(
@@ -104,6 +138,7 @@ public class Problem {
     // Enums
     public enum Difficulty { EASY, MEDIUM, HARD }
     public enum Status { ACTIVE, DRAFT, ARCHIVED }
+    public enum CheckerMode { EXACT, WHITESPACE_INSENSITIVE, CASE_INSENSITIVE, FLOAT, UNORDERED_LINES, SPECIAL }
 
     // Getters and Setters
     public Long getId() { return id; }
@@ -145,6 +180,27 @@ public class Problem {
     public Status getStatus() { return status; }
     public void setStatus(Status status) { this.status = status; }
 
+    public Integer getTimeLimitMs() { return timeLimitMs; }
+    public void setTimeLimitMs(Integer timeLimitMs) { this.timeLimitMs = timeLimitMs; }
+
+    public Integer getMemoryLimitMb() { return memoryLimitMb; }
+    public void setMemoryLimitMb(Integer memoryLimitMb) { this.memoryLimitMb = memoryLimitMb; }
+
+    public CheckerMode getCheckerMode() { return checkerMode; }
+    public void setCheckerMode(CheckerMode checkerMode) { this.checkerMode = checkerMode; }
+
+    public Double getCheckerAbsoluteEpsilon() { return checkerAbsoluteEpsilon; }
+    public void setCheckerAbsoluteEpsilon(Double checkerAbsoluteEpsilon) { this.checkerAbsoluteEpsilon = checkerAbsoluteEpsilon; }
+
+    public Double getCheckerRelativeEpsilon() { return checkerRelativeEpsilon; }
+    public void setCheckerRelativeEpsilon(Double checkerRelativeEpsilon) { this.checkerRelativeEpsilon = checkerRelativeEpsilon; }
+
+    public Submission.Language getCheckerLanguage() { return checkerLanguage; }
+    public void setCheckerLanguage(Submission.Language checkerLanguage) { this.checkerLanguage = checkerLanguage; }
+
+    public String getCheckerSource() { return checkerSource; }
+    public void setCheckerSource(String checkerSource) { this.checkerSource = checkerSource; }
+
     // Add categories getter and setter
     public List<Category> getCategories() {
         return categories;
@@ -161,6 +217,7 @@ public class Problem {
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
     // Helper methods
+    // These mutate the managed entity and race under concurrent judging; verdicts go through ProblemStatsService
     public void incrementSubmissionCount() {
         this.submissionCount++;
         updateAcceptanceRate();
@@ -1,6 +1,14 @@
 package com.codeforge.codeforge.model;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -10,13 +18,19 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 
 @Entity
-@Table(name = "submissions")
+@Table(name = "submissions", indexes = {
+        @Index(name = "idx_submissions_problem_code_hash", columnList = "problem_id, code_hash"),
+        @Index(name = "idx_submissions_user_submitted", columnList = "user_id, submitted_at, id"),
+        @Index(name = "idx_submissions_problem_submitted", columnList = "problem_id, submitted_at, id")
+})
 public class Submission {
     
     @Id
@@ -53,6 +67,11 @@ public class Submission {
     @Column(name = "memory_used")
     private Integer memoryUsed; // in KB
 
+    // Per-test CPU time and peak memory in test order, up to the first failing test; the two columns above are their maxima
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "test_results", columnDefinition = "jsonb")
+    private List<TestResult> testResults;
+
     @Column(name = "passed_test_cases")
     private Integer passedTestCases = 0;
 
@@ -65,6 +84,22 @@ public class Submission {
     @Column(name = "submitted_at", nullable = false, updatable = false)
     private LocalDateTime submittedAt = LocalDateTime.now();
 
+    // SHA-256 of the source, used to reuse verdicts of identical resubmissions
+    @Column(name = "code_hash", length = 64)
+    private String codeHash;
+
+    // Fingerprint of the problem's test set this submission was judged against
+    @Column(name = "test_set_version", length = 64)
+    private String testSetVersion;
+
+    // Set when a judge instance claims the submission; used to requeue claims from crashed instances
+    @Column(name = "judge_started_at")
+    private LocalDateTime judgeStartedAt;
+
+    // How often a judge instance has claimed the submission; capped by codeforge.judge.max-attempts
+    @Column(name = "judge_attempts")
+    private Integer judgeAttempts;
+
     // Enums
     public enum Language {
         JAVA, PYTHON, JAVASCRIPT, CPP, C, CSHARP, RUBY, GO, RUST, SWIFT, KOTLIN, TYPESCRIPT
@@ -72,7 +107,17 @@ public class Submission {
 
     public enum Status {
         PENDING, RUNNING, ACCEPTED, WRONG_ANSWER, TIME_LIMIT_EXCEEDED,
-        COMPILATION_ERROR, RUNTIME_ERROR, MEMORY_LIMIT_EXCEEDED
+        COMPILATION_ERROR, RUNTIME_ERROR, MEMORY_LIMIT_EXCEEDED, JUDGE_ERROR
+    }
+
+    // Outcome of one test case; executionTime is CPU time in milliseconds, memoryUsed peak memory in KB
+    public record TestResult(Status status, Integer executionTime, Integer memoryUsed) {}
+
+    @PrePersist
+    public void prePersist() {
+        if (codeHash == null && code != null) {
+            codeHash = hashOf(code);
+        }
     }
 
     // Constructors
@@ -110,6 +155,9 @@ public class Submission {
     public Integer getMemoryUsed() { return memoryUsed; }
     public void setMemoryUsed(Integer memoryUsed) { this.memoryUsed = memoryUsed; }
 
+    public List<TestResult> getTestResults() { return testResults; }
+    public void setTestResults(List<TestResult> testResults) { this.testResults = testResults; }
+
     public Integer getPassedTestCases() { return passedTestCases; }
     public void setPassedTestCases(Integer passedTestCases) { this.passedTestCases = passedTestCases; }
 
@@ -122,6 +170,18 @@ public class Submission {
     public LocalDateTime getSubmittedAt() { return submittedAt; }
     public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
 
+    public String getCodeHash() { return codeHash; }
+    public void setCodeHash(String codeHash) { this.codeHash = codeHash; }
+
+    public String getTestSetVersion() { return testSetVersion; }
+    public void setTestSetVersion(String testSetVersion) { this.testSetVersion = testSetVersion; }
+
+    public LocalDateTime getJudgeStartedAt() { return judgeStartedAt; }
+    public void setJudgeStartedAt(LocalDateTime judgeStartedAt) { this.judgeStartedAt = judgeStartedAt; }
+
+    public Integer getJudgeAttempts() { return judgeAttempts; }
+    public void setJudgeAttempts(Integer judgeAttempts) { this.judgeAttempts = judgeAttempts; }
+
     // Helper methods
     public boolean isAccepted() {
         return status == Status.ACCEPTED;
@@ -135,6 +195,15 @@ public class Submission {
         return !isAccepted() && !isPending();
     }
 
+    public static String hashOf(String code) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(code.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     public double getSuccessRate() {
         if (totalTestCases == 0) return 0.0;
         return (passedTestCases * 100.0) / totalTestCases;
@@ -4,6 +4,9 @@ import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -11,15 +14,21 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 
+import com.codeforge.codeforge.event.CatalogChangeListener;
+
 @Entity
 @Table(name = "test_cases")
+@EntityListeners(CatalogChangeListener.class)
 public class TestCase {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence ids (50 per round trip) so bulk inserts can be JDBC-batched; IDENTITY disables batching
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "test_cases_seq")
+    @SequenceGenerator(name = "test_cases_seq", sequenceName = "test_cases_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -27,14 +36,31 @@ public class TestCase {
     @JoinColumn(name = "problem_id", nullable = false)
     private Problem problem;
 
-    @NotNull
-    @Column(columnDefinition = "TEXT", nullable = false)
+    // Test data lives either inline in the TEXT columns or in the content-addressed test data store
+    @Enumerated(EnumType.STRING)
+    @Column(name = "data_storage", length = 10)
+    private Storage storage = Storage.INLINE;
+
+    // Only set for INLINE storage
+    @Column(columnDefinition = "TEXT")
     private String inputData;
 
-    @NotNull
-    @Column(columnDefinition = "TEXT", nullable = false)
+    @Column(columnDefinition = "TEXT")
     private String expectedOutput;
 
+    // Only set for BLOB storage: SHA-256 and size in bytes of the stored files
+    @Column(name = "input_hash", length = 64)
+    private String inputHash;
+
+    @Column(name = "input_size")
+    private Long inputSize;
+
+    @Column(name = "output_hash", length = 64)
+    private String outputHash;
+
+    @Column(name = "output_size")
+    private Long outputSize;
+
     @Column(name = "is_sample")
     private Boolean isSample = false;
 
@@ -56,7 +82,9 @@ public class TestCase {
         this.updatedAt = LocalDateTime.now();
     }
 
-    
+    public enum Storage {
+        INLINE, BLOB
+    }
 
     // Constructors
     public TestCase() {}
@@ -88,6 +116,21 @@ public class TestCase {
     public String getExpectedOutput() { return expectedOutput; }
     public void setExpectedOutput(String expectedOutput) { this.expectedOutput = expectedOutput; }
 
+    public Storage getStorage() { return storage; }
+    public void setStorage(Storage storage) { this.storage = storage; }
+
+    public String getInputHash() { return inputHash; }
+    public void setInputHash(String inputHash) { this.inputHash = inputHash; }
+
+    public Long getInputSize() { return inputSize; }
+    public void setInputSize(Long inputSize) { this.inputSize = inputSize; }
+
+    public String getOutputHash() { return outputHash; }
+    public void setOutputHash(String outputHash) { this.outputHash = outputHash; }
+
+    public Long getOutputSize() { return outputSize; }
+    public void setOutputSize(Long outputSize) { this.outputSize = outputSize; }
+
     public Boolean getIsSample() { return isSample; }
     public void setIsSample(Boolean isSample) { this.isSample = isSample; }
 
@@ -108,6 +151,10 @@ public class TestCase {
         return !isHidden || isSample;
     }
 
+    public boolean isStoredAsBlob() {
+        return storage == Storage.BLOB;
+    }
+
     public boolean requiresExactMatch() {
         // For most coding problems, output must match exactly
         return true;
@@ -0,0 +1,83 @@
+package com.codeforge.codeforge.model;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+// Materialized profile statistics, maintained by UserStatsService; one row per user with judged submissions
+@Entity
+@Table(name = "user_stats")
+public class UserStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "total_submissions", nullable = false)
+    private Integer totalSubmissions = 0;
+
+    @Column(name = "accepted_submissions", nullable = false)
+    private Integer acceptedSubmissions = 0;
+
+    @Column(name = "solved_easy", nullable = false)
+    private Integer solvedEasy = 0;
+
+    @Column(name = "solved_medium", nullable = false)
+    private Integer solvedMedium = 0;
+
+    @Column(name = "solved_hard", nullable = false)
+    private Integer solvedHard = 0;
+
+    // Judged submissions per language, e.g. {"JAVA": 12, "PYTHON": 3}
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "language_counts", columnDefinition = "jsonb", nullable = false)
+    private Map<String, Integer> languageCounts = new HashMap<>();
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Constructors
+    public UserStats() {}
+
+    public UserStats(Long userId) {
+        this.userId = userId;
+    }
+
+    // Helper methods
+    public int getSolvedTotal() {
+        return solvedEasy + solvedMedium + solvedHard;
+    }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Integer getTotalSubmissions() { return totalSubmissions; }
+    public void setTotalSubmissions(Integer totalSubmissions) { this.totalSubmissions = totalSubmissions; }
+
+    public Integer getAcceptedSubmissions() { return acceptedSubmissions; }
+    public void setAcceptedSubmissions(Integer acceptedSubmissions) { this.acceptedSubmissions = acceptedSubmissions; }
+
+    public Integer getSolvedEasy() { return solvedEasy; }
+    public void setSolvedEasy(Integer solvedEasy) { this.solvedEasy = solvedEasy; }
+
+    public Integer getSolvedMedium() { return solvedMedium; }
+    public void setSolvedMedium(Integer solvedMedium) { this.solvedMedium = solvedMedium; }
+
+    public Integer getSolvedHard() { return solvedHard; }
+    public void setSolvedHard(Integer solvedHard) { this.solvedHard = solvedHard; }
+
+    public Map<String, Integer> getLanguageCounts() { return languageCounts; }
+    public void setLanguageCounts(Map<String, Integer> languageCounts) { this.languageCounts = languageCounts; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,93 @@
+package com.codeforge.codeforge.recommend;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.repository.ProblemRepository;
+
+/**
+ * Immutable snapshot of the active problems, as bitmaps per difficulty and per category plus the
+ * few columns used for ranking. Rebuilt as a whole when the catalogue changes; readers never lock.
+ */
+final class ProblemCatalog {
+
+    record Entry(int id, String title, String slug, Problem.Difficulty difficulty, int[] categoryIds,
+                 double acceptanceRate) {
+    }
+
+    private final Map<Integer, Entry> entries;
+    private final RoaringBitmap active;
+    private final Map<Problem.Difficulty, RoaringBitmap> byDifficulty;
+    private final Map<Integer, RoaringBitmap> byCategory;
+
+    private ProblemCatalog(Map<Integer, Entry> entries, RoaringBitmap active,
+                           Map<Problem.Difficulty, RoaringBitmap> byDifficulty, Map<Integer, RoaringBitmap> byCategory) {
+        this.entries = entries;
+        this.active = active;
+        this.byDifficulty = byDifficulty;
+        this.byCategory = byCategory;
+    }
+
+    static ProblemCatalog empty() {
+        return new ProblemCatalog(Map.of(), new RoaringBitmap(), new EnumMap<>(Problem.Difficulty.class), Map.of());
+    }
+
+    static ProblemCatalog build(List<ProblemRepository.CatalogView> problems,
+                                List<ProblemRepository.CategoryLinkView> links) {
+        Map<Integer, RoaringBitmap> byCategory = new HashMap<>();
+        Map<Integer, RoaringBitmap> categoriesOfProblem = new HashMap<>();
+        for (ProblemRepository.CategoryLinkView link : links) {
+            int problemId = Math.toIntExact(link.getProblemId());
+            int categoryId = Math.toIntExact(link.getCategoryId());
+            byCategory.computeIfAbsent(categoryId, c -> new RoaringBitmap()).add(problemId);
+            categoriesOfProblem.computeIfAbsent(problemId, p -> new RoaringBitmap()).add(categoryId);
+        }
+
+        Map<Integer, Entry> entries = new HashMap<>();
+        RoaringBitmap active = new RoaringBitmap();
+        Map<Problem.Difficulty, RoaringBitmap> byDifficulty = new EnumMap<>(Problem.Difficulty.class);
+        for (ProblemRepository.CatalogView problem : problems) {
+            int id = Math.toIntExact(problem.getId());
+            RoaringBitmap categories = categoriesOfProblem.get(id);
+            entries.put(id, new Entry(id, problem.getTitle(), problem.getSlug(), problem.getDifficulty(),
+                    categories != null ? categories.toArray() : new int[0],
+                    problem.getAcceptanceRate() != null ? problem.getAcceptanceRate() : 0.0));
+            active.add(id);
+            byDifficulty.computeIfAbsent(problem.getDifficulty(), d -> new RoaringBitmap()).add(id);
+        }
+
+        for (RoaringBitmap bitmap : byCategory.values()) {
+            bitmap.runOptimize();
+        }
+        active.runOptimize();
+        return new ProblemCatalog(Collections.unmodifiableMap(entries), active, byDifficulty,
+                Collections.unmodifiableMap(byCategory));
+    }
+
+    Entry entry(int problemId) {
+        return entries.get(problemId);
+    }
+
+    RoaringBitmap active() {
+        return active;
+    }
+
+    RoaringBitmap difficulty(Problem.Difficulty difficulty) {
+        RoaringBitmap bitmap = byDifficulty.get(difficulty);
+        return bitmap != null ? bitmap : new RoaringBitmap();
+    }
+
+    Map<Integer, RoaringBitmap> categories() {
+        return byCategory;
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
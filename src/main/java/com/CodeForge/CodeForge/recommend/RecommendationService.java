@@ -0,0 +1,215 @@
+package com.codeforge.codeforge.recommend;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.codeforge.codeforge.event.CatalogChangedEvent;
+import com.codeforge.codeforge.event.SubmissionJudgedEvent;
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.model.UserProgress;
+import com.codeforge.codeforge.repository.ProblemRepository;
+import com.codeforge.codeforge.repository.SubmissionRepository;
+import com.codeforge.codeforge.repository.UserProgressRepository;
+
+/**
+ * Serves problem recommendations from memory. Each recently active user has solved and attempted
+ * bitmaps over problem ids. They are loaded once from submissions and user progress, then kept
+ * current from judged verdicts; requests only see them once the load has finished. Candidates are the active problems the user has not attempted.
+ * They are ranked by the user's category affinity, closeness to their difficulty level plus a
+ * half step, and acceptance rate.
+ */
+@Service
+public class RecommendationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationService.class);
+
+    private static final double CATEGORY_WEIGHT = 0.5;
+    private static final double DIFFICULTY_WEIGHT = 0.35;
+    private static final double QUALITY_WEIGHT = 0.15;
+
+    private final ProblemRepository problemRepository;
+    private final SubmissionRepository submissionRepository;
+    private final UserProgressRepository userProgressRepository;
+    private final long catalogMaxAgeMillis;
+
+    private final Map<Long, UserProblemSets> users;
+    private volatile ProblemCatalog catalog = ProblemCatalog.empty();
+    private volatile long catalogBuiltAt;
+    private volatile boolean catalogDirty = true;
+
+    public RecommendationService(ProblemRepository problemRepository,
+                                 SubmissionRepository submissionRepository,
+                                 UserProgressRepository userProgressRepository,
+                                 @Value("${codeforge.recommend.user-cache-size:10000}") int userCacheSize,
+                                 @Value("${codeforge.recommend.catalog-max-age-ms:600000}") long catalogMaxAgeMillis) {
+        this.problemRepository = problemRepository;
+        this.submissionRepository = submissionRepository;
+        this.userProgressRepository = userProgressRepository;
+        this.catalogMaxAgeMillis = catalogMaxAgeMillis;
+        this.users = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserProblemSets> eldest) {
+                return size() > userCacheSize;
+            }
+        };
+    }
+
+    public List<RecommendedProblem> recommend(Long userId, Problem.Difficulty difficulty, int limit) {
+        ProblemCatalog current = catalog;
+        UserProblemSets sets = setsOf(userId);
+        RoaringBitmap solved = sets.solvedSnapshot();
+        RoaringBitmap attempted = sets.attemptedSnapshot();
+        int solvedCount = solved.getCardinality();
+
+        // Share of the user's solved problems that fall in each category
+        Map<Integer, Double> categoryAffinity = new HashMap<>();
+        if (solvedCount > 0) {
+            for (Map.Entry<Integer, RoaringBitmap> category : current.categories().entrySet()) {
+                int inCategory = RoaringBitmap.andCardinality(solved, category.getValue());
+                if (inCategory > 0) {
+                    categoryAffinity.put(category.getKey(), inCategory / (double) solvedCount);
+                }
+            }
+        }
+
+        // Mean difficulty of solved problems (EASY = 0 .. HARD = 2), aiming half a level higher
+        double level = solvedCount == 0 ? 0 :
+                (RoaringBitmap.andCardinality(solved, current.difficulty(Problem.Difficulty.MEDIUM))
+                        + 2.0 * RoaringBitmap.andCardinality(solved, current.difficulty(Problem.Difficulty.HARD)))
+                        / solvedCount;
+        double targetLevel = Math.min(2.0, level + 0.5);
+
+        RoaringBitmap candidates = RoaringBitmap.andNot(current.active(), attempted);
+        if (difficulty != null) {
+            candidates.and(current.difficulty(difficulty));
+        }
+
+        PriorityQueue<RecommendedProblem> best = new PriorityQueue<>(Comparator.comparingDouble(RecommendedProblem::score));
+        IntIterator it = candidates.getIntIterator();
+        while (it.hasNext()) {
+            ProblemCatalog.Entry entry = current.entry(it.next());
+            double affinity = 0;
+            for (int categoryId : entry.categoryIds()) {
+                affinity = Math.max(affinity, categoryAffinity.getOrDefault(categoryId, 0.0));
+            }
+            double closeness = 1 - Math.abs(entry.difficulty().ordinal() - targetLevel) / 2;
+            double score = CATEGORY_WEIGHT * affinity + DIFFICULTY_WEIGHT * closeness
+                    + QUALITY_WEIGHT * entry.acceptanceRate() / 100;
+
+            if (best.size() < limit) {
+                best.add(toRecommendation(entry, score));
+            } else if (score > best.peek().score()) {
+                best.poll();
+                best.add(toRecommendation(entry, score));
+            }
+        }
+
+        List<RecommendedProblem> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(RecommendedProblem::score).reversed()
+                .thenComparing(RecommendedProblem::id));
+        return result;
+    }
+
+    @TransactionalEventListener
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        UserProblemSets sets;
+        synchronized (users) {
+            sets = users.get(event.userId());
+        }
+        // Users not in memory are loaded from the database on their next request
+        if (sets != null) {
+            sets.record(Math.toIntExact(event.problemId()), event.isAccepted());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.kind() == CatalogChangedEvent.Kind.PROBLEM || event.kind() == CatalogChangedEvent.Kind.CATEGORY) {
+            catalogDirty = true;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildCatalogOnStartup() {
+        rebuildCatalog();
+    }
+
+    // Picks up catalogue edits, and acceptance rates drifting with the statistics flush
+    @Scheduled(fixedDelayString = "${codeforge.recommend.catalog-check-interval-ms:30000}")
+    public void refreshCatalog() {
+        if (catalogDirty || System.currentTimeMillis() - catalogBuiltAt > catalogMaxAgeMillis) {
+            rebuildCatalog();
+        }
+    }
+
+    private void rebuildCatalog() {
+        catalogDirty = false;
+        try {
+            ProblemCatalog fresh = ProblemCatalog.build(problemRepository.findActiveCatalog(),
+                    problemRepository.findActiveCategoryLinks());
+            catalog = fresh;
+            catalogBuiltAt = System.currentTimeMillis();
+            log.debug("Recommendation catalogue rebuilt with {} problems", fresh.size());
+        } catch (RuntimeException e) {
+            catalogDirty = true;
+            log.warn("Could not rebuild the recommendation catalogue", e);
+        }
+    }
+
+    // Loaded sets of the user; concurrent requests for a user that is still loading wait for that load
+    private UserProblemSets setsOf(Long userId) {
+        UserProblemSets sets;
+        boolean loading = false;
+        synchronized (users) {
+            sets = users.get(userId);
+            if (sets == null) {
+                // Registered before loading, so verdicts that land during the load are not lost
+                sets = new UserProblemSets();
+                users.put(userId, sets);
+                loading = true;
+            }
+        }
+        if (!loading) {
+            sets.awaitLoaded();
+            return sets;
+        }
+
+        try {
+            for (SubmissionRepository.ProblemOutcomeView outcome : submissionRepository.findProblemOutcomesByUser(userId)) {
+                sets.record(Math.toIntExact(outcome.getProblemId()), outcome.getAccepted() == 1);
+            }
+            for (UserProgressRepository.ProblemStatusView progress : userProgressRepository.findProblemStatusesByUser(userId)) {
+                sets.record(Math.toIntExact(progress.getProblemId()), progress.getStatus() == UserProgress.Status.COMPLETED);
+            }
+        } catch (RuntimeException e) {
+            // Not cached half-loaded; the next request loads again
+            synchronized (users) {
+                users.remove(userId, sets);
+            }
+            sets.markFailed(e);
+            throw e;
+        }
+        sets.markLoaded();
+        return sets;
+    }
+
+    private static RecommendedProblem toRecommendation(ProblemCatalog.Entry entry, double score) {
+        return new RecommendedProblem((long) entry.id(), entry.title(), entry.slug(), entry.difficulty(), score);
+    }
+}
@@ -0,0 +1,6 @@
+package com.codeforge.codeforge.recommend;
+
+import com.codeforge.codeforge.model.Problem;
+
+public record RecommendedProblem(Long id, String title, String slug, Problem.Difficulty difficulty, double score) {
+}
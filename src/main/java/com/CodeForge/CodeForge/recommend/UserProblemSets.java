@@ -0,0 +1,48 @@
+package com.codeforge.codeforge.recommend;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.roaringbitmap.RoaringBitmap;
+
+// Problems a user has solved and attempted (solved is a subset of attempted)
+final class UserProblemSets {
+
+    private final RoaringBitmap solved = new RoaringBitmap();
+    private final RoaringBitmap attempted = new RoaringBitmap();
+    // Completed once the user's history is in; verdicts may be recorded before that
+    private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+
+    synchronized void record(int problemId, boolean accepted) {
+        attempted.add(problemId);
+        if (accepted) {
+            solved.add(problemId);
+        }
+    }
+
+    void markLoaded() {
+        loaded.complete(null);
+    }
+
+    void markFailed(RuntimeException e) {
+        loaded.completeExceptionally(e);
+    }
+
+    // Blocks until the history is loaded; rethrows the loader's exception if loading failed
+    void awaitLoaded() {
+        try {
+            loaded.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Copies, so scoring runs without holding the lock
+    synchronized RoaringBitmap solvedSnapshot() {
+        return solved.clone();
+    }
+
+    synchronized RoaringBitmap attemptedSnapshot() {
+        return attempted.clone();
+    }
+}
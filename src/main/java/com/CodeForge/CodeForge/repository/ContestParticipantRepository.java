@@ -3,7 +3,11 @@ package com.codeforge.codeforge.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.codeforge.codeforge.model.Contest;
@@ -20,4 +24,28 @@ public interface ContestParticipantRepository extends JpaRepository<ContestParti
     Optional<ContestParticipant> findByContestAndUser(Contest contest, User user);
 
     List<ContestParticipant> findByContestOrderByScoreDesc(Contest contest);
+
+    // Participants who joined after the given participant id, for incremental leaderboard loading
+    @Query("SELECT p.id AS id, p.user.id AS userId, p.user.username AS username " +
+           "FROM ContestParticipant p WHERE p.contest.id = :contestId AND p.id > :afterId ORDER BY p.id")
+    List<ParticipantView> findParticipantsAfter(@Param("contestId") Long contestId, @Param("afterId") Long afterId);
+
+    // Stored standings, used once a contest is no longer held in memory
+    @Query(value = "SELECT p.rank AS rank, p.user.id AS userId, p.user.username AS username, p.score AS score " +
+                   "FROM ContestParticipant p WHERE p.contest.id = :contestId ORDER BY p.score DESC, p.id",
+           countQuery = "SELECT COUNT(p) FROM ContestParticipant p WHERE p.contest.id = :contestId")
+    Page<StandingView> findStandings(@Param("contestId") Long contestId, Pageable pageable);
+
+    interface ParticipantView {
+        Long getId();
+        Long getUserId();
+        String getUsername();
+    }
+
+    interface StandingView {
+        Integer getRank();
+        Long getUserId();
+        String getUsername();
+        Integer getScore();
+    }
 }
@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.codeforge.codeforge.model.Contest;
@@ -18,4 +20,13 @@ public interface ContestProblemRepository extends JpaRepository<ContestProblem,
     Optional<ContestProblem> findByContestAndProblem(Contest contest, Problem problem);
 
     List<ContestProblem> findByProblem(Problem problem);
+
+    // Points per problem of a contest, without loading the problems
+    @Query("SELECT cp.problem.id AS problemId, cp.points AS points FROM ContestProblem cp WHERE cp.contest.id = :contestId")
+    List<PointsView> findPointsByContestId(@Param("contestId") Long contestId);
+
+    interface PointsView {
+        Long getProblemId();
+        Integer getPoints();
+    }
 }
@@ -1,11 +1,13 @@
 package com.codeforge.codeforge.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -50,7 +52,15 @@ public interface ProblemRepository extends JpaRepository<Problem, Long> {
     // Find problems with minimum submission count
     List<Problem> findBySubmissionCountGreaterThanEqual(Integer minSubmissions);
     
-    // Search problems by title
+    // Problem ids in id order, for paging through the catalogue
+    @Query("SELECT p.id FROM Problem p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Problems with their categories, for building in-memory indexes
+    @Query("SELECT DISTINCT p FROM Problem p LEFT JOIN FETCH p.categories WHERE p.id IN :ids")
+    List<Problem> findWithCategoriesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Search problems by title (LIKE '%q%' cannot use an index; user-facing search goes through ProblemSearchService)
     @Query("SELECT p FROM Problem p WHERE LOWER(p.title) LIKE LOWER(CONCAT('%', :query, '%')) AND p.status = 'ACTIVE'")
     List<Problem> searchByTitle(@Param("query") String query);
     
@@ -88,11 +98,28 @@ public interface ProblemRepository extends JpaRepository<Problem, Long> {
     @Query("SELECT COUNT(p) FROM Problem p WHERE p.submissionCount > 0")
     Long countProblemsWithSubmissions();
     
+    // Apply buffered counter deltas in one atomic statement and derive the acceptance rate from the new totals
+    @Modifying
+    @Query(value = "UPDATE problems SET " +
+                   "submission_count = COALESCE(submission_count, 0) + :submissions, " +
+                   "accepted_count = COALESCE(accepted_count, 0) + :accepted, " +
+                   "likes = COALESCE(likes, 0) + :likes, " +
+                   "dislikes = COALESCE(dislikes, 0) + :dislikes, " +
+                   "acceptance_rate = CASE WHEN COALESCE(submission_count, 0) + :submissions > 0 " +
+                   "THEN (COALESCE(accepted_count, 0) + :accepted) * 100.0 / (COALESCE(submission_count, 0) + :submissions) " +
+                   "ELSE acceptance_rate END " +
+                   "WHERE id = :id", nativeQuery = true)
+    int applyStatsDelta(@Param("id") Long id,
+                        @Param("submissions") long submissions,
+                        @Param("accepted") long accepted,
+                        @Param("likes") long likes,
+                        @Param("dislikes") long dislikes);
+    
     // Find trending problems (most submissions recently)
     @Query("SELECT p FROM Problem p WHERE p.status = 'ACTIVE' ORDER BY p.submissionCount DESC")
     List<Problem> findTrendingProblems(Pageable pageable);
     
-    // Find recommended problems for a user (based on difficulty)
+    // Find recommended problems for a user (based on difficulty; RecommendationService ranks from memory instead)
     @Query("SELECT p FROM Problem p WHERE p.difficulty = :difficulty AND p.status = 'ACTIVE' " +
            "AND p.id NOT IN (SELECT s.problem.id FROM Submission s WHERE s.user = :user) " +
            "ORDER BY p.acceptanceRate DESC")
@@ -100,6 +127,30 @@ public interface ProblemRepository extends JpaRepository<Problem, Long> {
                                         @Param("difficulty") Problem.Difficulty difficulty,
                                         Pageable pageable);
     
+    // Active problems with the columns the recommendation catalogue needs
+    @Query("SELECT p.id AS id, p.title AS title, p.slug AS slug, p.difficulty AS difficulty, " +
+           "p.acceptanceRate AS acceptanceRate, p.submissionCount AS submissionCount " +
+           "FROM Problem p WHERE p.status = 'ACTIVE'")
+    List<CatalogView> findActiveCatalog();
+    
+    // (problem id, category id) pairs of active problems
+    @Query("SELECT p.id AS problemId, c.id AS categoryId FROM Problem p JOIN p.categories c WHERE p.status = 'ACTIVE'")
+    List<CategoryLinkView> findActiveCategoryLinks();
+    
+    interface CatalogView {
+        Long getId();
+        String getTitle();
+        String getSlug();
+        Problem.Difficulty getDifficulty();
+        Double getAcceptanceRate();
+        Integer getSubmissionCount();
+    }
+    
+    interface CategoryLinkView {
+        Long getProblemId();
+        Long getCategoryId();
+    }
+    
     // Check if slug exists
     boolean existsBySlug(String slug);
     
@@ -1,20 +1,28 @@
 package com.codeforge.codeforge.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.codeforge.codeforge.export.SubmissionExportRow;
 import com.codeforge.codeforge.model.Problem;
 import com.codeforge.codeforge.model.Submission;
 import com.codeforge.codeforge.model.User;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     
@@ -34,9 +42,250 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     List<Submission> findByStatus(Submission.Status status);
     List<Submission> findByStatusIn(List<Submission.Status> statuses);
     
+    // Submission history, newest first, without code or error message. The *Before variants continue
+    // after a (submittedAt, id) cursor so deep pages seek through the index instead of skipping rows.
+    @Query(SUMMARY_SELECT + "WHERE s.user.id = :userId ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SummaryView> findHistoryByUser(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE s.user.id = :userId AND (s.submittedAt, s.id) < (:submittedAt, :id) " +
+           "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SummaryView> findHistoryByUserBefore(@Param("userId") Long userId,
+                                              @Param("submittedAt") LocalDateTime submittedAt,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE s.problem.id = :problemId ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SummaryView> findHistoryByProblem(@Param("problemId") Long problemId, Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE s.problem.id = :problemId AND (s.submittedAt, s.id) < (:submittedAt, :id) " +
+           "ORDER BY s.submittedAt DESC, s.id DESC")
+    List<SummaryView> findHistoryByProblemBefore(@Param("problemId") Long problemId,
+                                                 @Param("submittedAt") LocalDateTime submittedAt,
+                                                 @Param("id") Long id,
+                                                 Pageable pageable);
+    
+    String SUMMARY_SELECT = "SELECT s.id AS id, s.user.id AS userId, s.user.username AS username, " +
+            "s.problem.id AS problemId, s.problem.title AS problemTitle, s.language AS language, s.status AS status, " +
+            "s.executionTime AS executionTime, s.memoryUsed AS memoryUsed, s.passedTestCases AS passedTestCases, " +
+            "s.totalTestCases AS totalTestCases, s.submittedAt AS submittedAt FROM Submission s ";
+    
+    interface SummaryView {
+        Long getId();
+        Long getUserId();
+        String getUsername();
+        Long getProblemId();
+        String getProblemTitle();
+        Submission.Language getLanguage();
+        Submission.Status getStatus();
+        Integer getExecutionTime();
+        Integer getMemoryUsed();
+        Integer getPassedTestCases();
+        Integer getTotalTestCases();
+        LocalDateTime getSubmittedAt();
+    }
+    
     // Find pending submissions (for processing)
     List<Submission> findByStatus(Submission.Status status, Pageable pageable);
     
+    // Lock a batch of pending submissions; rows locked by other judge instances are skipped
+    @Query(value = "SELECT s.id FROM submissions s WHERE s.status = 'PENDING' " +
+                   "ORDER BY s.submitted_at, s.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockPendingIds(@Param("limit") int limit);
+    
+    // Move claimed submissions to RUNNING and count the claim (call in the same transaction as lockPendingIds)
+    @Modifying
+    @Query("UPDATE Submission s SET s.status = 'RUNNING', s.judgeStartedAt = :now, " +
+           "s.judgeAttempts = COALESCE(s.judgeAttempts, 0) + 1 WHERE s.id IN :ids")
+    int markRunning(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+    
+    // Put a claimed submission back in the queue (e.g. sandbox unavailable); only the current claim's holder can
+    @Modifying
+    @Query("UPDATE Submission s SET s.status = 'PENDING', s.judgeStartedAt = NULL " +
+           "WHERE s.id = :id AND s.status = 'RUNNING' AND s.judgeStartedAt = :claimedAt")
+    int requeue(@Param("id") Long id, @Param("claimedAt") LocalDateTime claimedAt);
+    
+    // Requeue claims whose judge instance died (or stopped renewing) before reporting a verdict
+    @Modifying
+    @Query("UPDATE Submission s SET s.status = 'PENDING', s.judgeStartedAt = NULL " +
+           "WHERE s.status = 'RUNNING' AND s.judgeStartedAt < :cutoff AND COALESCE(s.judgeAttempts, 0) < :maxAttempts")
+    int requeueStale(@Param("cutoff") LocalDateTime cutoff, @Param("maxAttempts") int maxAttempts);
+    
+    // Stale claims that used up their attempts, e.g. because judging them keeps taking the instance down
+    @Modifying
+    @Query("UPDATE Submission s SET s.status = 'JUDGE_ERROR', s.judgeStartedAt = NULL, s.errorMessage = :errorMessage " +
+           "WHERE s.status = 'RUNNING' AND s.judgeStartedAt < :cutoff AND COALESCE(s.judgeAttempts, 0) >= :maxAttempts")
+    int failStale(@Param("cutoff") LocalDateTime cutoff, @Param("maxAttempts") int maxAttempts,
+                  @Param("errorMessage") String errorMessage);
+    
+    // Record how many test cases have been judged so far and renew the claim; 0 if the claim was lost
+    @Modifying
+    @Query("UPDATE Submission s SET s.passedTestCases = :passed, s.totalTestCases = :total, s.judgeStartedAt = :renewedAt " +
+           "WHERE s.id = :id AND s.status = 'RUNNING' AND s.judgeStartedAt = :claimedAt")
+    int updateProgress(@Param("id") Long id, @Param("passed") Integer passed, @Param("total") Integer total,
+                       @Param("claimedAt") LocalDateTime claimedAt, @Param("renewedAt") LocalDateTime renewedAt);
+    
+    // Store the final verdict of a claimed submission
+    @Modifying
+    @Query("UPDATE Submission s SET s.status = :status, s.executionTime = :executionTime, s.memoryUsed = :memoryUsed, " +
+           "s.testResults = :testResults, " +
+           "s.passedTestCases = :passed, s.totalTestCases = :total, s.errorMessage = :errorMessage, " +
+           "s.codeHash = :codeHash, s.testSetVersion = :testSetVersion " +
+           "WHERE s.id = :id AND s.status = 'RUNNING' AND s.judgeStartedAt = :claimedAt")
+    int completeJudging(@Param("id") Long id,
+                        @Param("claimedAt") LocalDateTime claimedAt,
+                        @Param("status") Submission.Status status,
+                        @Param("executionTime") Integer executionTime,
+                        @Param("memoryUsed") Integer memoryUsed,
+                        @Param("testResults") List<Submission.TestResult> testResults,
+                        @Param("passed") Integer passed,
+                        @Param("total") Integer total,
+                        @Param("errorMessage") String errorMessage,
+                        @Param("codeHash") String codeHash,
+                        @Param("testSetVersion") String testSetVersion);
+    
+    // Latest verdict for the same source, language and test set (newest first)
+    @Query("SELECT s.status AS status, s.executionTime AS executionTime, s.memoryUsed AS memoryUsed, " +
+           "s.passedTestCases AS passedTestCases, s.totalTestCases AS totalTestCases, s.errorMessage AS errorMessage, " +
+           "s.testResults AS testResults " +
+           "FROM Submission s WHERE s.problem.id = :problemId AND s.codeHash = :codeHash AND s.language = :language " +
+           "AND s.testSetVersion = :testSetVersion AND s.status IN :statuses ORDER BY s.id DESC")
+    List<VerdictView> findPreviousVerdicts(@Param("problemId") Long problemId,
+                                           @Param("codeHash") String codeHash,
+                                           @Param("language") Submission.Language language,
+                                           @Param("testSetVersion") String testSetVersion,
+                                           @Param("statuses") List<Submission.Status> statuses,
+                                           Pageable pageable);
+    
+    // Verdict columns only, without the source
+    interface VerdictView {
+        Submission.Status getStatus();
+        Integer getExecutionTime();
+        Integer getMemoryUsed();
+        Integer getPassedTestCases();
+        Integer getTotalTestCases();
+        String getErrorMessage();
+        List<Submission.TestResult> getTestResults();
+    }
+    
+    // Current status of a submission, for clients that start following it
+    @Query("SELECT s.id AS submissionId, s.status AS status, s.passedTestCases AS passedTestCases, " +
+           "s.totalTestCases AS totalTestCases, s.executionTime AS executionTime, s.memoryUsed AS memoryUsed " +
+           "FROM Submission s WHERE s.id = :id")
+    Optional<StatusView> findStatusById(@Param("id") Long id);
+    
+    // Those of the given submissions that have their verdict; polled for submissions judged elsewhere
+    @Query("SELECT s.id AS submissionId, s.status AS status, s.passedTestCases AS passedTestCases, " +
+           "s.totalTestCases AS totalTestCases, s.executionTime AS executionTime, s.memoryUsed AS memoryUsed " +
+           "FROM Submission s WHERE s.id IN :ids AND s.status NOT IN ('PENDING', 'RUNNING')")
+    List<StatusView> findFinalStatusesByIds(@Param("ids") Collection<Long> ids);
+    
+    interface StatusView {
+        Long getSubmissionId();
+        Submission.Status getStatus();
+        Integer getPassedTestCases();
+        Integer getTotalTestCases();
+        Integer getExecutionTime();
+        Integer getMemoryUsed();
+    }
+    
+    // Load a submission with the associations the judge needs
+    @Query("SELECT s FROM Submission s JOIN FETCH s.problem JOIN FETCH s.user WHERE s.id = :id")
+    Optional<Submission> findForJudging(@Param("id") Long id);
+    
+    // First accepted submission per participant and problem inside a contest window
+    @Query("SELECT s.user.id AS userId, s.problem.id AS problemId, MIN(s.submittedAt) AS acceptedAt, " +
+           "MAX(s.id) AS submissionId " +
+           "FROM Submission s WHERE s.status = 'ACCEPTED' AND s.problem.id IN :problemIds " +
+           "AND s.submittedAt BETWEEN :from AND :to AND EXISTS (SELECT p.id FROM ContestParticipant p " +
+           "WHERE p.contest.id = :contestId AND p.user = s.user AND p.id > :afterParticipantId) " +
+           "GROUP BY s.user.id, s.problem.id")
+    List<FirstAcceptView> findFirstAcceptsInContest(@Param("contestId") Long contestId,
+                                                    @Param("afterParticipantId") Long afterParticipantId,
+                                                    @Param("problemIds") Collection<Long> problemIds,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+    
+    // Accepted submissions of contest participants with an id above the given one, in id order
+    @Query("SELECT s.user.id AS userId, s.problem.id AS problemId, s.submittedAt AS acceptedAt, s.id AS submissionId " +
+           "FROM Submission s WHERE s.status = 'ACCEPTED' AND s.id > :afterSubmissionId AND s.problem.id IN :problemIds " +
+           "AND s.submittedAt BETWEEN :from AND :to AND EXISTS (SELECT p.id FROM ContestParticipant p " +
+           "WHERE p.contest.id = :contestId AND p.user = s.user) ORDER BY s.id")
+    List<FirstAcceptView> findAcceptsInContestAfter(@Param("contestId") Long contestId,
+                                                    @Param("afterSubmissionId") Long afterSubmissionId,
+                                                    @Param("problemIds") Collection<Long> problemIds,
+                                                    @Param("from") LocalDateTime from,
+                                                    @Param("to") LocalDateTime to);
+    
+    // Lowest id among submissions to the given problems that are still waiting for a verdict
+    @Query("SELECT MIN(s.id) FROM Submission s WHERE s.status IN ('PENDING', 'RUNNING') AND s.problem.id IN :problemIds")
+    Long findLowestUnjudgedId(@Param("problemIds") Collection<Long> problemIds);
+    
+    interface FirstAcceptView {
+        Long getUserId();
+        Long getProblemId();
+        LocalDateTime getAcceptedAt();
+        // Latest accepted submission the row covers
+        Long getSubmissionId();
+    }
+    
+    // Problems a user has submitted to; accepted is 1 if any submission was accepted
+    @Query("SELECT s.problem.id AS problemId, " +
+           "MAX(CASE WHEN s.status = 'ACCEPTED' THEN 1 ELSE 0 END) AS accepted " +
+           "FROM Submission s WHERE s.user.id = :userId GROUP BY s.problem.id")
+    List<ProblemOutcomeView> findProblemOutcomesByUser(@Param("userId") Long userId);
+    
+    interface ProblemOutcomeView {
+        Long getProblemId();
+        Integer getAccepted();
+    }
+    
+    // Whether the user had another accepted submission for the problem besides the given one
+    @Query("SELECT COUNT(s) > 0 FROM Submission s WHERE s.user.id = :userId AND s.problem.id = :problemId " +
+           "AND s.status = 'ACCEPTED' AND s.id <> :excludedId")
+    boolean existsOtherAccepted(@Param("userId") Long userId, @Param("problemId") Long problemId,
+                                @Param("excludedId") Long excludedId);
+    
+    // Export streams: rows are read with a JDBC fetch size inside a read-only transaction, so memory
+    // stays constant however many rows match. The caller must close the stream. The WithoutCode variants
+    // leave the code column out of the select, so large sources are never read from the database.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "WHERE s.problem.id = :problemId ORDER BY s.id")
+    Stream<SubmissionExportRow> streamExportByProblem(@Param("problemId") Long problemId);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT_WITHOUT_CODE + "WHERE s.problem.id = :problemId ORDER BY s.id")
+    Stream<SubmissionExportRow> streamExportByProblemWithoutCode(@Param("problemId") Long problemId);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT + "WHERE s.submittedAt >= :from AND s.submittedAt < :to ORDER BY s.submittedAt, s.id")
+    Stream<SubmissionExportRow> streamExportBySubmittedAt(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(EXPORT_SELECT_WITHOUT_CODE + "WHERE s.submittedAt >= :from AND s.submittedAt < :to ORDER BY s.submittedAt, s.id")
+    Stream<SubmissionExportRow> streamExportBySubmittedAtWithoutCode(@Param("from") LocalDateTime from,
+                                                                     @Param("to") LocalDateTime to);
+    
+    String EXPORT_COLUMNS = "s.id, s.user.id, s.problem.id, s.language, s.status, s.executionTime, s.memoryUsed, " +
+            "s.passedTestCases, s.totalTestCases, s.submittedAt, s.codeHash";
+    
+    String EXPORT_SELECT = "SELECT new com.codeforge.codeforge.export.SubmissionExportRow(" + EXPORT_COLUMNS +
+            ", s.code) FROM Submission s ";
+    
+    String EXPORT_SELECT_WITHOUT_CODE = "SELECT new com.codeforge.codeforge.export.SubmissionExportRow(" +
+            EXPORT_COLUMNS + ") FROM Submission s ";
+    
     // Find submissions by language
     List<Submission> findByLanguage(Submission.Language language);
     
@@ -101,4 +350,10 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
     // Find submissions with long execution time (for analysis)
     @Query("SELECT s FROM Submission s WHERE s.executionTime > :threshold ORDER BY s.executionTime DESC")
     List<Submission> findSlowSubmissions(@Param("threshold") Integer threshold, Pageable pageable);
-}
\ No newline at end of file
+
+    // Languages a contest's participants have submitted in recently, to pre-warm their sandboxes
+    @Query("SELECT DISTINCT s.language FROM Submission s WHERE s.submittedAt >= :since AND s.user.id IN " +
+           "(SELECT cp.user.id FROM ContestParticipant cp WHERE cp.contest.id = :contestId)")
+    List<Submission.Language> findRecentLanguagesOfContestParticipants(@Param("contestId") Long contestId,
+                                                                       @Param("since") LocalDateTime since);
+}
@@ -1,7 +1,9 @@
 package com.codeforge.codeforge.repository;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -38,6 +40,31 @@ public interface TestCaseRepository extends JpaRepository<TestCase, Long> {
     @Query("SELECT tc FROM TestCase tc WHERE tc.problem = :problem")
     List<TestCase> findByProblemForEvaluation(@Param("problem") Problem problem);
     
+    // Next batch of test cases whose data is still stored in the TEXT columns
+    @Query("SELECT tc FROM TestCase tc WHERE (tc.storage IS NULL OR tc.storage = 'INLINE') AND tc.id > :afterId ORDER BY tc.id")
+    List<TestCase> findInlineAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Summary of a problem's test set, changes whenever a test case is added, removed or updated
+    @Query("SELECT COUNT(tc) AS count, MAX(tc.id) AS maxId, MAX(tc.updatedAt) AS lastUpdated " +
+           "FROM TestCase tc WHERE tc.problem.id = :problemId")
+    TestSetStats findTestSetStats(@Param("problemId") Long problemId);
+    
+    // Stored file hashes of the problems' BLOB test cases, for paging them in ahead of judging
+    @Query("SELECT tc.inputHash AS inputHash, tc.outputHash AS outputHash FROM TestCase tc " +
+           "WHERE tc.problem.id IN :problemIds AND tc.storage = 'BLOB'")
+    List<BlobHashes> findBlobHashesByProblemIdIn(@Param("problemIds") Collection<Long> problemIds);
+    
+    interface BlobHashes {
+        String getInputHash();
+        String getOutputHash();
+    }
+    
+    interface TestSetStats {
+        long getCount();
+        Long getMaxId();
+        java.time.LocalDateTime getLastUpdated();
+    }
+    
     // Count test cases for a problem
     long countByProblem(Problem problem);
     
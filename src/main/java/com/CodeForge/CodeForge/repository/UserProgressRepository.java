@@ -4,6 +4,8 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.codeforge.codeforge.model.Problem;
@@ -30,4 +32,14 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, Long
 
     // Check if a user solved a specific problem
     boolean existsByUserAndProblemAndStatus(User user, Problem problem, UserProgress.Status status);
+
+    // Started or completed problems of a user, without loading the entities
+    @Query("SELECT up.problem.id AS problemId, up.status AS status FROM UserProgress up " +
+           "WHERE up.user.id = :userId AND up.status <> 'NOT_STARTED'")
+    List<ProblemStatusView> findProblemStatusesByUser(@Param("userId") Long userId);
+
+    interface ProblemStatusView {
+        Long getProblemId();
+        UserProgress.Status getStatus();
+    }
 }
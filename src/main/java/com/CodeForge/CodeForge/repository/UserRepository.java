@@ -5,6 +5,8 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -50,7 +52,53 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByLastNameContainingIgnoreCase(String lastName);
     List<User> findByFirstNameAndLastName(String firstName, String lastName);
     
-    // Advanced search query
+    // Ranked fuzzy search backed by the pg_trgm GIN indexes of db/pg_trgm.sql; :query must be lower case,
+    // :pattern is the LIKE-escaped substring pattern of the same text
+    @Query(value = "SELECT u.id AS id, u.username AS username, u.email AS email, u.first_name AS firstName, " +
+                   "u.last_name AS lastName, u.role AS role, u.reputation AS reputation, u.avatar_url AS avatarUrl, " +
+                   "u.created_at AS createdAt, CAST(GREATEST(similarity(lower(u.username), :query), " +
+                   "similarity(lower(u.email), :query), similarity(lower(COALESCE(u.first_name, '')), :query), " +
+                   "similarity(lower(COALESCE(u.last_name, '')), :query)) AS double precision) AS score " +
+                   "FROM users u WHERE " + TRIGRAM_MATCH + " ORDER BY score DESC, u.id",
+           countQuery = "SELECT COUNT(*) FROM users u WHERE " + TRIGRAM_MATCH,
+           nativeQuery = true)
+    Page<UserSearchView> searchByTrigram(@Param("query") String query, @Param("pattern") String pattern, Pageable pageable);
+    
+    String TRIGRAM_MATCH = "(lower(u.username) % :query OR lower(u.email) % :query " +
+            "OR lower(u.first_name) % :query OR lower(u.last_name) % :query " +
+            "OR lower(u.username) LIKE :pattern OR lower(u.email) LIKE :pattern " +
+            "OR lower(u.first_name) LIKE :pattern OR lower(u.last_name) LIKE :pattern)";
+    
+    // Substring-only fallback for databases without pg_trgm; every match scores 0 and is listed by id
+    @Query(value = "SELECT u.id AS id, u.username AS username, u.email AS email, u.first_name AS firstName, " +
+                   "u.last_name AS lastName, u.role AS role, u.reputation AS reputation, u.avatar_url AS avatarUrl, " +
+                   "u.created_at AS createdAt, CAST(0 AS double precision) AS score " +
+                   "FROM users u WHERE " + LIKE_MATCH + " ORDER BY u.id",
+           countQuery = "SELECT COUNT(*) FROM users u WHERE " + LIKE_MATCH,
+           nativeQuery = true)
+    Page<UserSearchView> searchByLike(@Param("pattern") String pattern, Pageable pageable);
+    
+    String LIKE_MATCH = "(lower(u.username) LIKE :pattern OR lower(u.email) LIKE :pattern " +
+            "OR lower(u.first_name) LIKE :pattern OR lower(u.last_name) LIKE :pattern)";
+    
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", nativeQuery = true)
+    boolean isTrigramExtensionInstalled();
+    
+    // Search result row; never carries the password hash
+    interface UserSearchView {
+        Long getId();
+        String getUsername();
+        String getEmail();
+        String getFirstName();
+        String getLastName();
+        String getRole();
+        Integer getReputation();
+        String getAvatarUrl();
+        LocalDateTime getCreatedAt();
+        Double getScore();
+    }
+    
+    // Advanced search query (unbounded full scan; admin lookup uses searchByTrigram)
     @Query("SELECT u FROM User u WHERE " +
            "LOWER(u.username) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -70,6 +118,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT MAX(u.reputation) FROM User u")
     Integer findMaxReputation();
     
+    @Query("SELECT MAX(u.id) FROM User u")
+    Long findMaxId();
+    
     @Query("SELECT MIN(u.reputation) FROM User u")
     Integer findMinReputation();
     
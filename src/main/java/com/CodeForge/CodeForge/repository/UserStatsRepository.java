@@ -0,0 +1,65 @@
+package com.codeforge.codeforge.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.codeforge.codeforge.model.UserStats;
+
+@Repository
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    // Count one judged submission; creates the row on first use and locks it until the transaction ends
+    @Modifying
+    @Query(value = "INSERT INTO user_stats (user_id, total_submissions, accepted_submissions, solved_easy, solved_medium, " +
+                   "solved_hard, language_counts, updated_at) " +
+                   "VALUES (:userId, 1, :accepted, 0, 0, 0, jsonb_build_object(:language, 1), now()) " +
+                   "ON CONFLICT (user_id) DO UPDATE SET " +
+                   "total_submissions = user_stats.total_submissions + 1, " +
+                   "accepted_submissions = user_stats.accepted_submissions + EXCLUDED.accepted_submissions, " +
+                   "language_counts = user_stats.language_counts || jsonb_build_object(:language, " +
+                   "COALESCE(CAST(user_stats.language_counts ->> :language AS integer), 0) + 1), " +
+                   "updated_at = now()", nativeQuery = true)
+    int recordSubmission(@Param("userId") Long userId, @Param("accepted") int accepted, @Param("language") String language);
+
+    // Count a newly solved problem
+    @Modifying
+    @Query(value = "UPDATE user_stats SET " +
+                   "solved_easy = solved_easy + CASE WHEN :difficulty = 'EASY' THEN 1 ELSE 0 END, " +
+                   "solved_medium = solved_medium + CASE WHEN :difficulty = 'MEDIUM' THEN 1 ELSE 0 END, " +
+                   "solved_hard = solved_hard + CASE WHEN :difficulty = 'HARD' THEN 1 ELSE 0 END " +
+                   "WHERE user_id = :userId", nativeQuery = true)
+    int recordSolved(@Param("userId") Long userId, @Param("difficulty") String difficulty);
+
+    // Recompute the rows of users in [fromUserId, toUserId] from submissions
+    @Modifying
+    @Query(value = "WITH judged AS (" +
+                   "  SELECT user_id, problem_id, language, status FROM submissions " +
+                   "  WHERE user_id BETWEEN :fromUserId AND :toUserId AND status NOT IN ('PENDING', 'RUNNING')), " +
+                   "totals AS (" +
+                   "  SELECT user_id, COUNT(*) AS total, COUNT(*) FILTER (WHERE status = 'ACCEPTED') AS accepted " +
+                   "  FROM judged GROUP BY user_id), " +
+                   "solved AS (" +
+                   "  SELECT x.user_id, COUNT(*) FILTER (WHERE p.difficulty = 'EASY') AS easy, " +
+                   "  COUNT(*) FILTER (WHERE p.difficulty = 'MEDIUM') AS medium, " +
+                   "  COUNT(*) FILTER (WHERE p.difficulty = 'HARD') AS hard " +
+                   "  FROM (SELECT DISTINCT user_id, problem_id FROM judged WHERE status = 'ACCEPTED') x " +
+                   "  JOIN problems p ON p.id = x.problem_id GROUP BY x.user_id), " +
+                   "languages AS (" +
+                   "  SELECT user_id, jsonb_object_agg(language, n) AS counts " +
+                   "  FROM (SELECT user_id, language, COUNT(*) AS n FROM judged GROUP BY user_id, language) l " +
+                   "  GROUP BY user_id) " +
+                   "INSERT INTO user_stats (user_id, total_submissions, accepted_submissions, solved_easy, solved_medium, " +
+                   "solved_hard, language_counts, updated_at) " +
+                   "SELECT t.user_id, t.total, t.accepted, COALESCE(s.easy, 0), COALESCE(s.medium, 0), COALESCE(s.hard, 0), " +
+                   "COALESCE(l.counts, CAST('{}' AS jsonb)), now() " +
+                   "FROM totals t LEFT JOIN solved s ON s.user_id = t.user_id LEFT JOIN languages l ON l.user_id = t.user_id " +
+                   "ON CONFLICT (user_id) DO UPDATE SET " +
+                   "total_submissions = EXCLUDED.total_submissions, accepted_submissions = EXCLUDED.accepted_submissions, " +
+                   "solved_easy = EXCLUDED.solved_easy, solved_medium = EXCLUDED.solved_medium, " +
+                   "solved_hard = EXCLUDED.solved_hard, language_counts = EXCLUDED.language_counts, " +
+                   "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int rebuildRange(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
+}
@@ -0,0 +1,186 @@
+package com.codeforge.codeforge.sandbox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Content-addressed cache of compiled work dirs, stored as tar archives on local disk.
+ *
+ * Keys hash the language, the compiler version and the source, so byte-identical resubmissions skip compilation.
+ * Entries are evicted least-recently-used first once the total size exceeds the byte budget.
+ */
+@Component
+@ConditionalOnProperty(prefix = "codeforge.judge", name = "enabled", havingValue = "true")
+public class ArtifactCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ArtifactCache.class);
+    private static final String SUFFIX = ".tar";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public ArtifactCache(@Value("${codeforge.sandbox.artifact-cache.dir:${java.io.tmpdir}/codeforge/artifacts}") Path directory,
+                         @Value("${codeforge.sandbox.artifact-cache.max-bytes:2147483648}") long maxBytes,
+                         MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.hits = Counter.builder("codeforge.sandbox.artifact.cache")
+                .tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("codeforge.sandbox.artifact.cache")
+                .tag("result", "miss").register(meterRegistry);
+        Gauge.builder("codeforge.sandbox.artifact.cache.bytes", this, ArtifactCache::totalBytes)
+                .description("Bytes of compiled artifacts on disk")
+                .register(meterRegistry);
+    }
+
+    // Re-index archives left by a previous run, oldest first so they are evicted first
+    @PostConstruct
+    public void load() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> archives = files
+                    .filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                    .sorted(Comparator.comparing(ArtifactCache::lastModified))
+                    .toList();
+            synchronized (this) {
+                for (Path archive : archives) {
+                    String name = archive.getFileName().toString();
+                    long size = Files.size(archive);
+                    entries.put(name.substring(0, name.length() - SUFFIX.length()), size);
+                    totalBytes += size;
+                }
+                evict();
+            }
+        }
+    }
+
+    public static String key(LanguageProfile profile, String compilerVersion, String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(profile.name().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(compilerVersion.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(source.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Optional<Path> lookup(String key) {
+        Path archive = pathOf(key);
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            if (!Files.exists(archive)) {
+                totalBytes -= entries.remove(key);
+                misses.increment();
+                return Optional.empty();
+            }
+        }
+        hits.increment();
+        touch(archive);
+        return Optional.of(archive);
+    }
+
+    // Temp file in the cache directory, to be filled and then handed to put()
+    public Path newTempFile() {
+        try {
+            return Files.createTempFile(directory, "artifact-", ".part");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void put(String key, Path tempFile) {
+        try {
+            long size = Files.size(tempFile);
+            Files.move(tempFile, pathOf(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synchronized (this) {
+                Long previous = entries.put(key, size);
+                totalBytes += size - (previous != null ? previous : 0);
+                evict();
+            }
+        } catch (IOException e) {
+            log.warn("Could not store compiled artifact {}", key, e);
+            discard(tempFile);
+        }
+    }
+
+    public void discard(Path tempFile) {
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            log.debug("Could not delete {}", tempFile, e);
+        }
+    }
+
+    public synchronized long totalBytes() {
+        return totalBytes;
+    }
+
+    // Caller holds the lock; archives being read by a judge stay readable after unlink
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            eldest.remove();
+            totalBytes -= entry.getValue();
+            discard(pathOf(entry.getKey()));
+        }
+    }
+
+    private Path pathOf(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private static void touch(Path archive) {
+        try {
+            Files.setLastModifiedTime(archive, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Only affects eviction order after a restart
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
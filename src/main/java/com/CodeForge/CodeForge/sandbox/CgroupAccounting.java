@@ -0,0 +1,218 @@
+package com.codeforge.codeforge.sandbox;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads CPU time and peak memory of a test run from the sandbox container's cgroup v2 files on the host.
+ *
+ * A probe is started right before the input is handed to the program and finished once its output is in.
+ * Memory is how far memory.peak rose above memory.current at the start, so the compiled program, the work
+ * dir and the idle driver are left out; memory.peak is reset through the probe's own file descriptor where
+ * the kernel supports it (6.12+), otherwise it is the container's lifetime peak. Test input and output are
+ * piped, never staged in the container, so only the pipe helpers of a session (head, tee, wc; a few MB that
+ * do not grow with the test) run next to the program. The problem's memory limit is the program's rlimit
+ * (see {@link RunLimits}): a run is over it when an OOM kill shows up in memory.events, when its peak rose above
+ * the limit, or when it failed with its peak within a tenth of the limit, which is how a refused allocation
+ * ends. The last two need a per-run peak.
+ *
+ * CPU time is the usage_usec delta of cpu.stat when the run was a lone exec; session runs report the
+ * program's own CPU time instead (see {@link SandboxSession}). Without readable cgroup files the wall time
+ * stands in for CPU time and memory stays unknown.
+ */
+@Component
+@ConditionalOnProperty(prefix = "codeforge.judge", name = "enabled", havingValue = "true")
+public class CgroupAccounting {
+
+    private static final Logger log = LoggerFactory.getLogger(CgroupAccounting.class);
+
+    // A failed run whose peak came this close to the limit most likely had an allocation refused
+    private static final double ALLOCATION_FAILURE_SHARE = 0.9;
+
+    private final boolean enabled;
+    private final Path root;
+    private final List<String> layouts;
+    private volatile boolean peakResettable = true;
+    private volatile boolean warned;
+
+    public CgroupAccounting(@Value("${codeforge.sandbox.cgroup.enabled:true}") boolean enabled,
+                            @Value("${codeforge.sandbox.cgroup.root:/sys/fs/cgroup}") Path root,
+                            @Value("${codeforge.sandbox.cgroup.layouts:system.slice/docker-{id}.scope,docker/{id}}") List<String> layouts) {
+        this.enabled = enabled;
+        this.root = root;
+        this.layouts = layouts.stream().map(String::trim).toList();
+    }
+
+    public Probe start(SandboxContainer container) {
+        Path directory = directoryOf(container);
+        if (directory == null) {
+            return new Probe(null, null, 0, 0, 0);
+        }
+        FileChannel peak = null;
+        try {
+            long memoryStart = memoryCurrent(directory);
+            if (peakResettable) {
+                peak = resetPeak(directory);
+            }
+            return new Probe(directory, peak, cpuUsageMicros(directory), oomKills(directory), memoryStart);
+        } catch (IOException | NumberFormatException e) {
+            close(peak);
+            log.debug("Could not read cgroup of {}", container, e);
+            return new Probe(null, null, 0, 0, 0);
+        }
+    }
+
+    // Looked up once per container; containers are never moved between cgroups
+    private Path directoryOf(SandboxContainer container) {
+        if (!enabled) {
+            return null;
+        }
+        if (!container.isCgroupResolved()) {
+            Path directory = null;
+            for (String layout : layouts) {
+                Path candidate = root.resolve(layout.replace("{id}", container.getId()));
+                if (Files.isReadable(candidate.resolve("cpu.stat"))) {
+                    directory = candidate;
+                    break;
+                }
+            }
+            if (directory == null && !warned) {
+                warned = true;
+                log.warn("No cgroup v2 files for {} under {}; judging with wall-clock time and no memory readings",
+                        container, root);
+            }
+            container.setCgroupDirectory(directory);
+        }
+        return container.getCgroupDirectory();
+    }
+
+    private FileChannel resetPeak(Path directory) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(directory.resolve("memory.peak"), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            channel.write(ByteBuffer.wrap("reset\n".getBytes(StandardCharsets.US_ASCII)));
+            return channel;
+        } catch (IOException | UnsupportedOperationException e) {
+            close(channel);
+            peakResettable = false;
+            log.info("memory.peak cannot be reset on this kernel; memory readings are per container, not per test");
+            return null;
+        }
+    }
+
+    private static long memoryCurrent(Path directory) throws IOException {
+        return Long.parseLong(Files.readString(directory.resolve("memory.current"), StandardCharsets.US_ASCII).trim());
+    }
+
+    private static long cpuUsageMicros(Path directory) throws IOException {
+        return statValue(directory.resolve("cpu.stat"), "usage_usec");
+    }
+
+    private static long oomKills(Path directory) throws IOException {
+        return statValue(directory.resolve("memory.events"), "oom_kill");
+    }
+
+    // Value of a "key value" line in a flat-keyed cgroup file
+    private static long statValue(Path file, String key) throws IOException {
+        for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+            int space = line.indexOf(' ');
+            if (space == key.length() && line.startsWith(key)) {
+                return Long.parseLong(line.substring(space + 1).trim());
+            }
+        }
+        return 0;
+    }
+
+    private static void close(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Read-only use; nothing to flush
+            }
+        }
+    }
+
+    /** Counter readings taken before a run; close it once the run is over. */
+    public static final class Probe implements AutoCloseable {
+
+        private final Path directory;
+        private final FileChannel peak;
+        private final long cpuStartMicros;
+        private final long oomKillsStart;
+        private final long memoryStart;
+
+        private Probe(Path directory, FileChannel peak, long cpuStartMicros, long oomKillsStart, long memoryStart) {
+            this.directory = directory;
+            this.peak = peak;
+            this.cpuStartMicros = cpuStartMicros;
+            this.oomKillsStart = oomKillsStart;
+            this.memoryStart = memoryStart;
+        }
+
+        /**
+         * Completes a raw run with its CPU time and peak memory and decides the limit verdicts: memory as described
+         * on the class, CPU time above the limit (or hitting the wall-clock guard) a time-limit overrun.
+         */
+        public TestRun finish(TestRun run, RunLimits limits) {
+            return finish(run, -1, limits);
+        }
+
+        // Like finish(run, limits), with CPU time measured by the caller instead of read from cpu.stat
+        public TestRun finish(TestRun run, long measuredCpuMillis, RunLimits limits) {
+            long cpuMillis = measuredCpuMillis >= 0 ? measuredCpuMillis : run.wallMillis();
+            Integer memoryKb = null;
+            boolean oomKilled = false;
+            if (directory != null) {
+                try {
+                    if (measuredCpuMillis < 0) {
+                        cpuMillis = (cpuUsageMicros(directory) - cpuStartMicros) / 1000;
+                    }
+                    oomKilled = oomKills(directory) > oomKillsStart;
+                } catch (IOException | NumberFormatException e) {
+                    log.debug("Could not read cgroup counters from {}", directory, e);
+                }
+                try {
+                    memoryKb = (int) (Math.max(0, readPeak() - memoryStart) / 1024);
+                } catch (IOException | NumberFormatException e) {
+                    // memory.peak needs Linux 5.19
+                }
+            }
+            boolean overMemory = oomKilled;
+            if (memoryKb != null && peak != null) {
+                long limitKb = limits.dataLimitKb();
+                overMemory |= memoryKb > limitKb
+                        || (run.exitCode() != 0 && !run.timedOut() && memoryKb >= limitKb * ALLOCATION_FAILURE_SHARE);
+            }
+            boolean timedOut = !overMemory && (run.timedOut() || cpuMillis > limits.timeLimitMillis());
+            return new TestRun(run.exitCode(), run.wallMillis(), cpuMillis, memoryKb, run.outputBytes(),
+                    timedOut, overMemory, run.outputLimitExceeded(), run.stderr());
+        }
+
+        @Override
+        public void close() {
+            CgroupAccounting.close(peak);
+        }
+
+        private long readPeak() throws IOException {
+            if (peak == null) {
+                return Long.parseLong(Files.readString(directory.resolve("memory.peak"), StandardCharsets.US_ASCII).trim());
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(32);
+            peak.read(buffer, 0);
+            return Long.parseLong(new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII).trim());
+        }
+    }
+}
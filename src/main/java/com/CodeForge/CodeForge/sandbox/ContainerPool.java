@@ -0,0 +1,182 @@
+package com.codeforge.codeforge.sandbox;
+
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Per-language pool of pre-created, paused sandbox containers.
+ *
+ * acquire() unpauses an idle container (or creates one on a miss); release() kills leftover processes,
+ * wipes the work dirs and pauses the container again instead of destroying it, which keeps
+ * container start-up off the verdict path.
+ */
+@Component
+@ConditionalOnProperty(prefix = "codeforge.judge", name = "enabled", havingValue = "true")
+public class ContainerPool {
+
+    private static final Logger log = LoggerFactory.getLogger(ContainerPool.class);
+
+    private final DockerSandbox sandbox;
+    private final Map<LanguageProfile, Deque<SandboxContainer>> idle = new EnumMap<>(LanguageProfile.class);
+    private final Map<LanguageProfile, Counter> hits = new EnumMap<>(LanguageProfile.class);
+    private final Map<LanguageProfile, Counter> misses = new EnumMap<>(LanguageProfile.class);
+    private final Timer recycleTimer;
+    private final ExecutorService warmer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "sandbox-pool-warmer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<LanguageProfile> warmLanguages;
+    private final int warmSize;
+    private final int maxIdle;
+    private final int maxRunsPerContainer;
+
+    public ContainerPool(DockerSandbox sandbox,
+                         MeterRegistry meterRegistry,
+                         @Value("${codeforge.sandbox.pool.languages:JAVA,PYTHON,CPP}") List<String> warmLanguages,
+                         @Value("${codeforge.sandbox.pool.warm-size:2}") int warmSize,
+                         @Value("${codeforge.sandbox.pool.max-idle:8}") int maxIdle,
+                         @Value("${codeforge.sandbox.pool.max-runs-per-container:500}") int maxRunsPerContainer) {
+        this.sandbox = sandbox;
+        this.warmLanguages = warmLanguages.stream().map(String::trim).map(LanguageProfile::valueOf).toList();
+        this.warmSize = warmSize;
+        this.maxIdle = maxIdle;
+        this.maxRunsPerContainer = maxRunsPerContainer;
+
+        for (LanguageProfile profile : LanguageProfile.values()) {
+            Deque<SandboxContainer> queue = new ConcurrentLinkedDeque<>();
+            idle.put(profile, queue);
+            String language = profile.name();
+            Gauge.builder("codeforge.sandbox.pool.idle", queue, Deque::size)
+                    .description("Paused containers ready to be leased")
+                    .tag("language", language)
+                    .register(meterRegistry);
+            hits.put(profile, Counter.builder("codeforge.sandbox.pool.acquire")
+                    .tag("language", language).tag("result", "hit").register(meterRegistry));
+            misses.put(profile, Counter.builder("codeforge.sandbox.pool.acquire")
+                    .tag("language", language).tag("result", "miss").register(meterRegistry));
+        }
+        Gauge.builder("codeforge.sandbox.pool.hit.ratio", this, ContainerPool::hitRatio)
+                .description("Share of container leases served from the warm pool")
+                .register(meterRegistry);
+        this.recycleTimer = Timer.builder("codeforge.sandbox.pool.recycle")
+                .description("Time to clean and pause a container after a run")
+                .register(meterRegistry);
+    }
+
+    public SandboxContainer acquire(LanguageProfile profile) {
+        Deque<SandboxContainer> queue = idle.get(profile);
+        SandboxContainer container;
+        while ((container = queue.pollFirst()) != null) {
+            try {
+                sandbox.unpause(container);
+                hits.get(profile).increment();
+                container.markUsed();
+                return container;
+            } catch (SandboxException e) {
+                log.warn("Discarding broken pooled container {}", container, e);
+                sandbox.remove(container);
+            }
+        }
+
+        misses.get(profile).increment();
+        container = sandbox.create(profile);
+        container.markUsed();
+        return container;
+    }
+
+    public void release(SandboxContainer container) {
+        Deque<SandboxContainer> queue = idle.get(container.getProfile());
+        if (container.getRuns() >= maxRunsPerContainer || queue.size() >= maxIdle) {
+            sandbox.remove(container);
+            return;
+        }
+
+        long started = System.nanoTime();
+        try {
+            sandbox.recycle(container);
+            sandbox.pause(container);
+            queue.offerFirst(container);
+        } catch (SandboxException e) {
+            log.warn("Could not recycle {}, removing it", container, e);
+            sandbox.remove(container);
+        } finally {
+            recycleTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Top up the warm languages in the background so the first submissions after start-up hit the pool
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        warmer.execute(this::replenish);
+    }
+
+    @Scheduled(fixedDelayString = "${codeforge.sandbox.pool.replenish-interval-ms:10000}")
+    public void replenish() {
+        for (LanguageProfile profile : warmLanguages) {
+            ensureIdle(profile, warmSize);
+        }
+    }
+
+    // Make sure at least count paused containers exist for a language
+    public void ensureIdle(LanguageProfile profile, int count) {
+        Deque<SandboxContainer> queue = idle.get(profile);
+        int target = Math.min(count, maxIdle);
+        while (queue.size() < target) {
+            try {
+                SandboxContainer container = sandbox.create(profile);
+                sandbox.pause(container);
+                queue.offerLast(container);
+            } catch (SandboxException e) {
+                log.warn("Could not pre-warm {} sandbox: {}", profile, e.getMessage());
+                return;
+            }
+        }
+    }
+
+    public int idleCount(LanguageProfile profile) {
+        return idle.get(profile).size();
+    }
+
+    private double hitRatio() {
+        double hitCount = hits.values().stream().mapToDouble(Counter::count).sum();
+        double missCount = misses.values().stream().mapToDouble(Counter::count).sum();
+        double total = hitCount + missCount;
+        return total == 0 ? 0.0 : hitCount / total;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        warmer.shutdownNow();
+        Arrays.stream(LanguageProfile.values())
+                .map(idle::get)
+                .forEach(queue -> {
+                    SandboxContainer container;
+                    while ((container = queue.pollFirst()) != null) {
+                        sandbox.remove(container);
+                    }
+                });
+    }
+}
@@ -0,0 +1,478 @@
+package com.codeforge.codeforge.sandbox;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.command.CreateContainerResponse;
+import com.github.dockerjava.api.command.ExecCreateCmdResponse;
+import com.github.dockerjava.api.command.ExecStartCmd;
+import com.github.dockerjava.api.exception.DockerException;
+import com.github.dockerjava.api.model.Capability;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.HostConfig;
+import com.github.dockerjava.api.model.StreamType;
+
+/**
+ * Thin wrapper around the Docker API for sandbox containers.
+ * Containers have no network, no capabilities and run everything as nobody inside tmpfs work dirs.
+ */
+@Component
+@ConditionalOnProperty(prefix = "codeforge.judge", name = "enabled", havingValue = "true")
+public class DockerSandbox {
+
+    public static final String WORK_DIR = "/sandbox";
+    static final String SANDBOX_USER = "65534:65534";
+
+    private static final long EXEC_GRACE_MILLIS = 1000;
+    private static final int MAX_STDERR_BYTES = 64 * 1024;
+    // SIGKILLs every process except init, this exec's ancestors and its own process group (timeout starts a
+    // new group per exec), so earlier runs die but the exec itself finishes. Repeats until only zombies are left.
+    private static final String KILL_COMMAND = String.join("\n",
+            "keep=' 1 '",
+            "p=$$",
+            "while [ \"$p\" -gt 0 ]; do",
+            "  keep=\"$keep$p \"",
+            "  s=$(cat /proc/$p/stat) || break",
+            "  set -- ${s##*') '}",
+            "  p=$2",
+            "done",
+            "s=$(cat /proc/$$/stat)",
+            "set -- ${s##*') '}",
+            "group=$3",
+            "for round in 1 2 3 4 5; do",
+            "  found=",
+            "  for d in /proc/[0-9]*; do",
+            "    p=${d#/proc/}",
+            "    case \"$keep\" in *\" $p \"*) continue ;; esac",
+            "    s=$(cat \"$d/stat\" 2>/dev/null) || continue",
+            "    set -- ${s##*') '}",
+            "    [ \"$1\" = Z ] || [ \"$3\" = \"$group\" ] && continue",
+            "    found=1",
+            "    kill -9 \"$p\" 2>/dev/null",
+            "  done",
+            "  [ -z \"$found\" ] && exit 0",
+            "  sleep 0.05",
+            "done",
+            "echo 'processes survived SIGKILL' >&2",
+            "exit 1");
+
+    private final DockerClient docker;
+    private final Environment environment;
+    private final CgroupAccounting accounting;
+    private final long memoryBytes;
+    private final long memoryHeadroomBytes;
+    private final long nanoCpus;
+    private final long pidsLimit;
+    private final Map<LanguageProfile, String> compilerVersions = new ConcurrentHashMap<>();
+
+    public DockerSandbox(DockerClient docker,
+                         Environment environment,
+                         CgroupAccounting accounting,
+                         @Value("${codeforge.sandbox.memory-mb:512}") long memoryMb,
+                         @Value("${codeforge.sandbox.memory-headroom-mb:256}") long memoryHeadroomMb,
+                         @Value("${codeforge.sandbox.cpus:1.0}") double cpus,
+                         @Value("${codeforge.sandbox.pids-limit:64}") long pidsLimit) {
+        this.docker = docker;
+        this.environment = environment;
+        this.accounting = accounting;
+        this.memoryBytes = memoryMb * 1024 * 1024;
+        this.memoryHeadroomBytes = memoryHeadroomMb * 1024 * 1024;
+        this.nanoCpus = (long) (cpus * 1_000_000_000L);
+        this.pidsLimit = pidsLimit;
+    }
+
+    // Image for a language, overridable with codeforge.sandbox.image.<language>
+    public String imageFor(LanguageProfile profile) {
+        return environment.getProperty("codeforge.sandbox.image." + profile.name().toLowerCase(),
+                profile.getDefaultImage());
+    }
+
+    public SandboxContainer create(LanguageProfile profile) {
+        HostConfig hostConfig = HostConfig.newHostConfig()
+                .withNetworkMode("none")
+                .withMemory(memoryBytes + memoryHeadroomBytes)
+                .withMemorySwap(memoryBytes + memoryHeadroomBytes)
+                .withNanoCPUs(nanoCpus)
+                .withPidsLimit(pidsLimit)
+                .withCapDrop(Capability.ALL)
+                .withSecurityOpts(List.of("no-new-privileges"))
+                .withTmpFs(Map.of(
+                        WORK_DIR, "rw,exec,size=256m,mode=1777",
+                        "/tmp", "rw,exec,size=256m,mode=1777"));
+
+        try {
+            CreateContainerResponse response = docker.createContainerCmd(imageFor(profile))
+                    .withCmd("sleep", "infinity")
+                    .withUser(SANDBOX_USER)
+                    .withWorkingDir(WORK_DIR)
+                    .withEnv("HOME=/tmp", "GOCACHE=/tmp/go-cache", "DENO_DIR=/tmp/deno")
+                    .withNetworkDisabled(true)
+                    .withLabels(Map.of("codeforge.sandbox", profile.name()))
+                    .withHostConfig(hostConfig)
+                    .exec();
+            docker.startContainerCmd(response.getId()).exec();
+            SandboxContainer container = new SandboxContainer(response.getId(), profile);
+            container.setMemoryLimitBytes(memoryBytes + memoryHeadroomBytes);
+            return container;
+        } catch (DockerException e) {
+            throw new SandboxException("Could not create " + profile + " sandbox: " + e.getMessage(), e);
+        }
+    }
+
+    public void pause(SandboxContainer container) {
+        try {
+            docker.pauseContainerCmd(container.getId()).exec();
+        } catch (DockerException e) {
+            throw new SandboxException("Could not pause " + container, e);
+        }
+    }
+
+    public void unpause(SandboxContainer container) {
+        try {
+            docker.unpauseContainerCmd(container.getId()).exec();
+        } catch (DockerException e) {
+            throw new SandboxException("Could not unpause " + container, e);
+        }
+    }
+
+    public void remove(SandboxContainer container) {
+        try {
+            docker.removeContainerCmd(container.getId()).withForce(true).exec();
+        } catch (DockerException e) {
+            // Already gone; nothing left to clean up
+        }
+    }
+
+    // Kill every process of the previous run, wipe the work directories and restore the default memory limit
+    public void recycle(SandboxContainer container) {
+        clean(container, WORK_DIR, "/tmp");
+        // Nothing of the previous run is left, so lowering the limit cannot hit live memory
+        setMemoryLimit(container, memoryBytes + memoryHeadroomBytes);
+    }
+
+    /**
+     * Kills the processes left behind by earlier execs, then empties the given directories in a second exec,
+     * so nothing of the previous run can still write into them once this returns.
+     */
+    public void clean(SandboxContainer container, String... directories) {
+        ExecResult killed = exec(container, KILL_COMMAND, null, 5000, 0);
+        if (!killed.isSuccess()) {
+            throw new SandboxException("Could not stop the processes in " + container
+                    + " (exit code " + killed.exitCode() + "): " + killed.stderr());
+        }
+        StringBuilder wipe = new StringBuilder("rm -rf");
+        for (String directory : directories) {
+            wipe.append(' ').append(directory).append("/* ").append(directory).append("/.[!.]*");
+        }
+        ExecResult wiped = exec(container, wipe.toString(), null, 5000, 0);
+        if (!wiped.isSuccess()) {
+            throw new SandboxException("Could not wipe " + String.join(", ", directories) + " in " + container
+                    + " (exit code " + wiped.exitCode() + "): " + wiped.stderr());
+        }
+    }
+
+    /**
+     * Raises the container's memory limit so a program limited to programBytes (by its RLIMIT_DATA, see
+     * RunLimits) still leaves the headroom for the work dir, the driver and the runtime's file-backed pages.
+     * The limit is never lowered here, so it cannot drop below what the container already uses.
+     */
+    public void makeRoomFor(SandboxContainer container, long programBytes) {
+        long bytes = programBytes + memoryHeadroomBytes;
+        if (bytes > container.getMemoryLimitBytes()) {
+            setMemoryLimit(container, bytes);
+        }
+    }
+
+    // Sets the container's cgroup memory limit, without swap; a no-op when it is already in place
+    private void setMemoryLimit(SandboxContainer container, long bytes) {
+        if (container.getMemoryLimitBytes() == bytes) {
+            return;
+        }
+        try {
+            docker.updateContainerCmd(container.getId())
+                    .withMemory(bytes)
+                    .withMemorySwap(bytes)
+                    .exec();
+            container.setMemoryLimitBytes(bytes);
+        } catch (DockerException e) {
+            throw new SandboxException("Could not set memory limit of " + container + ": " + e.getMessage(), e);
+        }
+    }
+
+    public void writeFile(SandboxContainer container, String fileName, byte[] content) {
+        ExecResult result = exec(container, "cat > " + WORK_DIR + "/" + fileName, content, 5000, 0);
+        if (!result.isSuccess()) {
+            throw new SandboxException("Could not write " + fileName + " into " + container + ": " + result.stderr());
+        }
+    }
+
+    /**
+     * Runs a shell command in the container. The command is killed after timeoutMillis of wall time.
+     * Stdout beyond maxOutputBytes (0 = unlimited) is dropped and flagged.
+     */
+    public ExecResult exec(SandboxContainer container, String command, byte[] stdin,
+                           long timeoutMillis, int maxOutputBytes) {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        InputStream input = stdin != null ? new ByteArrayInputStream(stdin) : null;
+        ExecResult result = run(container, command, input, stdout, timeoutMillis, maxOutputBytes);
+        return new ExecResult(result.exitCode(), stdout.toByteArray(), result.stderr(),
+                result.wallMillis(), result.timedOut(), result.outputLimitExceeded());
+    }
+
+    // Like exec, but feeds stdin straight from a (possibly memory-mapped) buffer
+    public ExecResult execWithInput(SandboxContainer container, String command, ByteBuffer input,
+                                    long timeoutMillis, int maxOutputBytes) {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        ExecResult result = run(container, command, new ByteBufferInputStream(input.duplicate()), stdout,
+                timeoutMillis, maxOutputBytes);
+        return new ExecResult(result.exitCode(), stdout.toByteArray(), result.stderr(),
+                result.wallMillis(), result.timedOut(), result.outputLimitExceeded());
+    }
+
+    // Like execWithInput, but feeds the buffers one after another as a single stdin stream
+    public ExecResult execWithInputs(SandboxContainer container, String command, List<ByteBuffer> inputs,
+                                     long timeoutMillis, int maxOutputBytes) {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        InputStream input = new SequenceInputStream(Collections.enumeration(inputs.stream()
+                .<InputStream>map(buffer -> new ByteBufferInputStream(buffer.duplicate()))
+                .toList()));
+        ExecResult result = run(container, command, input, stdout, timeoutMillis, maxOutputBytes);
+        return new ExecResult(result.exitCode(), stdout.toByteArray(), result.stderr(),
+                result.wallMillis(), result.timedOut(), result.outputLimitExceeded());
+    }
+
+    /**
+     * Runs a compiled program once on one input under the given limits, like a single SandboxSession run:
+     * stdout is streamed into the sink and CPU time and memory are read from the container's cgroup. Input and
+     * output travel over the exec's own stdin and stdout, so nothing but the program runs during the test.
+     * Once the sink wants no more output the exec is detached, which breaks the program's stdout.
+     */
+    public TestRun runTest(SandboxContainer container, String runCommand, ByteBuffer input, OutputSink sink,
+                           RunLimits limits, int maxOutputBytes) {
+        long[] outputBytes = {0};
+        OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) {
+                sink.write(buffer, offset, length);
+                outputBytes[0] += length;
+            }
+        };
+        try (CgroupAccounting.Probe probe = accounting.start(container)) {
+            ExecResult exec = run(container, limits.limitedCommand(runCommand), new ByteBufferInputStream(input.duplicate()),
+                    output, limits.wallLimitMillis(), maxOutputBytes, sink::wantsMore);
+            if (!sink.wantsMore()) {
+                return probe.finish(TestRun.abandoned(exec.wallMillis(), outputBytes[0]), limits);
+            }
+            return probe.finish(TestRun.of(exec.exitCode(), exec.wallMillis(), outputBytes[0],
+                    exec.timedOut(), exec.outputLimitExceeded(), exec.stderr()), limits);
+        }
+    }
+
+    // Streams the work dir out of the container as a tar archive
+    public void exportWorkDir(SandboxContainer container, Path target) {
+        try (OutputStream out = Files.newOutputStream(target)) {
+            ExecResult result = run(container, "tar -C " + WORK_DIR + " -cf - .", null, out, 30_000, 0);
+            if (!result.isSuccess()) {
+                throw new SandboxException("Could not export work dir of " + container + ": " + result.stderr());
+            }
+        } catch (IOException e) {
+            throw new SandboxException("Could not write archive " + target, e);
+        }
+    }
+
+    // Unpacks a tar archive produced by exportWorkDir into the container's work dir
+    public void importWorkDir(SandboxContainer container, Path source) {
+        try (InputStream in = Files.newInputStream(source)) {
+            ExecResult result = run(container, "tar -C " + WORK_DIR + " -xf -", in, OutputStream.nullOutputStream(), 30_000, 0);
+            if (!result.isSuccess()) {
+                throw new SandboxException("Could not import work dir into " + container + ": " + result.stderr());
+            }
+        } catch (IOException e) {
+            throw new SandboxException("Could not read archive " + source, e);
+        }
+    }
+
+    // First line of the language's version command, resolved once per language and image
+    public String compilerVersion(SandboxContainer container) {
+        LanguageProfile profile = container.getProfile();
+        return compilerVersions.computeIfAbsent(profile, p -> {
+            ExecResult result = exec(container, p.getVersionCommand() + " 2>&1", null, 10_000, 0);
+            String output = result.stdoutAsString().strip();
+            int newline = output.indexOf('\n');
+            return imageFor(p) + " " + (newline >= 0 ? output.substring(0, newline) : output);
+        });
+    }
+
+    private ExecResult run(SandboxContainer container, String command, InputStream stdin, OutputStream stdout,
+                           long timeoutMillis, int maxOutputBytes) {
+        return run(container, command, stdin, stdout, timeoutMillis, maxOutputBytes, () -> true);
+    }
+
+    // keepReading is checked after every stdout frame; once false the exec is detached without waiting for it
+    private ExecResult run(SandboxContainer container, String command, InputStream stdin, OutputStream stdout,
+                           long timeoutMillis, int maxOutputBytes, BooleanSupplier keepReading) {
+        String limited = "timeout -s KILL " + (timeoutMillis / 1000.0) + "s sh -c " + shellQuote(command);
+        long started = System.nanoTime();
+        try {
+            ExecCreateCmdResponse exec = docker.execCreateCmd(container.getId())
+                    .withCmd("sh", "-c", limited)
+                    .withAttachStdin(stdin != null)
+                    .withAttachStdout(true)
+                    .withAttachStderr(true)
+                    .exec();
+
+            ExecStartCmd start = docker.execStartCmd(exec.getId());
+            if (stdin != null) {
+                start.withStdIn(stdin);
+            }
+
+            OutputCollector collector = start.exec(new OutputCollector(stdout, maxOutputBytes, keepReading));
+            boolean finished = collector.awaitCompletion(timeoutMillis + EXEC_GRACE_MILLIS, TimeUnit.MILLISECONDS);
+            collector.close();
+            long wallMillis = (System.nanoTime() - started) / 1_000_000;
+            if (collector.writeFailure != null) {
+                throw collector.writeFailure;
+            }
+
+            Long exitCode = docker.inspectExecCmd(exec.getId()).exec().getExitCodeLong();
+            boolean timedOut = !finished || (exitCode != null && exitCode == 137 && wallMillis >= timeoutMillis);
+            return new ExecResult(
+                    exitCode != null ? exitCode.intValue() : -1,
+                    new byte[0],
+                    collector.stderr.toString(StandardCharsets.UTF_8),
+                    wallMillis,
+                    timedOut,
+                    collector.outputLimitExceeded);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SandboxException("Interrupted while running command in " + container, e);
+        } catch (DockerException | IOException e) {
+            throw new SandboxException("Command failed in " + container + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Starts a driver that runs the given command once per test input over one attached stdin/stdout channel.
+     * The program must already be compiled in the work dir.
+     */
+    public SandboxSession openSession(SandboxContainer container, String runCommand,
+                                      RunLimits limits, long maxOutputBytes) {
+        try {
+            Pipe pipe = Pipe.open();
+            SandboxSession session = new SandboxSession(container, pipe.sink(), limits, accounting, maxOutputBytes);
+
+            ExecCreateCmdResponse exec = docker.execCreateCmd(container.getId())
+                    .withCmd("sh", "-c", SandboxSession.driverScript(runCommand, limits, maxOutputBytes))
+                    .withAttachStdin(true)
+                    .withAttachStdout(true)
+                    .withAttachStderr(true)
+                    .exec();
+            docker.execStartCmd(exec.getId())
+                    .withStdIn(Channels.newInputStream(pipe.source()))
+                    .exec(session.callback());
+            return session;
+        } catch (DockerException | IOException e) {
+            throw new SandboxException("Could not open session in " + container + ": " + e.getMessage(), e);
+        }
+    }
+
+    public static String shellQuote(String value) {
+        return "'" + value.replace("'", "'\\''") + "'";
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+    }
+
+    // Collects multiplexed stdout/stderr frames of an exec
+    private static class OutputCollector extends ResultCallback.Adapter<Frame> {
+
+        private final OutputStream stdout;
+        private final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        private final int maxOutputBytes;
+        private final BooleanSupplier keepReading;
+        private long stdoutBytes;
+        private boolean outputLimitExceeded;
+        private IOException writeFailure;
+
+        OutputCollector(OutputStream stdout, int maxOutputBytes, BooleanSupplier keepReading) {
+            this.stdout = stdout;
+            this.maxOutputBytes = maxOutputBytes;
+            this.keepReading = keepReading;
+        }
+
+        @Override
+        public void onNext(Frame frame) {
+            byte[] payload = frame.getPayload();
+            if (frame.getStreamType() == StreamType.STDERR) {
+                if (stderr.size() < MAX_STDERR_BYTES) {
+                    stderr.write(payload, 0, Math.min(payload.length, MAX_STDERR_BYTES - stderr.size()));
+                }
+            } else if (maxOutputBytes > 0 && stdoutBytes + payload.length > maxOutputBytes) {
+                outputLimitExceeded = true;
+            } else if (writeFailure == null) {
+                try {
+                    stdout.write(payload, 0, payload.length);
+                    stdoutBytes += payload.length;
+                } catch (IOException e) {
+                    writeFailure = e;
+                }
+                if (!keepReading.getAsBoolean()) {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        // Detaching anyway
+                    }
+                }
+            }
+        }
+    }
+}
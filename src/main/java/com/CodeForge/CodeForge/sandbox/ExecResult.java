@@ -0,0 +1,21 @@
+package com.codeforge.codeforge.sandbox;
+
+import java.nio.charset.StandardCharsets;
+
+// Result of a single command executed inside a sandbox container
+public record ExecResult(
+        int exitCode,
+        byte[] stdout,
+        String stderr,
+        long wallMillis,
+        boolean timedOut,
+        boolean outputLimitExceeded) {
+
+    public String stdoutAsString() {
+        return new String(stdout, StandardCharsets.UTF_8);
+    }
+
+    public boolean isSuccess() {
+        return exitCode == 0 && !timedOut && !outputLimitExceeded;
+    }
+}
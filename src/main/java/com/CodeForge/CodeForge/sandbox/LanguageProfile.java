@@ -0,0 +1,61 @@
+package com.codeforge.codeforge.sandbox;
+
+import com.codeforge.codeforge.model.Submission;
+
+// How each submission language is compiled and run inside its sandbox image
+public enum LanguageProfile {
+
+    JAVA("eclipse-temurin:21-jdk", "Main.java",
+            "javac -J-Xss64m Main.java", "java -Xss64m -cp . Main", "javac -version"),
+    PYTHON("python:3.12-slim", "main.py",
+            null, "python3 main.py", "python3 --version"),
+    JAVASCRIPT("node:20-slim", "main.js",
+            null, "node main.js", "node --version"),
+    CPP("gcc:13", "main.cpp",
+            "g++ -O2 -std=c++17 -o main main.cpp", "./main", "g++ --version"),
+    C("gcc:13", "main.c",
+            "gcc -O2 -std=c17 -o main main.c -lm", "./main", "gcc --version"),
+    CSHARP("mono:6.12", "Program.cs",
+            "mcs -optimize+ -out:main.exe Program.cs", "mono main.exe", "mcs --version"),
+    RUBY("ruby:3.3-slim", "main.rb",
+            null, "ruby main.rb", "ruby --version"),
+    GO("golang:1.22", "main.go",
+            "go build -o main main.go", "./main", "go version"),
+    RUST("rust:1.79-slim", "main.rs",
+            "rustc -O -o main main.rs", "./main", "rustc --version"),
+    SWIFT("swift:5.10", "main.swift",
+            "swiftc -O -o main main.swift", "./main", "swiftc --version"),
+    KOTLIN("zenika/kotlin:1.9", "Main.kt",
+            "kotlinc Main.kt -include-runtime -d main.jar", "java -jar main.jar", "kotlinc -version"),
+    TYPESCRIPT("denoland/deno:1.44.4", "main.ts",
+            null, "deno run --quiet main.ts", "deno --version");
+
+    private final String defaultImage;
+    private final String sourceFile;
+    private final String compileCommand;
+    private final String runCommand;
+    private final String versionCommand;
+
+    LanguageProfile(String defaultImage, String sourceFile, String compileCommand,
+                    String runCommand, String versionCommand) {
+        this.defaultImage = defaultImage;
+        this.sourceFile = sourceFile;
+        this.compileCommand = compileCommand;
+        this.runCommand = runCommand;
+        this.versionCommand = versionCommand;
+    }
+
+    public static LanguageProfile of(Submission.Language language) {
+        return valueOf(language.name());
+    }
+
+    public String getDefaultImage() { return defaultImage; }
+    public String getSourceFile() { return sourceFile; }
+    public String getCompileCommand() { return compileCommand; }
+    public String getRunCommand() { return runCommand; }
+    public String getVersionCommand() { return versionCommand; }
+
+    public boolean isCompiled() {
+        return compileCommand != null;
+    }
+}
@@ -0,0 +1,12 @@
+package com.codeforge.codeforge.sandbox;
+
+// Receives a program's stdout incrementally as it streams out of the sandbox
+public interface OutputSink {
+
+    void write(byte[] buffer, int offset, int length);
+
+    // False once the rest of the output cannot change the outcome; the run is then stopped early
+    default boolean wantsMore() {
+        return true;
+    }
+}
@@ -0,0 +1,31 @@
+package com.codeforge.codeforge.sandbox;
+
+/**
+ * Limits for one program run. The time limit is the program's CPU time (see CgroupAccounting); the wall limit
+ * only guards against programs that sleep or block, and is wide enough that a loaded judge box does not
+ * turn into time-limit verdicts. The memory limit is the program's RLIMIT_DATA, which covers heap and other
+ * private writable mappings but not address space merely reserved (JVM and Go heaps reserve far more than they
+ * use). A program that hits it fails to allocate and usually crashes; CgroupAccounting turns such crashes close
+ * to the limit, and peak memory above it, into memory-limit verdicts.
+ */
+public record RunLimits(long timeLimitMillis, long wallLimitMillis, long memoryLimitBytes) {
+
+    public static RunLimits of(long timeLimitMillis, double wallTimeFactor, long memoryLimitBytes) {
+        return new RunLimits(timeLimitMillis, Math.max(timeLimitMillis, (long) (timeLimitMillis * wallTimeFactor)),
+                memoryLimitBytes);
+    }
+
+    // RLIMIT_CPU in whole seconds, one above the limit so the verdict comes from the cgroup reading
+    public long cpuLimitSeconds() {
+        return (timeLimitMillis + 999) / 1000 + 1;
+    }
+
+    // RLIMIT_DATA in KiB, as ulimit -d takes it
+    public long dataLimitKb() {
+        return memoryLimitBytes / 1024;
+    }
+
+    public String limitedCommand(String runCommand) {
+        return "ulimit -t " + cpuLimitSeconds() + "; ulimit -d " + dataLimitKb() + "; " + runCommand;
+    }
+}
@@ -0,0 +1,47 @@
+package com.codeforge.codeforge.sandbox;
+
+import java.nio.file.Path;
+
+// A pooled container that is currently leased to one judge worker
+public class SandboxContainer {
+
+    private final String id;
+    private final LanguageProfile profile;
+    private final long createdAtMillis = System.currentTimeMillis();
+    private int runs;
+    private long memoryLimitBytes;
+    private boolean cgroupResolved;
+    private Path cgroupDirectory;
+
+    public SandboxContainer(String id, LanguageProfile profile) {
+        this.id = id;
+        this.profile = profile;
+    }
+
+    public String getId() { return id; }
+    public LanguageProfile getProfile() { return profile; }
+    public long getCreatedAtMillis() { return createdAtMillis; }
+    public int getRuns() { return runs; }
+    public long getMemoryLimitBytes() { return memoryLimitBytes; }
+
+    void markUsed() { runs++; }
+    void setMemoryLimitBytes(long memoryLimitBytes) { this.memoryLimitBytes = memoryLimitBytes; }
+
+    // Host path of the container's cgroup v2 directory, null if it could not be found
+    boolean isCgroupResolved() { return cgroupResolved; }
+    Path getCgroupDirectory() { return cgroupDirectory; }
+
+    void setCgroupDirectory(Path cgroupDirectory) {
+        this.cgroupDirectory = cgroupDirectory;
+        this.cgroupResolved = true;
+    }
+
+    @Override
+    public String toString() {
+        return "SandboxContainer{" +
+                "id='" + id.substring(0, Math.min(12, id.length())) + '\'' +
+                ", profile=" + profile +
+                ", runs=" + runs +
+                '}';
+    }
+}
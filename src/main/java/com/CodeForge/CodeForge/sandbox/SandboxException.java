@@ -0,0 +1,13 @@
+package com.codeforge.codeforge.sandbox;
+
+// Infrastructure failure in the sandbox (Docker unavailable, container died, ...), never a user error
+public class SandboxException extends RuntimeException {
+
+    public SandboxException(String message) {
+        super(message);
+    }
+
+    public SandboxException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,271 @@
+package com.codeforge.codeforge.sandbox;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.github.dockerjava.api.async.ResultCallback;
+import com.github.dockerjava.api.model.Frame;
+import com.github.dockerjava.api.model.StreamType;
+
+/**
+ * A long-lived driver process inside a sandbox container that runs a compiled program once per test input.
+ *
+ * A request on the driver exec's stdin is "&lt;inputLength&gt;\n" followed by the input bytes, which are piped
+ * straight into the program. The program's stdout is passed through to the exec's stdout as it is written,
+ * and once it exits the driver reports "&lt;outputLength&gt; &lt;stderrLength&gt; &lt;exitCode&gt; &lt;wallMillis&gt;
+ * &lt;userTime&gt; &lt;systemTime&gt;\n" and the head of its stderr on the exec's stderr. Output is handed to an
+ * {@link OutputSink} chunk by chunk as frames arrive, so neither the JVM nor the container holds a full test
+ * input or output. CPU time is the program's own (the times builtin of the subshell that waited for it); peak
+ * memory comes from the container's cgroup (see {@link CgroupAccounting}).
+ */
+public class SandboxSession implements Closeable {
+
+    static final int MAX_STDERR_BYTES = 4096;
+
+    private static final Object END_OF_STREAM = new Object();
+    private static final Object ABANDONED = new Object();
+    private static final long GUARD_MILLIS = 2000;
+
+    private final SandboxContainer container;
+    private final Pipe.SinkChannel stdin;
+    private final Parser parser;
+    private final RunLimits limits;
+    private final CgroupAccounting accounting;
+    private final BlockingQueue<Object> results = new LinkedBlockingQueue<>();
+    private boolean broken;
+
+    SandboxSession(SandboxContainer container, Pipe.SinkChannel stdin, RunLimits limits,
+                   CgroupAccounting accounting, long maxOutputBytes) {
+        this.container = container;
+        this.stdin = stdin;
+        this.limits = limits;
+        this.accounting = accounting;
+        this.parser = new Parser(maxOutputBytes);
+    }
+
+    /**
+     * Driver loop run by sh inside the container. fd 3 and 4 are the exec's stdout and stderr; everything else the
+     * driver prints goes to /dev/null. Input the program leaves unread is drained so the next request stays in
+     * sync, stdout is cut one byte past the output limit and stderr is read through a FIFO so only its head is
+     * kept. The CPU rlimit is set per run, LIMIT is the wall-clock guard.
+     */
+    static String driverScript(String runCommand, RunLimits limits, long maxOutputBytes) {
+        return "RUN=" + DockerSandbox.shellQuote(limits.limitedCommand(runCommand)) + "\n" +
+                "LIMIT=" + (limits.wallLimitMillis() / 1000.0) + "s\n" +
+                "exec 3>&1 4>&2 2>/dev/null\n" +
+                "rm -f /tmp/err.pipe\n" +
+                "mkfifo /tmp/err.pipe || exit 1\n" +
+                "while IFS= read -r n; do\n" +
+                "  { head -c " + MAX_STDERR_BYTES + "; cat > /dev/null; } < /tmp/err.pipe > /tmp/err.head &\n" +
+                "  start=$(date +%s%N)\n" +
+                "  head -c \"$n\" | { ( timeout -s KILL \"$LIMIT\" sh -c \"$RUN\" 2> /tmp/err.pipe 3>&- 4>&-; " +
+                "echo \"$?\" > /tmp/code; times > /tmp/times ); cat > /dev/null; } " +
+                "| head -c " + (maxOutputBytes + 1) + " | tee -a /dev/fd/3 | wc -c > /tmp/count\n" +
+                "  end=$(date +%s%N)\n" +
+                "  wait\n" +
+                "  read -r code < /tmp/code\n" +
+                "  read -r count < /tmp/count\n" +
+                "  { read -r shell; read -r cpu; } < /tmp/times\n" +
+                "  printf '%s %s %s %s %s\\n' \"$count\" \"$(wc -c < /tmp/err.head)\" \"$code\" " +
+                "\"$(( (end - start) / 1000000 ))\" \"$cpu\" >&4\n" +
+                "  cat /tmp/err.head >&4\n" +
+                "done\n";
+    }
+
+    ResultCallback.Adapter<Frame> callback() {
+        return parser;
+    }
+
+    public SandboxContainer getContainer() {
+        return container;
+    }
+
+    /**
+     * Feeds one input to the program and blocks until its output has been streamed into the sink.
+     * A driver that dies once the input is on its way yields a driverLost run (the program may have killed it);
+     * a broken session (driver died, guard timeout) refuses further input with a crashed run. Once the
+     * sink wants no more output the run is abandoned: the session stops reading, which breaks the driver's
+     * stdout and with it the program's, and the session is not used again.
+     */
+    public TestRun run(ByteBuffer input, OutputSink sink) {
+        if (broken) {
+            return TestRun.crashed("Sandbox session is no longer usable");
+        }
+        parser.expect(sink);
+        long started = System.nanoTime();
+        try (CgroupAccounting.Probe probe = accounting.start(container)) {
+            writeFully(ByteBuffer.wrap((input.remaining() + "\n").getBytes(StandardCharsets.US_ASCII)));
+            writeFully(input.duplicate());
+
+            Object result = results.poll(limits.wallLimitMillis() + GUARD_MILLIS, TimeUnit.MILLISECONDS);
+            if (result == null) {
+                broken = true;
+                return probe.finish(TestRun.of(137, limits.wallLimitMillis(), 0, true, false, null), limits);
+            }
+            if (result == END_OF_STREAM) {
+                broken = true;
+                return TestRun.driverLost((System.nanoTime() - started) / 1_000_000);
+            }
+            if (result == ABANDONED) {
+                broken = true;
+                return probe.finish(TestRun.abandoned((System.nanoTime() - started) / 1_000_000,
+                        parser.outputReceived), limits);
+            }
+            TestRun run = (TestRun) result;
+            return probe.finish(run, run.cpuMillis(), limits);
+        } catch (IOException e) {
+            broken = true;
+            return TestRun.crashed("Could not write input: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SandboxException("Interrupted while waiting for " + container, e);
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            stdin.write(buffer);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            stdin.close();
+        } catch (IOException e) {
+            // Driver is gone already
+        }
+        try {
+            parser.close();
+        } catch (IOException e) {
+            // Nothing to release
+        }
+    }
+
+    // Incremental decoder for the driver's output (stdout) and end-of-run reports (stderr)
+    private class Parser extends ResultCallback.Adapter<Frame> {
+
+        private final long maxOutputBytes;
+        private final byte[] header = new byte[128];
+        private final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        private int headerLength;
+        private volatile OutputSink sink;
+
+        private volatile long outputReceived;
+        private boolean abandoned;
+        private boolean inHeader = true;
+        private long outputLength;
+        private long stderrRemaining;
+        private int exitCode;
+        private long wallMillis;
+        private long cpuMillis;
+
+        Parser(long maxOutputBytes) {
+            this.maxOutputBytes = maxOutputBytes;
+        }
+
+        void expect(OutputSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void onNext(Frame frame) {
+            if (abandoned) {
+                return;
+            }
+            byte[] payload = frame.getPayload();
+            if (frame.getStreamType() != StreamType.STDERR) {
+                // Output past the limit is still counted, but nobody reads it
+                int length = (int) Math.max(0, Math.min(payload.length, maxOutputBytes - outputReceived));
+                if (length > 0) {
+                    sink.write(payload, 0, length);
+                }
+                outputReceived += payload.length;
+                if (!sink.wantsMore()) {
+                    abandon();
+                    return;
+                }
+                finishIfComplete();
+                return;
+            }
+            int position = 0;
+            while (position < payload.length) {
+                if (inHeader) {
+                    byte b = payload[position++];
+                    if (b == '\n') {
+                        parseHeader();
+                    } else if (headerLength < header.length) {
+                        header[headerLength++] = b;
+                    }
+                } else {
+                    int length = (int) Math.min(stderrRemaining, payload.length - position);
+                    stderr.write(payload, position, length);
+                    stderrRemaining -= length;
+                    position += length;
+                    finishIfComplete();
+                }
+            }
+        }
+
+        private void parseHeader() {
+            String[] fields = new String(header, 0, headerLength, StandardCharsets.US_ASCII).trim().split("\\s+");
+            headerLength = 0;
+            outputLength = Long.parseLong(fields[0]);
+            stderrRemaining = Long.parseLong(fields[1]);
+            exitCode = Integer.parseInt(fields[2]);
+            wallMillis = Long.parseLong(fields[3]);
+            cpuMillis = shellTimeMillis(fields[4]) + shellTimeMillis(fields[5]);
+            inHeader = false;
+            finishIfComplete();
+        }
+
+        // The report can overtake the last stdout frames; a run is complete once both are in
+        private void finishIfComplete() {
+            if (inHeader || stderrRemaining > 0 || outputReceived < outputLength) {
+                return;
+            }
+            boolean timedOut = exitCode == 137 && wallMillis >= limits.wallLimitMillis();
+            results.add(new TestRun(exitCode, wallMillis, cpuMillis, null, outputLength, timedOut, false,
+                    outputLength > maxOutputBytes, stderr.toString(StandardCharsets.UTF_8)));
+            stderr.reset();
+            outputReceived -= outputLength;
+            inHeader = true;
+        }
+
+        private void abandon() {
+            abandoned = true;
+            results.add(ABANDONED);
+            try {
+                close();
+            } catch (IOException e) {
+                // The attach stream is going away either way
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            results.add(END_OF_STREAM);
+            super.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            results.add(END_OF_STREAM);
+            super.onComplete();
+        }
+    }
+
+    // Parses a time printed by the times builtin, e.g. 0m1.250000s
+    static long shellTimeMillis(String value) {
+        int minutes = value.indexOf('m');
+        double seconds = Double.parseDouble(value.substring(minutes + 1, value.length() - 1));
+        return Long.parseLong(value.substring(0, minutes)) * 60_000 + Math.round(seconds * 1000);
+    }
+}
@@ -0,0 +1,53 @@
+package com.codeforge.codeforge.sandbox;
+
+// Outcome of running one test input through a sandbox session
+public record TestRun(
+        int exitCode,
+        long wallMillis,
+        long cpuMillis,
+        Integer memoryKb, // peak, null when the cgroup could not be read
+        long outputBytes,
+        boolean timedOut,
+        boolean memoryLimitExceeded,
+        boolean outputLimitExceeded,
+        String stderr) {
+
+    // No process exits with these; they mark runs the sandbox lost rather than the program failing
+    private static final int CRASHED_EXIT_CODE = -1;
+    private static final int DRIVER_LOST_EXIT_CODE = -2;
+
+    public static TestRun crashed(String reason) {
+        return new TestRun(CRASHED_EXIT_CODE, 0, 0, null, 0, false, false, false, reason);
+    }
+
+    // The session driver died while the program ran, which the program can cause (it runs as the same user)
+    public static TestRun driverLost(long wallMillis) {
+        return new TestRun(DRIVER_LOST_EXIT_CODE, wallMillis, wallMillis, null, 0, false, false, false,
+                "The sandbox driver exited while the program was running");
+    }
+
+    // Output already went wrong and the run was stopped early; only the output is judged
+    public static TestRun abandoned(long wallMillis, long outputBytes) {
+        return new TestRun(0, wallMillis, wallMillis, null, outputBytes, false, false, false, null);
+    }
+
+    // Raw outcome as reported by the driver, before CgroupAccounting adds CPU time and memory
+    public static TestRun of(int exitCode, long wallMillis, long outputBytes, boolean timedOut,
+                             boolean outputLimitExceeded, String stderr) {
+        return new TestRun(exitCode, wallMillis, wallMillis, null, outputBytes, timedOut, false, outputLimitExceeded, stderr);
+    }
+
+    // The sandbox failed, so the run says nothing about the program
+    public boolean isCrashed() {
+        return exitCode == CRASHED_EXIT_CODE;
+    }
+
+    // Counts as a runtime error, but the verdict must not be reused for identical resubmissions
+    public boolean isDriverLost() {
+        return exitCode == DRIVER_LOST_EXIT_CODE;
+    }
+
+    public boolean isSuccess() {
+        return exitCode == 0 && !timedOut && !memoryLimitExceeded && !outputLimitExceeded;
+    }
+}
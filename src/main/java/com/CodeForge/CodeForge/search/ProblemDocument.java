@@ -0,0 +1,32 @@
+package com.codeforge.codeforge.search;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.codeforge.codeforge.model.Category;
+import com.codeforge.codeforge.model.Problem;
+
+// The searchable fields of a problem, detached from the persistence context
+public record ProblemDocument(
+        Long id,
+        String title,
+        String slug,
+        String description,
+        Problem.Difficulty difficulty,
+        Problem.Status status,
+        Set<Long> categoryIds,
+        List<String> categoryNames) {
+
+    public static ProblemDocument of(Problem problem) {
+        return new ProblemDocument(
+                problem.getId(),
+                problem.getTitle(),
+                problem.getSlug(),
+                problem.getDescription(),
+                problem.getDifficulty(),
+                problem.getStatus(),
+                problem.getCategories().stream().map(Category::getId).collect(Collectors.toUnmodifiableSet()),
+                problem.getCategories().stream().map(Category::getName).toList());
+    }
+}
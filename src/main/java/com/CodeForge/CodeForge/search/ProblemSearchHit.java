@@ -0,0 +1,9 @@
+package com.codeforge.codeforge.search;
+
+import java.util.List;
+
+import com.codeforge.codeforge.model.Problem;
+
+public record ProblemSearchHit(Long id, String title, String slug, Problem.Difficulty difficulty,
+        List<String> categories, double score) {
+}
@@ -0,0 +1,312 @@
+package com.codeforge.codeforge.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.codeforge.codeforge.model.Problem;
+
+/**
+ * Inverted index over problem title, description, category names and difficulty, scored with BM25
+ * on field-weighted term frequencies.
+ *
+ * Every query term must match a document, either exactly, as a prefix of an indexed term (so
+ * results update while typing) or within one edit. Typo lookup uses a deletion neighbourhood:
+ * each indexed term is also filed under all strings that are one deletion away, so candidates are
+ * a handful of hash lookups instead of a scan of the dictionary.
+ */
+public class ProblemSearchIndex {
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float DIFFICULTY_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final float PREFIX_FACTOR = 0.8f;
+    private static final float FUZZY_FACTOR = 0.6f;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "if", "in", "is", "it",
+            "of", "on", "or", "that", "the", "this", "to", "with", "you", "your");
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+    private double totalLength;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Entry(ProblemDocument document, Map<String, Float> terms, float length) {
+    }
+
+    public void put(ProblemDocument document) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, document.title(), TITLE_WEIGHT);
+        for (String category : document.categoryNames()) {
+            addField(terms, category, CATEGORY_WEIGHT);
+        }
+        if (document.difficulty() != null) {
+            addField(terms, document.difficulty().name(), DIFFICULTY_WEIGHT);
+        }
+        addField(terms, document.description(), DESCRIPTION_WEIGHT);
+        float length = (float) terms.values().stream().mapToDouble(Float::doubleValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            removeEntry(document.id());
+            entries.put(document.id(), new Entry(document, terms, length));
+            totalLength += length;
+            for (Map.Entry<String, Float> term : terms.entrySet()) {
+                Map<Long, Float> docs = postings.computeIfAbsent(term.getKey(), t -> {
+                    addDeletions(t);
+                    return new HashMap<>();
+                });
+                docs.put(document.id(), term.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long problemId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(problemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of indexed problems in the given category, e.g. to re-index after a rename
+    public List<Long> problemsInCategory(Long categoryId) {
+        lock.readLock().lock();
+        try {
+            return entries.values().stream()
+                    .filter(e -> e.document().categoryIds().contains(categoryId))
+                    .map(e -> e.document().id())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Active problems matching all query terms, best first; an empty query lists them by id
+    public ProblemSearchResult search(String query, Set<Problem.Difficulty> difficulties, Long categoryId,
+                                      int offset, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores;
+            if (queryTerms.isEmpty()) {
+                scores = new HashMap<>();
+                for (Long id : entries.keySet()) {
+                    scores.put(id, 0f);
+                }
+            } else {
+                scores = null;
+                for (String term : queryTerms) {
+                    Map<Long, Float> termScores = scoreTerm(term);
+                    if (scores == null) {
+                        scores = termScores;
+                    } else {
+                        Map<Long, Float> both = new HashMap<>();
+                        for (Map.Entry<Long, Float> score : scores.entrySet()) {
+                            Float other = termScores.get(score.getKey());
+                            if (other != null) {
+                                both.put(score.getKey(), score.getValue() + other);
+                            }
+                        }
+                        scores = both;
+                    }
+                    if (scores.isEmpty()) {
+                        break;
+                    }
+                }
+            }
+
+            List<Map.Entry<Long, Float>> matches = new ArrayList<>();
+            for (Map.Entry<Long, Float> score : scores.entrySet()) {
+                ProblemDocument document = entries.get(score.getKey()).document();
+                if (document.status() == Problem.Status.ACTIVE
+                        && (difficulties == null || difficulties.isEmpty() || difficulties.contains(document.difficulty()))
+                        && (categoryId == null || document.categoryIds().contains(categoryId))) {
+                    matches.add(score);
+                }
+            }
+            matches.sort(Map.Entry.<Long, Float>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+
+            List<ProblemSearchHit> hits = new ArrayList<>();
+            for (int i = offset; i < matches.size() && hits.size() < limit; i++) {
+                Map.Entry<Long, Float> match = matches.get(i);
+                ProblemDocument document = entries.get(match.getKey()).document();
+                hits.add(new ProblemSearchHit(document.id(), document.title(), document.slug(),
+                        document.difficulty(), document.categoryNames(), match.getValue()));
+            }
+            return new ProblemSearchResult(matches.size(), hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best BM25 score per document over the exact, prefix and fuzzy expansions of one query term
+    private Map<Long, Float> scoreTerm(String term) {
+        Map<Long, Float> scores = new HashMap<>();
+        int documentCount = entries.size();
+        double averageLength = documentCount == 0 ? 1 : totalLength / documentCount;
+
+        for (Map.Entry<String, Float> expansion : expand(term).entrySet()) {
+            Map<Long, Float> docs = postings.get(expansion.getKey());
+            double idf = Math.log(1 + (documentCount - docs.size() + 0.5) / (docs.size() + 0.5));
+            for (Map.Entry<Long, Float> doc : docs.entrySet()) {
+                float tf = doc.getValue();
+                float length = entries.get(doc.getKey()).length();
+                double bm25 = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                scores.merge(doc.getKey(), (float) (bm25 * expansion.getValue()), Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private Map<String, Float> expand(String term) {
+        Map<String, Float> expansions = new LinkedHashMap<>();
+        if (postings.containsKey(term)) {
+            expansions.put(term, 1.0f);
+        }
+
+        int prefixes = 0;
+        for (String candidate : postings.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+            if (++prefixes > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            expansions.putIfAbsent(candidate, PREFIX_FACTOR);
+        }
+
+        if (term.length() >= MIN_FUZZY_LENGTH) {
+            Set<String> candidates = new HashSet<>(deletions.getOrDefault(term, Set.of()));
+            for (String deleted : deletionsOf(term)) {
+                if (postings.containsKey(deleted)) {
+                    candidates.add(deleted);
+                }
+                candidates.addAll(deletions.getOrDefault(deleted, Set.of()));
+            }
+            for (String candidate : candidates) {
+                if (!expansions.containsKey(candidate) && withinOneEdit(term, candidate)) {
+                    expansions.put(candidate, FUZZY_FACTOR);
+                }
+            }
+        }
+        return expansions;
+    }
+
+    private void removeEntry(Long problemId) {
+        Entry entry = entries.remove(problemId);
+        if (entry == null) {
+            return;
+        }
+        totalLength -= entry.length();
+        for (String term : entry.terms().keySet()) {
+            Map<Long, Float> docs = postings.get(term);
+            docs.remove(problemId);
+            if (docs.isEmpty()) {
+                postings.remove(term);
+                removeDeletions(term);
+            }
+        }
+    }
+
+    private void addDeletions(String term) {
+        if (term.length() >= MIN_FUZZY_LENGTH) {
+            for (String deleted : deletionsOf(term)) {
+                deletions.computeIfAbsent(deleted, d -> new HashSet<>()).add(term);
+            }
+        }
+    }
+
+    private void removeDeletions(String term) {
+        if (term.length() >= MIN_FUZZY_LENGTH) {
+            for (String deleted : deletionsOf(term)) {
+                Set<String> terms = deletions.get(deleted);
+                if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                    deletions.remove(deleted);
+                }
+            }
+        }
+    }
+
+    private static Collection<String> deletionsOf(String term) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i < term.length(); i++) {
+            result.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return result;
+    }
+
+    // Optimal string alignment distance <= 1 (one insertion, deletion, substitution or adjacent swap)
+    static boolean withinOneEdit(String a, String b) {
+        if (Math.abs(a.length() - b.length()) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < a.length() && i < b.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (a.length() == b.length()) {
+            if (i == a.length()) {
+                return true;
+            }
+            if (a.substring(i + 1).equals(b.substring(i + 1))) {
+                return true;
+            }
+            return i + 1 < a.length() && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                    && a.substring(i + 2).equals(b.substring(i + 2));
+        }
+        String longer = a.length() > b.length() ? a : b;
+        String shorter = longer == a ? b : a;
+        return longer.substring(i + 1).equals(shorter.substring(i));
+    }
+
+    private static void addField(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
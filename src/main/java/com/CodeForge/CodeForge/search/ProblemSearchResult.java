@@ -0,0 +1,6 @@
+package com.codeforge.codeforge.search;
+
+import java.util.List;
+
+public record ProblemSearchResult(int total, List<ProblemSearchHit> hits) {
+}
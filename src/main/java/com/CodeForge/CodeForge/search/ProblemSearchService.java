@@ -0,0 +1,133 @@
+package com.codeforge.codeforge.search;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codeforge.codeforge.event.CatalogChangedEvent;
+import com.codeforge.codeforge.model.Problem;
+import com.codeforge.codeforge.repository.ProblemRepository;
+
+/**
+ * Owns the in-memory {@link ProblemSearchIndex}. The index is built at startup, updated after each
+ * committed problem or category change, and rebuilt periodically to pick up changes that bypass
+ * the entity listener (bulk SQL, category assignments that leave the problem row untouched).
+ */
+@Service
+public class ProblemSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProblemSearchService.class);
+    private static final int LOAD_BATCH_SIZE = 500;
+
+    private final ProblemRepository problemRepository;
+    private final TransactionTemplate readTransaction;
+    private volatile ProblemSearchIndex index = new ProblemSearchIndex();
+
+    // Problems changed while a rebuild was reading, re-applied to the new index once it is swapped in
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    public ProblemSearchService(ProblemRepository problemRepository, PlatformTransactionManager transactionManager) {
+        this.problemRepository = problemRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public ProblemSearchResult search(String query, Set<Problem.Difficulty> difficulties, Long categoryId,
+                                      int page, int size) {
+        int offset;
+        try {
+            offset = Math.multiplyExact(page, size);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Page " + page + " is out of range");
+        }
+        return index.search(query, difficulties, categoryId, offset, size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${codeforge.search.rebuild-interval-ms:3600000}",
+               fixedDelayString = "${codeforge.search.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        try {
+            ProblemSearchIndex fresh = new ProblemSearchIndex();
+            long afterId = 0;
+            while (true) {
+                List<Long> ids = problemRepository.findIdsAfter(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                for (ProblemDocument document : load(ids)) {
+                    fresh.put(document);
+                }
+                afterId = ids.get(ids.size() - 1);
+            }
+            index = fresh;
+            rebuilding = false;
+            for (Long id : changedDuringRebuild) {
+                reindex(fresh, id);
+            }
+            log.info("Problem search index built with {} problems in {} ms", fresh.size(),
+                    System.currentTimeMillis() - started);
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    @TransactionalEventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        ProblemSearchIndex current = index;
+        if (event.kind() == CatalogChangedEvent.Kind.PROBLEM) {
+            if (rebuilding) {
+                changedDuringRebuild.add(event.id());
+            }
+            if (event.removed()) {
+                current.remove(event.id());
+            } else {
+                reindex(current, event.id());
+            }
+        } else if (event.kind() == CatalogChangedEvent.Kind.CATEGORY) {
+            // A renamed category changes the text of every problem filed under it
+            for (Long problemId : current.problemsInCategory(event.id())) {
+                if (rebuilding) {
+                    changedDuringRebuild.add(problemId);
+                }
+                reindex(current, problemId);
+            }
+        }
+    }
+
+    private void reindex(ProblemSearchIndex target, Long problemId) {
+        List<ProblemDocument> documents = load(List.of(problemId));
+        if (documents.isEmpty()) {
+            target.remove(problemId);
+        } else {
+            target.put(documents.get(0));
+        }
+    }
+
+    private List<ProblemDocument> load(List<Long> ids) {
+        return readTransaction.execute(status -> problemRepository.findWithCategoriesByIdIn(ids).stream()
+                .map(ProblemDocument::of)
+                .toList());
+    }
+}
@@ -0,0 +1,105 @@
+package com.codeforge.codeforge.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codeforge.codeforge.event.SubmissionJudgedEvent;
+import com.codeforge.codeforge.repository.ProblemRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Buffers submission, accepted, like and dislike counts per problem in striped counters and flushes
+ * the deltas with atomic SQL increments, so judge workers never contend on a problem row.
+ * acceptanceRate is recomputed by the flush statement from the new totals.
+ */
+@Service
+public class ProblemStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProblemStatsService.class);
+
+    private final ProblemRepository problemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, Deltas> pending = new ConcurrentHashMap<>();
+
+    public ProblemStatsService(ProblemRepository problemRepository, TransactionTemplate transactionTemplate) {
+        this.problemRepository = problemRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @TransactionalEventListener
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        recordSubmission(event.problemId(), event.isAccepted());
+    }
+
+    public void recordSubmission(Long problemId, boolean accepted) {
+        Deltas deltas = deltasOf(problemId);
+        deltas.submissions.increment();
+        if (accepted) {
+            deltas.accepted.increment();
+        }
+    }
+
+    // Use a negative delta to take back a like or dislike
+    public void recordLikes(Long problemId, int likes, int dislikes) {
+        Deltas deltas = deltasOf(problemId);
+        deltas.likes.add(likes);
+        deltas.dislikes.add(dislikes);
+    }
+
+    @Scheduled(fixedDelayString = "${codeforge.stats.flush-interval-ms:5000}")
+    public void flush() {
+        // Ascending ids keep row lock order consistent across instances
+        List<Long> problemIds = new ArrayList<>(pending.keySet());
+        problemIds.sort(null);
+
+        for (Long problemId : problemIds) {
+            Deltas deltas = pending.get(problemId);
+            long submissions = deltas.submissions.sumThenReset();
+            long accepted = deltas.accepted.sumThenReset();
+            long likes = deltas.likes.sumThenReset();
+            long dislikes = deltas.dislikes.sumThenReset();
+            if (submissions == 0 && accepted == 0 && likes == 0 && dislikes == 0) {
+                continue;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        problemRepository.applyStatsDelta(problemId, submissions, accepted, likes, dislikes));
+            } catch (RuntimeException e) {
+                // Keep the deltas for the next flush
+                deltas.submissions.add(submissions);
+                deltas.accepted.add(accepted);
+                deltas.likes.add(likes);
+                deltas.dislikes.add(dislikes);
+                log.warn("Could not flush statistics of problem {}", problemId, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private Deltas deltasOf(Long problemId) {
+        return pending.computeIfAbsent(problemId, id -> new Deltas());
+    }
+
+    private static class Deltas {
+        final LongAdder submissions = new LongAdder();
+        final LongAdder accepted = new LongAdder();
+        final LongAdder likes = new LongAdder();
+        final LongAdder dislikes = new LongAdder();
+    }
+}
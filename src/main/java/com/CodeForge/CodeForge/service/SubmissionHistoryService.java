@@ -0,0 +1,69 @@
+package com.codeforge.codeforge.service;
+
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.codeforge.codeforge.repository.SubmissionRepository;
+import com.codeforge.codeforge.repository.SubmissionRepository.SummaryView;
+
+/**
+ * Newest-first submission lists paged by cursor. Each page costs one index seek, whatever its depth.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SubmissionHistoryService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final SubmissionRepository submissionRepository;
+
+    public SubmissionHistoryService(SubmissionRepository submissionRepository) {
+        this.submissionRepository = submissionRepository;
+    }
+
+    // nextCursor is null on the last page
+    public record HistoryPage(List<SummaryView> items, String nextCursor) {
+    }
+
+    public HistoryPage byUser(Long userId, String cursor, int size) {
+        Pageable limit = limitOf(size);
+        List<SummaryView> rows;
+        if (cursor == null) {
+            rows = submissionRepository.findHistoryByUser(userId, limit);
+        } else {
+            SubmissionCursor after = SubmissionCursor.decode(cursor);
+            rows = submissionRepository.findHistoryByUserBefore(userId, after.submittedAt(), after.id(), limit);
+        }
+        return toPage(rows, limit.getPageSize() - 1);
+    }
+
+    public HistoryPage byProblem(Long problemId, String cursor, int size) {
+        Pageable limit = limitOf(size);
+        List<SummaryView> rows;
+        if (cursor == null) {
+            rows = submissionRepository.findHistoryByProblem(problemId, limit);
+        } else {
+            SubmissionCursor after = SubmissionCursor.decode(cursor);
+            rows = submissionRepository.findHistoryByProblemBefore(problemId, after.submittedAt(), after.id(), limit);
+        }
+        return toPage(rows, limit.getPageSize() - 1);
+    }
+
+    // One extra row tells whether another page exists
+    private static Pageable limitOf(int size) {
+        return PageRequest.of(0, Math.min(Math.max(size, 1), MAX_PAGE_SIZE) + 1);
+    }
+
+    private static HistoryPage toPage(List<SummaryView> rows, int size) {
+        if (rows.size() <= size) {
+            return new HistoryPage(rows, null);
+        }
+        List<SummaryView> items = rows.subList(0, size);
+        SummaryView last = items.get(size - 1);
+        return new HistoryPage(items, new SubmissionCursor(last.getSubmittedAt(), last.getId()).encode());
+    }
+}
@@ -0,0 +1,66 @@
+package com.codeforge.codeforge.service;
+
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.codeforge.codeforge.repository.UserRepository;
+import com.codeforge.codeforge.repository.UserRepository.UserSearchView;
+
+/**
+ * Admin user lookup over username, email and names. Matches substrings and near misses through
+ * pg_trgm indexes, ranked by the best trigram similarity of any of the four fields.
+ *
+ * pg_trgm is installed by a DBA (db/pg_trgm.sql), not at startup. Whether it is there is checked on the
+ * first search; until then only substrings match, unranked.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UserSearchService {
+
+    // Shorter queries have no trigram to look up and would scan the whole index
+    public static final int MIN_QUERY_LENGTH = 3;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchService.class);
+
+    private final UserRepository userRepository;
+    private volatile Boolean trigramAvailable;
+
+    public UserSearchService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public Page<UserSearchView> search(String query, int page, int size) {
+        String normalized = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (normalized.length() < MIN_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must have at least " + MIN_QUERY_LENGTH + " characters");
+        }
+        String pattern = "%" + escapeLike(normalized) + "%";
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        return isTrigramAvailable()
+                ? userRepository.searchByTrigram(normalized, pattern, pageRequest)
+                : userRepository.searchByLike(pattern, pageRequest);
+    }
+
+    private boolean isTrigramAvailable() {
+        Boolean available = trigramAvailable;
+        if (available == null) {
+            available = userRepository.isTrigramExtensionInstalled();
+            if (!available) {
+                log.warn("pg_trgm is not installed; user search matches substrings only (run db/pg_trgm.sql and restart)");
+            }
+            trigramAvailable = available;
+        }
+        return available;
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,86 @@
+package com.codeforge.codeforge.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codeforge.codeforge.event.SubmissionJudgedEvent;
+import com.codeforge.codeforge.model.UserStats;
+import com.codeforge.codeforge.repository.SubmissionRepository;
+import com.codeforge.codeforge.repository.UserRepository;
+import com.codeforge.codeforge.repository.UserStatsRepository;
+
+/**
+ * Maintains the user_stats row of each user, so a profile is one primary key read instead of
+ * several aggregates over submissions. Counters move in the same transaction as the verdict.
+ * A nightly job recomputes them from submissions to repair any drift.
+ */
+@Service
+public class UserStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStatsService.class);
+
+    private final UserStatsRepository userStatsRepository;
+    private final SubmissionRepository submissionRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int rebuildBatchSize;
+
+    public UserStatsService(UserStatsRepository userStatsRepository,
+                            SubmissionRepository submissionRepository,
+                            UserRepository userRepository,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${codeforge.user-stats.rebuild-batch-size:1000}") int rebuildBatchSize) {
+        this.userStatsRepository = userStatsRepository;
+        this.submissionRepository = submissionRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    public UserStats statsOf(Long userId) {
+        return userStatsRepository.findById(userId).orElseGet(() -> new UserStats(userId));
+    }
+
+    // Runs inside the verdict transaction
+    @EventListener
+    public void onSubmissionJudged(SubmissionJudgedEvent event) {
+        // The upsert locks the user's row, so concurrent first accepts of one problem are counted once
+        userStatsRepository.recordSubmission(event.userId(), event.isAccepted() ? 1 : 0, event.language().name());
+        if (event.isAccepted()
+                && !submissionRepository.existsOtherAccepted(event.userId(), event.problemId(), event.submissionId())) {
+            userStatsRepository.recordSolved(event.userId(), event.difficulty().name());
+        }
+    }
+
+    // First start after the table was introduced: fill it instead of waiting for the nightly job
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (userStatsRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${codeforge.user-stats.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        Long maxUserId = userRepository.findMaxId();
+        if (maxUserId == null) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        int rows = 0;
+        // One short transaction per id range, so live verdicts are only blocked briefly
+        for (long from = 1; from <= maxUserId; from += rebuildBatchSize) {
+            long to = from + rebuildBatchSize - 1;
+            long rangeStart = from;
+            Integer updated = transactionTemplate.execute(status -> userStatsRepository.rebuildRange(rangeStart, to));
+            rows += updated != null ? updated : 0;
+        }
+        log.info("Rebuilt statistics of {} users in {} ms", rows, System.currentTimeMillis() - started);
+    }
+}
@@ -0,0 +1,5 @@
+package com.codeforge.codeforge.storage;
+
+// Address of a file in the test data store
+public record StoredBlob(String hash, long size) {
+}
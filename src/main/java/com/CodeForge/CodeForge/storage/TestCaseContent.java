@@ -0,0 +1,40 @@
+package com.codeforge.codeforge.storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.stereotype.Component;
+
+import com.codeforge.codeforge.model.TestCase;
+
+// Reads a test case's input and expected output regardless of where it is stored
+@Component
+public class TestCaseContent {
+
+    private final TestDataStore store;
+
+    public TestCaseContent(TestDataStore store) {
+        this.store = store;
+    }
+
+    // Memory-mapped for BLOB storage, so large inputs never pass through the Java heap
+    public ByteBuffer input(TestCase testCase) {
+        return testCase.isStoredAsBlob()
+                ? store.map(testCase.getInputHash())
+                : ByteBuffer.wrap(testCase.getInputData().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public ByteBuffer expectedOutput(TestCase testCase) {
+        return testCase.isStoredAsBlob()
+                ? store.map(testCase.getOutputHash())
+                : ByteBuffer.wrap(testCase.getExpectedOutput().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String inputAsString(TestCase testCase) {
+        return testCase.isStoredAsBlob() ? store.readString(testCase.getInputHash()) : testCase.getInputData();
+    }
+
+    public String expectedOutputAsString(TestCase testCase) {
+        return testCase.isStoredAsBlob() ? store.readString(testCase.getOutputHash()) : testCase.getExpectedOutput();
+    }
+}
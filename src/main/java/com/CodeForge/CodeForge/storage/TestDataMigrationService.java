@@ -0,0 +1,93 @@
+package com.codeforge.codeforge.storage;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.codeforge.codeforge.model.TestCase;
+import com.codeforge.codeforge.repository.TestCaseRepository;
+
+/**
+ * Moves INLINE test data into the test data store, one batch per transaction.
+ *
+ * Each migrated row keeps only hashes and sizes; the TEXT columns are cleared. The migration can be
+ * interrupted and resumed at any time since it only ever picks up rows that are still INLINE.
+ */
+@Service
+public class TestDataMigrationService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TestDataMigrationService.class);
+
+    private final TestCaseRepository testCaseRepository;
+    private final TestDataStore store;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean migrateOnStartup;
+    private final int batchSize;
+
+    public TestDataMigrationService(TestCaseRepository testCaseRepository,
+                                    TestDataStore store,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${codeforge.testdata.migrate-on-startup:false}") boolean migrateOnStartup,
+                                    @Value("${codeforge.testdata.migration-batch-size:50}") int batchSize) {
+        this.testCaseRepository = testCaseRepository;
+        this.store = store;
+        this.transactionTemplate = transactionTemplate;
+        this.migrateOnStartup = migrateOnStartup;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (migrateOnStartup) {
+            migrateAll();
+        }
+    }
+
+    // Returns the number of migrated test cases
+    public long migrateAll() {
+        long migrated = 0;
+        long lastId = 0;
+        while (true) {
+            long afterId = lastId;
+            List<Long> batch = transactionTemplate.execute(status -> migrateBatch(afterId));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            migrated += batch.size();
+            lastId = batch.get(batch.size() - 1);
+        }
+        log.info("Moved {} test cases to the test data store", migrated);
+        return migrated;
+    }
+
+    private List<Long> migrateBatch(long afterId) {
+        List<TestCase> testCases = testCaseRepository.findInlineAfter(afterId, PageRequest.of(0, batchSize));
+        for (TestCase testCase : testCases) {
+            externalize(testCase);
+        }
+        return testCases.stream().map(TestCase::getId).toList();
+    }
+
+    // Moves a managed test case's data into the store; the caller's transaction persists the change
+    public void externalize(TestCase testCase) {
+        if (testCase.isStoredAsBlob()) {
+            return;
+        }
+        StoredBlob input = store.store(testCase.getInputData());
+        StoredBlob output = store.store(testCase.getExpectedOutput());
+        testCase.setInputHash(input.hash());
+        testCase.setInputSize(input.size());
+        testCase.setOutputHash(output.hash());
+        testCase.setOutputSize(output.size());
+        testCase.setInputData(null);
+        testCase.setExpectedOutput(null);
+        testCase.setStorage(TestCase.Storage.BLOB);
+    }
+}
@@ -0,0 +1,131 @@
+package com.codeforge.codeforge.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Content-addressed store for test inputs and expected outputs on local disk.
+ *
+ * Files are named by their SHA-256 ({@code ab/abcdef...}), written once and never modified, so identical
+ * test data is stored once and readers can map files without any locking.
+ *
+ * The database only keeps each test case's hash, so {@code codeforge.testdata.dir} must be persistent storage
+ * shared by every judge node. It has no default; startup fails when it is not set.
+ */
+@Component
+public class TestDataStore {
+
+    private final Path root;
+
+    public TestDataStore(@Value("${codeforge.testdata.dir}") String root) {
+        if (root.isBlank()) {
+            throw new IllegalStateException("codeforge.testdata.dir must point to persistent storage shared by all judge nodes");
+        }
+        this.root = Path.of(root);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(root);
+    }
+
+    // Streams content into the store while hashing it; nothing is buffered in memory
+    public StoredBlob store(InputStream content) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(root, "blob-", ".part");
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                size = content.transferTo(out);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = pathOf(hash);
+            Files.createDirectories(target.getParent());
+            if (Files.exists(target)) {
+                Files.delete(temp);
+            } else {
+                // A concurrent writer of the same content may win the rename; the bytes are identical either way
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return new StoredBlob(hash, size);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw new UncheckedIOException("Could not store test data", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public StoredBlob store(String content) {
+        return store(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public boolean exists(String hash) {
+        return Files.exists(pathOf(hash));
+    }
+
+    /**
+     * Maps a stored file read-only. The mapping stays valid after the channel is closed and is released
+     * by the GC, so callers simply drop the buffer when done.
+     */
+    public ByteBuffer map(String hash) {
+        try (FileChannel channel = FileChannel.open(pathOf(hash), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return ByteBuffer.allocate(0);
+            }
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test data " + hash + " is not readable", e);
+        }
+    }
+
+    // Faults a stored file into the page cache, so the first judge to map it does not wait on the disk
+    public void preload(String hash) {
+        if (map(hash) instanceof MappedByteBuffer mapped) {
+            mapped.load();
+        }
+    }
+
+    // Decodes a stored file, for the few places that need text (e.g. showing sample cases)
+    public String readString(String hash) {
+        return StandardCharsets.UTF_8.decode(map(hash)).toString();
+    }
+
+    public Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Leftover temp files are harmless
+        }
+    }
+}
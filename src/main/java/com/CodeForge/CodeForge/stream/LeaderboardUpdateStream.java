@@ -0,0 +1,30 @@
+package com.codeforge.codeforge.stream;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.codeforge.codeforge.event.LeaderboardChangedEvent;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Pushes rank changes of a running contest. Deltas only make sense in order, so a follower that
+ * falls more than the buffer behind gets an error and is expected to reload the page and reconnect.
+ */
+@Component
+public class LeaderboardUpdateStream {
+
+    private static final int FOLLOWER_BUFFER = 1024;
+
+    private final TopicSinks<Long, LeaderboardChangedEvent> topics = new TopicSinks<>();
+
+    public Flux<LeaderboardChangedEvent> follow(Long contestId) {
+        return topics.subscribe(contestId)
+                .onBackpressureBuffer(FOLLOWER_BUFFER);
+    }
+
+    @EventListener
+    public void onLeaderboardChanged(LeaderboardChangedEvent event) {
+        topics.emit(event.contestId(), event);
+    }
+}
@@ -0,0 +1,17 @@
+package com.codeforge.codeforge.stream;
+
+import com.codeforge.codeforge.model.Submission;
+
+public record SubmissionUpdate(
+        Long submissionId,
+        Submission.Status status,
+        Integer passedTestCases,
+        Integer totalTestCases,
+        Integer executionTime,
+        Integer memoryUsed) {
+
+    // No further transitions follow a verdict
+    public boolean isFinal() {
+        return status != Submission.Status.PENDING && status != Submission.Status.RUNNING;
+    }
+}
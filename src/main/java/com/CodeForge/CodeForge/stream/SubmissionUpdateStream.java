@@ -0,0 +1,89 @@
+package com.codeforge.codeforge.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.codeforge.codeforge.event.SubmissionJudgedEvent;
+import com.codeforge.codeforge.event.SubmissionProgressEvent;
+import com.codeforge.codeforge.repository.SubmissionRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Pushes status transitions and test progress of a submission to its followers. Updates come from
+ * judge events of this instance; for submissions judged by another instance, one query per poll interval
+ * looks up the verdicts of all submissions followed on this instance, however many followers they have.
+ * A follower only needs the latest state, so slow followers keep the newest update and skip the ones in between.
+ */
+@Component
+public class SubmissionUpdateStream {
+
+    private static final int POLL_BATCH_SIZE = 1000;
+
+    private final SubmissionRepository submissionRepository;
+    private final TopicSinks<Long, SubmissionUpdate> topics = new TopicSinks<>();
+
+    public SubmissionUpdateStream(SubmissionRepository submissionRepository) {
+        this.submissionRepository = submissionRepository;
+    }
+
+    // Current state first, then live updates until the verdict
+    public Flux<SubmissionUpdate> follow(Long submissionId) {
+        return Flux.defer(() -> {
+            AtomicBoolean liveSeen = new AtomicBoolean();
+            Flux<SubmissionUpdate> live = topics.subscribe(submissionId)
+                    .doOnNext(update -> liveSeen.set(true))
+                    .onBackpressureLatest();
+            // Read after the live subscription exists, and skip the read if a newer update already arrived
+            Mono<SubmissionUpdate> current = read(submissionId)
+                    .filter(update -> !liveSeen.get());
+            return Flux.merge(live, current).takeUntil(SubmissionUpdate::isFinal);
+        });
+    }
+
+    private Mono<SubmissionUpdate> read(Long submissionId) {
+        return Mono.fromCallable(() -> submissionRepository.findStatusById(submissionId)
+                        .map(SubmissionUpdateStream::toUpdate)
+                        .orElse(null))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static SubmissionUpdate toUpdate(SubmissionRepository.StatusView view) {
+        return new SubmissionUpdate(view.getSubmissionId(), view.getStatus(), view.getPassedTestCases(),
+                view.getTotalTestCases(), view.getExecutionTime(), view.getMemoryUsed());
+    }
+
+    // Stored progress may lag behind live events, so polling only delivers verdicts
+    @Scheduled(fixedDelayString = "${codeforge.stream.status-poll-interval-ms:2000}")
+    public void pollVerdicts() {
+        List<Long> followed = new ArrayList<>(topics.keys());
+        for (int from = 0; from < followed.size(); from += POLL_BATCH_SIZE) {
+            List<Long> batch = followed.subList(from, Math.min(from + POLL_BATCH_SIZE, followed.size()));
+            for (SubmissionRepository.StatusView view : submissionRepository.findFinalStatusesByIds(batch)) {
+                topics.emit(view.getSubmissionId(), toUpdate(view));
+                topics.complete(view.getSubmissionId());
+            }
+        }
+    }
+
+    @EventListener
+    public void onProgress(SubmissionProgressEvent event) {
+        topics.emit(event.submissionId(), new SubmissionUpdate(event.submissionId(), event.status(),
+                event.passedTestCases(), event.totalTestCases(), null, null));
+    }
+
+    @TransactionalEventListener
+    public void onJudged(SubmissionJudgedEvent event) {
+        topics.emit(event.submissionId(), new SubmissionUpdate(event.submissionId(), event.status(),
+                null, null, event.executionTime(), event.memoryUsed()));
+        topics.complete(event.submissionId());
+    }
+}
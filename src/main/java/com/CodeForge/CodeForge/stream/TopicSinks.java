@@ -0,0 +1,68 @@
+package com.codeforge.codeforge.stream;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * One multicast sink per key, created on the first subscriber and dropped with the last one.
+ * Emission never blocks the publishing thread: the sink hands each value to subscribers that have
+ * demand, and every subscriber applies its own backpressure strategy downstream of the sink.
+ */
+class TopicSinks<K, V> {
+
+    private final Map<K, Topic<V>> topics = new ConcurrentHashMap<>();
+
+    Flux<V> subscribe(K key) {
+        return Flux.defer(() -> {
+            Topic<V> topic = topics.compute(key, (k, existing) -> {
+                Topic<V> t = existing != null ? existing : new Topic<>();
+                t.subscribers++;
+                return t;
+            });
+            return topic.sink.asFlux().doFinally(signal -> release(key, topic));
+        });
+    }
+
+    void emit(K key, V value) {
+        Topic<V> topic = topics.get(key);
+        if (topic != null) {
+            // Sinks reject concurrent emission, so publishers take turns per topic
+            synchronized (topic) {
+                topic.sink.tryEmitNext(value);
+            }
+        }
+    }
+
+    // Complete all subscribers of the key, e.g. once a submission has its verdict
+    void complete(K key) {
+        Topic<V> topic = topics.remove(key);
+        if (topic != null) {
+            synchronized (topic) {
+                topic.sink.tryEmitComplete();
+            }
+        }
+    }
+
+    // Keys that currently have subscribers
+    Set<K> keys() {
+        return topics.keySet();
+    }
+
+    private void release(K key, Topic<V> topic) {
+        topics.computeIfPresent(key, (k, current) -> {
+            if (current != topic) {
+                return current;
+            }
+            return --current.subscribers == 0 ? null : current;
+        });
+    }
+
+    private static class Topic<V> {
+        final Sinks.Many<V> sink = Sinks.many().multicast().directBestEffort();
+        int subscribers;
+    }
+}
@@ -0,0 +1,9 @@
+-- One-time DBA step for ranked, typo-tolerant user search (UserRepository.searchByTrigram).
+-- Run as a role allowed to create extensions, e.g. psql -d codeforge -f pg_trgm.sql; every statement is
+-- idempotent. Until pg_trgm is installed, admin user search falls back to plain substring matching.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_users_username_trgm ON users USING gin (lower(username) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_first_name_trgm ON users USING gin (lower(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_users_last_name_trgm ON users USING gin (lower(last_name) gin_trgm_ops);
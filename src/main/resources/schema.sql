@@ -0,0 +1,35 @@
+-- Runs after Hibernate's schema update (spring.jpa.defer-datasource-initialization); every statement must be idempotent
+
+-- Test data may live in the test data store instead of the TEXT columns
+ALTER TABLE test_cases ALTER COLUMN input_data DROP NOT NULL;
+ALTER TABLE test_cases ALTER COLUMN expected_output DROP NOT NULL;
+UPDATE test_cases SET data_storage = 'INLINE' WHERE data_storage IS NULL;
+
+-- Problems created before checker modes existed compare output exactly
+UPDATE problems SET checker_mode = 'EXACT' WHERE checker_mode IS NULL;
+
+-- Hibernate's check constraint on submissions.status only lists the statuses known when the table was
+-- created, and ddl-auto=update never widens it (JUDGE_ERROR came later); the enum mapping validates instead
+ALTER TABLE submissions DROP CONSTRAINT IF EXISTS submissions_status_check;
+
+-- The pg_trgm extension and its user search indexes need extension privileges and are installed once by a
+-- DBA with db/pg_trgm.sql; without them UserSearchService falls back to substring matching
+
+-- Submission analytics rollups (SubmissionRollupRecorder); buckets are only ever incremented
+CREATE TABLE IF NOT EXISTS submission_rollups (
+    granularity VARCHAR(8) NOT NULL,
+    dimension VARCHAR(16) NOT NULL,
+    dimension_key VARCHAR(64) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    status VARCHAR(32) NOT NULL,
+    submission_count BIGINT NOT NULL,
+    timed_count BIGINT NOT NULL,
+    execution_time_sum BIGINT NOT NULL,
+    PRIMARY KEY (granularity, dimension, dimension_key, bucket_start, status)
+);
+
+-- Problems, test cases and code templates take ids from pooled sequences (allocationSize 50) instead of
+-- their identity columns; move each sequence past the ids already handed out
+SELECT setval('problems_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM problems), (SELECT last_value FROM problems_seq), 1));
+SELECT setval('test_cases_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM test_cases), (SELECT last_value FROM test_cases_seq), 1));
+SELECT setval('code_templates_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM code_templates), (SELECT last_value FROM code_templates_seq), 1));
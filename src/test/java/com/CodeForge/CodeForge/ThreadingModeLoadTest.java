@@ -0,0 +1,126 @@
+package com.CodeForge.CodeForge;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compares throughput and latency of two running instances, one started with
+ * spring.threads.virtual.enabled=false and one with true. Skipped unless a target is given:
+ *
+ * mvn test -Dtest=ThreadingModeLoadTest -Dcodeforge.loadtest.platform-url=http://localhost:8080
+ *     -Dcodeforge.loadtest.virtual-url=http://localhost:8081
+ *
+ * Fails when virtual threads reach less than min-throughput-ratio of the platform instance's throughput.
+ * Optional: codeforge.loadtest.path (a JPA-backed GET), .clients, .requests-per-client, .token,
+ * .min-throughput-ratio (default 0.9, leaving room for run-to-run noise).
+ */
+@EnabledIfSystemProperty(named = "codeforge.loadtest.platform-url", matches = ".+")
+class ThreadingModeLoadTest {
+
+	private static final String PATH = System.getProperty("codeforge.loadtest.path", "/api/contests/1/leaderboard?size=50");
+	private static final int CLIENTS = Integer.getInteger("codeforge.loadtest.clients", 2000);
+	private static final int REQUESTS_PER_CLIENT = Integer.getInteger("codeforge.loadtest.requests-per-client", 20);
+	private static final double MIN_THROUGHPUT_RATIO =
+			Double.parseDouble(System.getProperty("codeforge.loadtest.min-throughput-ratio", "0.9"));
+
+	private static final Logger log = LoggerFactory.getLogger(ThreadingModeLoadTest.class);
+
+	@Test
+	void compareThreadingModes() throws Exception {
+		String virtualUrl = System.getProperty("codeforge.loadtest.virtual-url");
+		assertNotNull(virtualUrl, "codeforge.loadtest.virtual-url is required to compare the two modes");
+
+		Result platform = run("platform", System.getProperty("codeforge.loadtest.platform-url"));
+		log.info("{}", platform);
+		Result virtual = run("virtual", virtualUrl);
+		log.info("{}", virtual);
+
+		double throughputRatio = virtual.throughput() / platform.throughput();
+		log.info("virtual/platform: throughput x{}, p99 x{}", String.format("%.2f", throughputRatio),
+				String.format("%.2f", (double) virtual.p99Millis() / Math.max(platform.p99Millis(), 1)));
+		assertTrue(throughputRatio >= MIN_THROUGHPUT_RATIO,
+				() -> String.format("Virtual threads reached only x%.2f of platform throughput (minimum x%.2f)",
+						throughputRatio, MIN_THROUGHPUT_RATIO));
+	}
+
+	private Result run(String mode, String baseUrl) throws Exception {
+		HttpClient client = HttpClient.newBuilder()
+				.connectTimeout(Duration.ofSeconds(10))
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.build();
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + PATH)).timeout(Duration.ofSeconds(60)).GET();
+		String token = System.getProperty("codeforge.loadtest.token");
+		if (token != null) {
+			builder.header("Authorization", "Bearer " + token);
+		}
+		HttpRequest request = builder.build();
+
+		// Warm-up so JIT and pool start-up do not count
+		for (int i = 0; i < 200; i++) {
+			client.send(request, HttpResponse.BodyHandlers.discarding());
+		}
+
+		long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		long start = System.nanoTime();
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int c = 0; c < CLIENTS; c++) {
+				futures.add(clients.submit(() -> {
+					for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+						long sent = System.nanoTime();
+						try {
+							HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() >= 500) {
+								errors.incrementAndGet();
+							}
+						} catch (Exception e) {
+							errors.incrementAndGet();
+						}
+						latencies[next.getAndIncrement()] = System.nanoTime() - sent;
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+
+		Arrays.sort(latencies);
+		Result result = new Result(mode, latencies.length, errors.get(),
+				latencies.length * 1e9 / elapsed,
+				latencies[latencies.length / 2] / 1_000_000,
+				latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1_000_000);
+		assertTrue(result.errors() < latencies.length / 100, () -> "Too many failed requests: " + result);
+		return result;
+	}
+
+	private record Result(String mode, int requests, int errors, double throughput, long p50Millis, long p99Millis) {
+		@Override
+		public String toString() {
+			return String.format("%-8s %d requests, %d errors, %.0f req/s, p50 %d ms, p99 %d ms",
+					mode, requests, errors, throughput, p50Millis, p99Millis);
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package com.codeforge.codeforge.contest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ContestLeaderboardTest {
+
+	private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 10, 0);
+	private static final LocalDateTime END = START.plusHours(2);
+
+	private static ContestLeaderboard board() {
+		return new ContestLeaderboard(1L, START, END, Map.of(10L, 100, 20L, 200, 30L, 300));
+	}
+
+	@Test
+	void tiedScoresShareTheirRank() {
+		ContestLeaderboard board = board();
+		for (long user = 1; user <= 4; user++) {
+			board.addParticipant(user, user, "user" + user);
+		}
+		board.recordAccepted(1L, 10L, START.plusMinutes(5));
+		board.recordAccepted(2L, 20L, START.plusMinutes(6));
+		board.recordAccepted(3L, 10L, START.plusMinutes(7));
+
+		assertEquals(1, board.entryOf(2L).rank());
+		assertEquals(2, board.entryOf(1L).rank());
+		assertEquals(2, board.entryOf(3L).rank());
+		assertEquals(4, board.entryOf(4L).rank());
+		assertEquals(0, board.entryOf(4L).score());
+	}
+
+	@Test
+	void earlierLastAcceptComesFirstWithinATie() {
+		ContestLeaderboard board = board();
+		board.addParticipant(1, 1L, "late");
+		board.addParticipant(2, 2L, "early");
+		board.recordAccepted(1L, 10L, START.plusMinutes(30));
+		board.recordAccepted(2L, 10L, START.plusMinutes(10));
+
+		List<LeaderboardEntry> page = board.page(0, 10);
+		assertEquals(List.of(2L, 1L), page.stream().map(LeaderboardEntry::userId).toList());
+		assertEquals(List.of(1, 1), page.stream().map(LeaderboardEntry::rank).toList());
+	}
+
+	@Test
+	void acceptsOutsideTheWindowOrRepeatedDoNotScore() {
+		ContestLeaderboard board = board();
+		board.addParticipant(1, 1L, "user");
+
+		assertFalse(board.recordAccepted(1L, 10L, START.minusSeconds(1)));
+		assertFalse(board.recordAccepted(1L, 10L, END.plusSeconds(1)));
+		assertFalse(board.recordAccepted(1L, 99L, START.plusMinutes(1)));
+		assertFalse(board.recordAccepted(2L, 10L, START.plusMinutes(1)));
+		assertTrue(board.recordAccepted(1L, 10L, START.plusMinutes(1)));
+		assertFalse(board.recordAccepted(1L, 10L, START.plusMinutes(2)));
+
+		assertEquals(100, board.entryOf(1L).score());
+		assertEquals(1, board.entryOf(1L).solved());
+		assertNull(board.entryOf(2L));
+	}
+
+	@Test
+	void pagesMatchAFullSortAtEveryOffset() {
+		ContestLeaderboard board = board();
+		Random random = new Random(42);
+		List<long[]> expected = new ArrayList<>();
+		for (long user = 1; user <= 60; user++) {
+			board.addParticipant(user, user, "user" + user);
+			int score = 0;
+			long lastMinute = 0;
+			for (long problem : new long[] {10L, 20L, 30L}) {
+				if (random.nextInt(3) == 0) {
+					long minute = 1 + random.nextInt(100);
+					board.recordAccepted(user, problem, START.plusMinutes(minute));
+					score += (int) problem * 10;
+					lastMinute = Math.max(lastMinute, minute);
+				}
+			}
+			expected.add(new long[] {user, score, lastMinute});
+		}
+		expected.sort(Comparator.<long[]>comparingLong(e -> -e[1])
+				.thenComparingLong(e -> e[2] == 0 ? Long.MIN_VALUE : e[2])
+				.thenComparingLong(e -> e[0]));
+
+		for (int offset = 0; offset <= expected.size(); offset++) {
+			for (int limit : new int[] {1, 7, 60}) {
+				List<LeaderboardEntry> page = board.page(offset, limit);
+				int to = Math.min(expected.size(), offset + limit);
+				assertEquals(to - offset, page.size(), "offset " + offset + ", limit " + limit);
+				for (int i = offset; i < to; i++) {
+					long[] row = expected.get(i);
+					LeaderboardEntry entry = page.get(i - offset);
+					assertEquals(row[0], entry.userId(), "offset " + offset + ", row " + i);
+					assertEquals(1 + expected.stream().filter(e -> e[1] > row[1]).count(), entry.rank());
+				}
+			}
+		}
+		assertEquals(List.of(), board.page(expected.size(), 10));
+	}
+
+	@Test
+	void onlyChangedStandingsArePendingAfterAWrite() {
+		ContestLeaderboard board = board();
+		board.addParticipant(1, 1L, "a");
+		board.addParticipant(2, 2L, "b");
+		board.addParticipant(3, 3L, "c");
+		board.markWritten(board.pendingRankChanges());
+		assertEquals(List.of(), board.pendingRankChanges());
+
+		board.recordAccepted(3L, 30L, START.plusMinutes(1));
+		List<ContestLeaderboard.RankChange> changes = board.pendingRankChanges();
+		// User 3 takes the lead and the two others drop from a shared first place to a shared second
+		assertEquals(List.of(3L, 1L, 2L), changes.stream().map(ContestLeaderboard.RankChange::userId).toList());
+		assertEquals(List.of(1, 2, 2), changes.stream().map(ContestLeaderboard.RankChange::rank).toList());
+		board.markWritten(changes);
+
+		// User 1 changes score, user 2 drops to third; the leader's row is untouched
+		board.recordAccepted(1L, 10L, START.plusMinutes(2));
+		changes = board.pendingRankChanges();
+		assertEquals(List.of(1L, 2L), changes.stream().map(ContestLeaderboard.RankChange::userId).toList());
+		assertEquals(List.of(2, 3), changes.stream().map(ContestLeaderboard.RankChange::rank).toList());
+	}
+
+	@Test
+	void replayWatermarkOnlyMovesForward() {
+		ContestLeaderboard board = board();
+		board.markReplayedThrough(40);
+		board.markReplayedThrough(25);
+		assertEquals(40, board.getLastSubmissionId());
+	}
+}
@@ -0,0 +1,79 @@
+package com.codeforge.codeforge.judge.checker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class StreamingOutputComparatorTest {
+
+	private static final int[] CHUNK_SIZES = {1, 2, 3, 7, Integer.MAX_VALUE};
+
+	// Same verdict whichever way the output is split into writes
+	static boolean check(OutputChecker checker, String output, int chunkSize) {
+		byte[] bytes = output.getBytes(StandardCharsets.UTF_8);
+		for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+			checker.write(bytes, offset, Math.min(chunkSize, bytes.length - offset));
+		}
+		return checker.matches();
+	}
+
+	private static void assertVerdict(boolean expected, String answer, String output) {
+		for (int chunkSize : CHUNK_SIZES) {
+			StreamingOutputComparator comparator = new StreamingOutputComparator(
+					ByteBuffer.wrap(answer.getBytes(StandardCharsets.UTF_8)));
+			assertEquals(expected, check(comparator, output, chunkSize),
+					"chunk size " + chunkSize + ": " + output.replace("\n", "\\n"));
+		}
+	}
+
+	@Test
+	void trailingWhitespaceAndBlankLinesAreIgnored() {
+		assertVerdict(true, "1 2\n3\n", "1 2\n3\n");
+		assertVerdict(true, "1 2\n3\n", "1 2  \t\r\n3");
+		assertVerdict(true, "1 2\n3", "1 2\n3\n\n\n  \n");
+		assertVerdict(true, "1 2 \n3\n\n", "1 2\r\n3");
+		assertVerdict(true, "", "\n \n");
+	}
+
+	@Test
+	void innerAndLeadingWhitespaceIsCompared() {
+		assertVerdict(false, "1 2\n", "1  2\n");
+		assertVerdict(false, "1 2\n", "1\t2\n");
+		assertVerdict(false, "  x\n", "x\n");
+		assertVerdict(true, "a\n  b\n", "a\n  b  \n");
+		assertVerdict(false, "a\n\nb\n", "a\nb\n");
+		assertVerdict(false, "a\nb\n", "a\n\nb\n");
+	}
+
+	@Test
+	void shortAndLongOutputsAreRejected() {
+		assertVerdict(false, "1 2 3\n", "1 2\n");
+		assertVerdict(false, "1 2\n", "1 2 3\n");
+		assertVerdict(false, "1\n", "");
+		assertVerdict(false, "", "0");
+	}
+
+	@Test
+	void mismatchIsReportedBeforeTheOutputEnds() {
+		StreamingOutputComparator comparator = new StreamingOutputComparator(
+				ByteBuffer.wrap("12345\n".getBytes(StandardCharsets.US_ASCII)));
+		comparator.write("123".getBytes(StandardCharsets.US_ASCII), 0, 3);
+		assertFalse(comparator.hasMismatch());
+		assertTrue(comparator.wantsMore());
+		comparator.write("9".getBytes(StandardCharsets.US_ASCII), 0, 1);
+		assertTrue(comparator.hasMismatch());
+		assertFalse(comparator.wantsMore());
+	}
+
+	@Test
+	void comparesFromTheBufferPosition() {
+		ByteBuffer expected = ByteBuffer.wrap("skip:answer\n".getBytes(StandardCharsets.US_ASCII));
+		expected.position(5);
+		assertTrue(check(new StreamingOutputComparator(expected), "answer", 1));
+	}
+}
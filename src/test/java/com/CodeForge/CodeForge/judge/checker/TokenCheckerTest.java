@@ -0,0 +1,74 @@
+package com.codeforge.codeforge.judge.checker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class TokenCheckerTest {
+
+	private static final int[] CHUNK_SIZES = {1, 2, 3, 7, Integer.MAX_VALUE};
+
+	private static void assertVerdict(boolean expected, TokenChecker.Match match, double epsilon, String answer, String output) {
+		for (int chunkSize : CHUNK_SIZES) {
+			TokenChecker checker = new TokenChecker(ByteBuffer.wrap(answer.getBytes(StandardCharsets.UTF_8)),
+					match, epsilon, epsilon);
+			assertEquals(expected, StreamingOutputComparatorTest.check(checker, output, chunkSize),
+					"chunk size " + chunkSize + ": " + output.replace("\n", "\\n"));
+		}
+	}
+
+	@Test
+	void whitespaceBetweenTokensIsInsignificant() {
+		assertVerdict(true, TokenChecker.Match.EXACT, 0, "1 2\n3\n", "1\n2 \t 3");
+		assertVerdict(true, TokenChecker.Match.EXACT, 0, "  hello  world ", "hello\r\nworld\n\n");
+		assertVerdict(false, TokenChecker.Match.EXACT, 0, "12 3", "1 23");
+		assertVerdict(false, TokenChecker.Match.EXACT, 0, "1 2 3", "1 2");
+		assertVerdict(false, TokenChecker.Match.EXACT, 0, "1 2", "1 2 3");
+		assertVerdict(true, TokenChecker.Match.EXACT, 0, "", " \n");
+	}
+
+	@Test
+	void ignoresAsciiCaseOnlyWhenAsked() {
+		assertVerdict(true, TokenChecker.Match.IGNORE_CASE, 0, "YES\nNo", "yes nO");
+		assertVerdict(false, TokenChecker.Match.EXACT, 0, "YES", "yes");
+		assertVerdict(false, TokenChecker.Match.IGNORE_CASE, 0, "YES", "YESS");
+	}
+
+	@Test
+	void numbersMatchWithinAbsoluteOrRelativeEpsilon() {
+		assertVerdict(true, TokenChecker.Match.FLOAT, 1e-6, "0.5 2", "0.5000004 2.0000");
+		assertVerdict(false, TokenChecker.Match.FLOAT, 1e-6, "0.5", "0.500002");
+		// Relative: 1e-6 of 1e9 is 1000
+		assertVerdict(true, TokenChecker.Match.FLOAT, 1e-6, "1000000000", "1000000500");
+		assertVerdict(false, TokenChecker.Match.FLOAT, 1e-6, "1000000000", "1000002000");
+		assertVerdict(true, TokenChecker.Match.FLOAT, 1e-6, "-1.5e3", "-1500.0000001");
+		assertVerdict(true, TokenChecker.Match.FLOAT, 1e-6, "+.25", "2.5E-1");
+		assertVerdict(false, TokenChecker.Match.FLOAT, 1e-6, "1", "-1");
+	}
+
+	@Test
+	void nonNumericTokensCompareExactlyInFloatMode() {
+		assertVerdict(true, TokenChecker.Match.FLOAT, 1e-6, "answer 3.0", "answer 3");
+		assertVerdict(false, TokenChecker.Match.FLOAT, 1e-6, "answer", "Answer");
+		assertVerdict(false, TokenChecker.Match.FLOAT, 1e-6, "1.5", "1.5x");
+		assertVerdict(false, TokenChecker.Match.FLOAT, 1e-6, "1", "nan");
+	}
+
+	@Test
+	void firstWrongTokenStopsTheCheck() {
+		TokenChecker checker = new TokenChecker(ByteBuffer.wrap("1 2 3".getBytes(StandardCharsets.US_ASCII)),
+				TokenChecker.Match.EXACT, 0, 0);
+		checker.write("1 5".getBytes(StandardCharsets.US_ASCII), 0, 3);
+		// The token is still open until whitespace follows
+		assertFalse(checker.hasMismatch());
+		checker.write(" ".getBytes(StandardCharsets.US_ASCII), 0, 1);
+		assertTrue(checker.hasMismatch());
+		assertFalse(checker.wantsMore());
+		assertFalse(checker.matches());
+	}
+}
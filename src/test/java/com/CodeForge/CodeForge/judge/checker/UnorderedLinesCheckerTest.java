@@ -0,0 +1,67 @@
+package com.codeforge.codeforge.judge.checker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class UnorderedLinesCheckerTest {
+
+	private static final int[] CHUNK_SIZES = {1, 2, 3, 7, Integer.MAX_VALUE};
+
+	private static void assertVerdict(boolean expected, String answer, String output) {
+		for (int chunkSize : CHUNK_SIZES) {
+			UnorderedLinesChecker checker = new UnorderedLinesChecker(
+					ByteBuffer.wrap(answer.getBytes(StandardCharsets.UTF_8)));
+			assertEquals(expected, StreamingOutputComparatorTest.check(checker, output, chunkSize),
+					"chunk size " + chunkSize + ": " + output.replace("\n", "\\n"));
+		}
+	}
+
+	@Test
+	void acceptsAnyOrderOfTheSameLines() {
+		assertVerdict(true, "a\nb\nc\n", "c\na\nb\n");
+		assertVerdict(true, "1 2\n3 4\n", "3 4\n1 2");
+		assertVerdict(true, "x\nx\ny\n", "x\ny\nx\n");
+	}
+
+	@Test
+	void countsRepeatedLines() {
+		assertVerdict(false, "x\nx\ny\n", "x\ny\ny\n");
+		assertVerdict(false, "x\ny\n", "x\ny\ny\n");
+		assertVerdict(false, "x\ny\n", "y\n");
+	}
+
+	@Test
+	void trailingWhitespaceAndBlankLinesAreIgnored() {
+		assertVerdict(true, "a b\nc\n", "c \t\r\n\n  \na b  \n");
+		assertVerdict(true, "a\n\n\nb", "b\na\n");
+		assertVerdict(true, "", "\n\t\n");
+	}
+
+	@Test
+	void leadingAndInnerWhitespaceIsCompared() {
+		assertVerdict(false, "  a\nb\n", "a\nb\n");
+		assertVerdict(false, "a b\n", "a  b\n");
+		assertVerdict(false, "a b\n", "a\tb\n");
+		assertVerdict(false, "ab\n", "a b\n");
+	}
+
+	@Test
+	void extraLinesStopTheCheckEarly() {
+		UnorderedLinesChecker checker = new UnorderedLinesChecker(
+				ByteBuffer.wrap("a\nb\n".getBytes(StandardCharsets.US_ASCII)));
+		checker.write("b\na\n".getBytes(StandardCharsets.US_ASCII), 0, 4);
+		assertFalse(checker.hasMismatch());
+		checker.write("c".getBytes(StandardCharsets.US_ASCII), 0, 1);
+		// The third line only counts once it ends
+		assertFalse(checker.hasMismatch());
+		checker.write("\n".getBytes(StandardCharsets.US_ASCII), 0, 1);
+		assertTrue(checker.hasMismatch());
+		assertFalse(checker.wantsMore());
+	}
+}
@@ -0,0 +1,96 @@
+package com.codeforge.codeforge.sandbox;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ArtifactCacheTest {
+
+	@TempDir
+	Path directory;
+
+	private ArtifactCache cache(long maxBytes) throws IOException {
+		ArtifactCache cache = new ArtifactCache(directory, maxBytes, new SimpleMeterRegistry());
+		cache.load();
+		return cache;
+	}
+
+	private static void put(ArtifactCache cache, String key, int size) throws IOException {
+		Path temp = cache.newTempFile();
+		Files.write(temp, new byte[size]);
+		cache.put(key, temp);
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedOnceOverTheBudget() throws IOException {
+		ArtifactCache cache = cache(300);
+		put(cache, "a", 100);
+		put(cache, "b", 100);
+		put(cache, "c", 100);
+		assertEquals(300, cache.totalBytes());
+
+		// A lookup makes "a" the most recently used, so "b" goes first
+		assertTrue(cache.lookup("a").isPresent());
+		put(cache, "d", 100);
+
+		assertTrue(cache.lookup("a").isPresent());
+		assertFalse(cache.lookup("b").isPresent());
+		assertTrue(cache.lookup("c").isPresent());
+		assertTrue(cache.lookup("d").isPresent());
+		assertEquals(300, cache.totalBytes());
+		assertFalse(Files.exists(directory.resolve("b.tar")));
+	}
+
+	@Test
+	void largeEntryEvictsAsManyAsNeeded() throws IOException {
+		ArtifactCache cache = cache(300);
+		put(cache, "a", 100);
+		put(cache, "b", 100);
+		put(cache, "c", 100);
+		put(cache, "d", 250);
+
+		assertFalse(cache.lookup("a").isPresent());
+		assertFalse(cache.lookup("b").isPresent());
+		assertFalse(cache.lookup("c").isPresent());
+		assertTrue(cache.lookup("d").isPresent());
+		assertEquals(250, cache.totalBytes());
+	}
+
+	@Test
+	void replacingAnEntryCountsOnlyTheNewSize() throws IOException {
+		ArtifactCache cache = cache(1000);
+		put(cache, "a", 100);
+		put(cache, "a", 40);
+		assertEquals(40, cache.totalBytes());
+	}
+
+	@Test
+	void archivesFromAPreviousRunAreReloaded() throws IOException {
+		ArtifactCache first = cache(1000);
+		put(first, "a", 100);
+		put(first, "b", 200);
+
+		ArtifactCache second = cache(1000);
+		assertEquals(300, second.totalBytes());
+		assertTrue(second.lookup("b").isPresent());
+	}
+
+	@Test
+	void missingArchiveIsAMissAndFreesItsBytes() throws IOException {
+		ArtifactCache cache = cache(1000);
+		put(cache, "a", 100);
+		Files.delete(directory.resolve("a.tar"));
+
+		assertFalse(cache.lookup("a").isPresent());
+		assertEquals(0, cache.totalBytes());
+	}
+}
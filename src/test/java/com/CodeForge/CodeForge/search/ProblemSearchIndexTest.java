@@ -0,0 +1,89 @@
+package com.codeforge.codeforge.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.codeforge.codeforge.model.Problem;
+
+class ProblemSearchIndexTest {
+
+	private static ProblemDocument problem(long id, String title, Problem.Status status) {
+		return new ProblemDocument(id, title, "p" + id, null, Problem.Difficulty.EASY, status, Set.of(), List.of());
+	}
+
+	private static List<Long> ids(ProblemSearchResult result) {
+		return result.hits().stream().map(ProblemSearchHit::id).toList();
+	}
+
+	@Test
+	void exactBeatsPrefixBeatsOneEditTypo() {
+		ProblemSearchIndex index = new ProblemSearchIndex();
+		index.put(problem(3, "Matrex", Problem.Status.ACTIVE));
+		index.put(problem(2, "Matrixes", Problem.Status.ACTIVE));
+		index.put(problem(1, "Matrix", Problem.Status.ACTIVE));
+		index.put(problem(4, "Graph", Problem.Status.ACTIVE));
+
+		ProblemSearchResult result = index.search("matrix", null, null, 0, 10);
+		assertEquals(List.of(1L, 2L, 3L), ids(result));
+		assertEquals(3, result.total());
+		assertTrue(result.hits().get(0).score() > result.hits().get(1).score());
+		assertTrue(result.hits().get(1).score() > result.hits().get(2).score());
+	}
+
+	@Test
+	void partialWordsMatchAsPrefixes() {
+		ProblemSearchIndex index = new ProblemSearchIndex();
+		index.put(problem(1, "Shortest Path in a Grid", Problem.Status.ACTIVE));
+		index.put(problem(2, "Short Strings", Problem.Status.ACTIVE));
+
+		assertEquals(List.of(1L), ids(index.search("shortest pa", null, null, 0, 10)));
+		assertEquals(2, index.search("sho", null, null, 0, 10).total());
+	}
+
+	@Test
+	void typosOfShortTermsAreNotExpanded() {
+		ProblemSearchIndex index = new ProblemSearchIndex();
+		index.put(problem(1, "Two Sum", Problem.Status.ACTIVE));
+
+		assertEquals(List.of(), ids(index.search("sun", null, null, 0, 10)));
+		assertEquals(List.of(1L), ids(index.search("two sum", null, null, 0, 10)));
+	}
+
+	@Test
+	void everyQueryTermMustMatch() {
+		ProblemSearchIndex index = new ProblemSearchIndex();
+		index.put(problem(1, "Binary Search", Problem.Status.ACTIVE));
+		index.put(problem(2, "Binary Tree", Problem.Status.ACTIVE));
+
+		assertEquals(List.of(2L), ids(index.search("binary tre", null, null, 0, 10)));
+		assertEquals(List.of(1L), ids(index.search("bianry search", null, null, 0, 10)));
+	}
+
+	@Test
+	void onlyActiveProblemsAreReturned() {
+		ProblemSearchIndex index = new ProblemSearchIndex();
+		index.put(problem(1, "Knapsack", Problem.Status.ACTIVE));
+		index.put(problem(2, "Knapsack II", Problem.Status.DRAFT));
+		index.put(problem(3, "Knapsack III", Problem.Status.ARCHIVED));
+
+		assertEquals(List.of(1L), ids(index.search("knapsack", null, null, 0, 10)));
+	}
+
+	@Test
+	void withinOneEditCoversEachKindOfEdit() {
+		assertTrue(ProblemSearchIndex.withinOneEdit("graph", "graph"));
+		assertTrue(ProblemSearchIndex.withinOneEdit("graph", "grap"));
+		assertTrue(ProblemSearchIndex.withinOneEdit("grap", "graph"));
+		assertTrue(ProblemSearchIndex.withinOneEdit("graph", "grsph"));
+		assertTrue(ProblemSearchIndex.withinOneEdit("graph", "garph"));
+		assertFalse(ProblemSearchIndex.withinOneEdit("graph", "gahrp"));
+		assertFalse(ProblemSearchIndex.withinOneEdit("graph", "gra"));
+		assertFalse(ProblemSearchIndex.withinOneEdit("graph", "grxpy"));
+	}
+}
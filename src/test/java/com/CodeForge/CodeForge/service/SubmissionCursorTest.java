@@ -0,0 +1,44 @@
+package com.codeforge.codeforge.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+class SubmissionCursorTest {
+
+	private static String encoded(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void roundTrips() {
+		SubmissionCursor cursor = new SubmissionCursor(LocalDateTime.of(2026, 3, 14, 15, 9, 26, 535_897_000), 9_007_199_254_740_993L);
+		assertEquals(cursor, SubmissionCursor.decode(cursor.encode()));
+
+		SubmissionCursor wholeMinute = new SubmissionCursor(LocalDateTime.of(2026, 1, 1, 0, 0), 1L);
+		assertEquals(wholeMinute, SubmissionCursor.decode(wholeMinute.encode()));
+	}
+
+	@Test
+	void encodingIsUrlSafe() {
+		for (long id = 0; id < 200; id++) {
+			String encoded = new SubmissionCursor(LocalDateTime.of(2026, 5, 1, 12, 30, 15, 999_000), id).encode();
+			assertFalse(encoded.contains("+") || encoded.contains("/") || encoded.contains("="), encoded);
+		}
+	}
+
+	@Test
+	void rejectsMalformedCursors() {
+		assertThrows(IllegalArgumentException.class, () -> SubmissionCursor.decode("not base64!"));
+		assertThrows(IllegalArgumentException.class, () -> SubmissionCursor.decode(encoded("2026-01-01T00:00")));
+		assertThrows(IllegalArgumentException.class, () -> SubmissionCursor.decode(encoded("yesterday|5")));
+		assertThrows(IllegalArgumentException.class, () -> SubmissionCursor.decode(encoded("2026-01-01T00:00|five")));
+		assertThrows(IllegalArgumentException.class, () -> SubmissionCursor.decode(encoded("2026-01-01T00:00|")));
+	}
+}